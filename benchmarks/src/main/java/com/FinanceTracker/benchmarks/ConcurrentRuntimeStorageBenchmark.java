@@ -0,0 +1,118 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.ConcurrentRuntimeTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.FileReadPosition;
+import com.FinanceTracker.data.transactionsstoring.FileTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.TransactionFileSynchronizer;
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.exceptions.TransactionsFileCreationException;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.logic.TransactionAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ConcurrentRuntimeStorageBenchmark {
+    private static final int PRELOADED_LEDGER_SIZE = 100_000;
+    private static final int QUERY_WINDOW_MINUTES = 60;
+
+    @Param({"false", "true"})
+    public boolean withListeners;
+
+    private Path directory;
+    private ConcurrentRuntimeTransactionStorage concurrentStorage;
+    private FileTransactionStorage fileStorage;
+    private TransactionFileSynchronizer<FileReadPosition> fileSynchronizer;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        directory = Ledgers.createTempDirectory();
+    }
+
+    @Setup(Level.Iteration)
+    public void createStorage()
+            throws IOException, TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        concurrentStorage = new ConcurrentRuntimeTransactionStorage();
+        if (withListeners) {
+            Path filePath = directory.resolve("ledger.csv");
+            Files.deleteIfExists(filePath);
+            fileStorage = new FileTransactionStorage(filePath);
+            concurrentStorage.addListener(new TransactionAggregator());
+            fileSynchronizer = new TransactionFileSynchronizer<>(concurrentStorage, fileStorage);
+        }
+
+        for (int index = 0; index < PRELOADED_LEDGER_SIZE; index++)
+            concurrentStorage.addTransaction(Ledgers.transactionAt(index));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeStorage() {
+        if (withListeners) {
+            fileSynchronizer.close();
+            fileStorage.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        Ledgers.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addTransaction1Thread() {
+        addRandomTransaction();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void addTransaction2Threads() {
+        addRandomTransaction();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addTransaction4Threads() {
+        addRandomTransaction();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addTransaction8Threads() {
+        addRandomTransaction();
+    }
+
+    @Benchmark
+    @Group("writersAndReaders")
+    @GroupThreads(4)
+    public void addTransactionAlongsideReaders() {
+        addRandomTransaction();
+    }
+
+    @Benchmark
+    @Group("writersAndReaders")
+    @GroupThreads(4)
+    public long queryAlongsideWriters() {
+        int startIndex = ThreadLocalRandom.current().nextInt(PRELOADED_LEDGER_SIZE - QUERY_WINDOW_MINUTES);
+        try (Stream<StoredTransaction> transactions = concurrentStorage.streamTransactionsBetweenDates(
+                Ledgers.dateTimeAt(startIndex), Ledgers.dateTimeAt(startIndex + QUERY_WINDOW_MINUTES))) {
+            return transactions.count();
+        }
+    }
+
+    private void addRandomTransaction() {
+        concurrentStorage.addTransaction(Ledgers.transactionAt(ThreadLocalRandom.current().nextInt(PRELOADED_LEDGER_SIZE)));
+    }
+}
@@ -0,0 +1,240 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.ConcurrentRuntimeTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.FileReadPosition;
+import com.FinanceTracker.data.transactionsstoring.FileTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.TransactionFileSynchronizer;
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.exceptions.TransactionsFileCreationException;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.logic.TransactionAggregator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+public class ConcurrentRuntimeStorageHarness {
+    private static final int DEFAULT_PRODUCERS_COUNT = 8;
+    private static final int DEFAULT_TRANSACTIONS_PER_PRODUCER = 100_000;
+    private static final int ROUNDS_COUNT = 5;
+    private static final int QUERY_WINDOW_MINUTES = 1000;
+    private static final long PRODUCER_SUM_STEP = 1_000_000_000L;
+
+    private final int producersCount;
+    private final int transactionsPerProducer;
+
+    private ConcurrentRuntimeStorageHarness(int producersCount, int transactionsPerProducer) {
+        this.producersCount = producersCount;
+        this.transactionsPerProducer = transactionsPerProducer;
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException,
+            NoTransactionsException, TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        int producersCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PRODUCERS_COUNT;
+        int transactionsPerProducer = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TRANSACTIONS_PER_PRODUCER;
+        ConcurrentRuntimeStorageHarness harness = new ConcurrentRuntimeStorageHarness(producersCount,
+                transactionsPerProducer);
+
+        for (int round = 1; round <= ROUNDS_COUNT; round++) {
+            int checkedSnapshotsCount = harness.runRound();
+            System.out.println("Round " + round + ": " + producersCount + " producers, " + transactionsPerProducer
+                    + " transactions each, " + checkedSnapshotsCount + " range snapshots checked");
+        }
+    }
+
+    private int runRound() throws InterruptedException, ExecutionException, IOException, NoTransactionsException,
+            TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        Path directory = Ledgers.createTempDirectory();
+        try (FileTransactionStorage fileStorage = new FileTransactionStorage(directory.resolve("ledger.csv"))) {
+            return runRound(fileStorage);
+        } finally {
+            Ledgers.deleteDirectory(directory);
+        }
+    }
+
+    private int runRound(FileTransactionStorage fileStorage)
+            throws InterruptedException, ExecutionException, NoTransactionsException
+    {
+        ConcurrentRuntimeTransactionStorage storage = new ConcurrentRuntimeTransactionStorage();
+        TransactionAggregator transactionAggregator = new TransactionAggregator();
+        storage.addListener(transactionAggregator);
+        TransactionFileSynchronizer<FileReadPosition> fileSynchronizer =
+                new TransactionFileSynchronizer<>(storage, fileStorage);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicBoolean isProducing = new AtomicBoolean(true);
+        int checkedSnapshotsCount;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(producersCount + 1)) {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int producer = 0; producer < producersCount; producer++) {
+                int producerNumber = producer;
+                producers.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int index = 0; index < transactionsPerProducer; index++)
+                        storage.addTransaction(transactionOf(producerNumber, index));
+                    return null;
+                }));
+            }
+            Future<Integer> snapshotsChecker = executor.submit(() -> {
+                startLatch.await();
+                int[] previousWholePrefixes = new int[producersCount];
+                int snapshotsCount = 0;
+                while (isProducing.get()) {
+                    checkWindowSnapshot(storage);
+                    previousWholePrefixes = checkWholeSnapshot(storage, previousWholePrefixes);
+                    snapshotsCount += 2;
+                }
+                return snapshotsCount;
+            });
+
+            startLatch.countDown();
+            for (Future<?> producer : producers)
+                producer.get();
+            isProducing.set(false);
+            checkedSnapshotsCount = snapshotsChecker.get();
+        }
+
+        checkFinalState(storage);
+        checkListeners(transactionAggregator, fileSynchronizer);
+        fileSynchronizer.close();
+        return checkedSnapshotsCount;
+    }
+
+    private int[] checkWholeSnapshot(ConcurrentRuntimeTransactionStorage storage, int[] previousPrefixes)
+            throws NoTransactionsException
+    {
+        BitSet[] visibleIndexes = readSnapshot(storage, LocalDateTime.MIN, LocalDateTime.MAX);
+
+        int[] prefixes = new int[producersCount];
+        for (int producer = 0; producer < producersCount; producer++) {
+            prefixes[producer] = checkContiguous(visibleIndexes[producer], 0, producer);
+            if (prefixes[producer] < previousPrefixes[producer])
+                throw new IllegalStateException("Producer " + producer + " had " + previousPrefixes[producer]
+                        + " visible transactions, but a later snapshot shows only " + prefixes[producer]);
+        }
+        return prefixes;
+    }
+
+    private void checkWindowSnapshot(ConcurrentRuntimeTransactionStorage storage) throws NoTransactionsException {
+        int windowStart = ThreadLocalRandom.current().nextInt(Math.max(1, transactionsPerProducer - QUERY_WINDOW_MINUTES));
+        BitSet[] visibleIndexes = readSnapshot(storage, Ledgers.dateTimeAt(windowStart),
+                Ledgers.dateTimeAt(windowStart + QUERY_WINDOW_MINUTES));
+
+        for (int producer = 0; producer < producersCount; producer++) {
+            BitSet producerIndexes = visibleIndexes[producer];
+            if (!producerIndexes.isEmpty() && (producerIndexes.nextSetBit(0) <= windowStart
+                    || producerIndexes.previousSetBit(Integer.MAX_VALUE) >= windowStart + QUERY_WINDOW_MINUTES))
+                throw new IllegalStateException("Producer " + producer + " has transactions outside the queried window "
+                        + windowStart + " - " + (windowStart + QUERY_WINDOW_MINUTES));
+            checkContiguous(producerIndexes, windowStart + 1, producer);
+        }
+    }
+
+    private BitSet[] readSnapshot(ConcurrentRuntimeTransactionStorage storage, LocalDateTime startDateTime,
+                                  LocalDateTime endDateTime) throws NoTransactionsException
+    {
+        BitSet[] visibleIndexes = new BitSet[producersCount];
+        for (int producer = 0; producer < producersCount; producer++)
+            visibleIndexes[producer] = new BitSet();
+        BitSet visibleIds = new BitSet();
+
+        List<StoredTransaction> snapshot;
+        try (Stream<StoredTransaction> transactions = storage.streamTransactionsBetweenDates(startDateTime, endDateTime)) {
+            snapshot = transactions.toList();
+        }
+        for (StoredTransaction storedTransaction : snapshot) {
+            if (visibleIds.get(storedTransaction.id()))
+                throw new IllegalStateException("The id " + storedTransaction.id() + " is returned twice by a snapshot");
+            visibleIds.set(storedTransaction.id());
+
+            if (!storage.getTransactionById(storedTransaction.id()).equals(storedTransaction.transaction()))
+                throw new IllegalStateException("The id " + storedTransaction.id() + " refers to another transaction "
+                        + "than the one returned by a snapshot");
+
+            long sum = storedTransaction.transaction().sum().longValueExact();
+            visibleIndexes[(int) (sum / PRODUCER_SUM_STEP)].set((int) (sum % PRODUCER_SUM_STEP));
+        }
+        return visibleIndexes;
+    }
+
+    private static int checkContiguous(BitSet producerIndexes, int firstIndex, int producer) {
+        int visibleCount = producerIndexes.cardinality();
+        if (visibleCount > 0 && producerIndexes.nextClearBit(firstIndex) - firstIndex != visibleCount)
+            throw new IllegalStateException("Producer " + producer + " has " + visibleCount + " visible transactions "
+                    + "from the index " + firstIndex + ", but the first missing one is "
+                    + producerIndexes.nextClearBit(firstIndex) + ", so the snapshot isn't a prefix of its inserts");
+        return visibleCount;
+    }
+
+    private void checkFinalState(ConcurrentRuntimeTransactionStorage storage) throws NoTransactionsException {
+        long expectedCount = (long) producersCount * transactionsPerProducer;
+        if (storage.size() != expectedCount)
+            throw new IllegalStateException("The storage has " + storage.size() + " transactions instead of "
+                    + expectedCount);
+
+        BitSet[] visibleIndexes = readSnapshot(storage, LocalDateTime.MIN, LocalDateTime.MAX);
+        for (int producer = 0; producer < producersCount; producer++) {
+            if (checkContiguous(visibleIndexes[producer], 0, producer) != transactionsPerProducer)
+                throw new IllegalStateException("Producer " + producer + " has " + visibleIndexes[producer].cardinality()
+                        + " visible transactions instead of " + transactionsPerProducer);
+        }
+
+        BitSet ids = new BitSet();
+        try (Stream<StoredTransaction> transactions =
+                     storage.streamTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX)) {
+            transactions.forEach(storedTransaction -> ids.set(storedTransaction.id()));
+        }
+        if (ids.cardinality() != expectedCount || ids.nextClearBit(0) != expectedCount)
+            throw new IllegalStateException("The storage gave " + ids.cardinality() + " transactions the ids from 0 to "
+                    + (ids.length() - 1) + " instead of every id from 0 to " + (expectedCount - 1));
+    }
+
+    private void checkListeners(TransactionAggregator transactionAggregator,
+                                TransactionFileSynchronizer<FileReadPosition> fileSynchronizer)
+            throws NoTransactionsException
+    {
+        for (TransactionType type : TransactionType.values()) {
+            BigDecimal expectedTotal = BigDecimal.ZERO;
+            for (int producer = 0; producer < producersCount; producer++) {
+                for (int index = 0; index < transactionsPerProducer; index++) {
+                    Transaction transaction = transactionOf(producer, index);
+                    if (transaction.type() == type)
+                        expectedTotal = expectedTotal.add(transaction.sum());
+                }
+            }
+
+            BigDecimal total = transactionAggregator.getTotalBetweenDates(type, LocalDateTime.MIN, LocalDateTime.MAX);
+            if (total.compareTo(expectedTotal) != 0)
+                throw new IllegalStateException("The aggregator counted the " + type + " total " + total
+                        + " instead of " + expectedTotal);
+        }
+
+        long expectedCount = (long) producersCount * transactionsPerProducer;
+        int savedTransactionsCount = fileSynchronizer.saveNewTransactions();
+        if (savedTransactionsCount != expectedCount)
+            throw new IllegalStateException("The file synchronizer saved " + savedTransactionsCount
+                    + " transactions instead of " + expectedCount);
+    }
+
+    private static Transaction transactionOf(int producer, int index) {
+        TransactionType type = index % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+        return new Transaction(Ledgers.dateTimeAt(index), type, BigDecimal.valueOf(producer * PRODUCER_SUM_STEP + index));
+    }
+}
@@ -0,0 +1,80 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.FileTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.RuntimeTransactionStorage;
+import com.FinanceTracker.exceptions.FinanceTrackerException;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.logic.TransactionCopier;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CopierBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int ledgerSize;
+
+    private Path directory;
+    private Path sourceFilePath;
+    private RuntimeTransactionStorage sourceRuntimeStorage;
+
+    private FileTransactionStorage targetFileStorage;
+    private FileTransactionStorage sourceFileStorage;
+    private RuntimeTransactionStorage targetRuntimeStorage;
+
+    @Setup(Level.Trial)
+    public void createSources() throws IOException {
+        directory = Ledgers.createTempDirectory();
+        sourceFilePath = Ledgers.writeCsvLedger(directory, ledgerSize);
+        sourceRuntimeStorage = Ledgers.createRuntimeStorage(ledgerSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void createTargets() throws IOException, FinanceTrackerException {
+        Path targetFilePath = directory.resolve("target.csv");
+        Files.deleteIfExists(targetFilePath);
+        targetFileStorage = new FileTransactionStorage(targetFilePath);
+        sourceFileStorage = new FileTransactionStorage(sourceFilePath);
+        targetRuntimeStorage = new RuntimeTransactionStorage();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeTargets() {
+        targetFileStorage.close();
+        sourceFileStorage.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSources() throws IOException {
+        Ledgers.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public FileTransactionStorage copyRuntimeToFile() throws NoTransactionsException {
+        TransactionCopier.copyTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX,
+                sourceRuntimeStorage, targetFileStorage);
+        return targetFileStorage;
+    }
+
+    @Benchmark
+    public RuntimeTransactionStorage copyFileToRuntime() throws NoTransactionsException {
+        TransactionCopier.copyTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX,
+                sourceFileStorage, targetRuntimeStorage);
+        return targetRuntimeStorage;
+    }
+
+    @Benchmark
+    public RuntimeTransactionStorage loadAllFromFileInParallel() throws NoTransactionsException {
+        sourceFileStorage.copyAllTransactionsTo(targetRuntimeStorage);
+        return targetRuntimeStorage;
+    }
+}
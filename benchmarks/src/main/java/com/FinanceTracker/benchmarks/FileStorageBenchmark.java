@@ -0,0 +1,115 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.BinaryTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.FileTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.TransactionFileConverter;
+import com.FinanceTracker.data.transactionsstoring.TransactionScanCriteria;
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.exceptions.FinanceTrackerException;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileStorageBenchmark {
+    private static final int QUERY_WINDOW_MINUTES = 60 * 24;
+    private static final TransactionScanCriteria LARGE_EXPENSES = new TransactionScanCriteria(LocalDateTime.MIN,
+            LocalDateTime.MAX, EnumSet.of(TransactionType.EXPENSE), new BigDecimal("4900"), null);
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int ledgerSize;
+
+    private Path directory;
+    private FileTransactionStorage fileStorage;
+    private BinaryTransactionStorage binaryStorage;
+
+    @Setup(Level.Trial)
+    public void createLedger() throws IOException, FinanceTrackerException {
+        directory = Ledgers.createTempDirectory();
+        Path csvFilePath = Ledgers.writeCsvLedger(directory, ledgerSize);
+        Path binaryFilePath = directory.resolve("ledger-" + ledgerSize + BinaryTransactionStorage.FILE_EXTENSION);
+        TransactionFileConverter.convertCsvToBinary(csvFilePath, binaryFilePath);
+
+        fileStorage = new FileTransactionStorage(csvFilePath, true);
+        binaryStorage = new BinaryTransactionStorage(binaryFilePath);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLedger() throws IOException {
+        fileStorage.close();
+        binaryStorage.close();
+        Ledgers.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void addTransaction() {
+        fileStorage.addTransaction(Ledgers.transactionAt(ledgerSize));
+    }
+
+    @Benchmark
+    public void updateTransaction() throws NoTransactionsException {
+        int id = ThreadLocalRandom.current().nextInt(ledgerSize);
+        fileStorage.updateTransaction(id, Ledgers.transactionAt(id));
+    }
+
+    @Benchmark
+    public Transaction getTransactionById() throws NoTransactionsException {
+        return fileStorage.getTransactionById(ThreadLocalRandom.current().nextInt(ledgerSize));
+    }
+
+    @Benchmark
+    public Map<Integer, Transaction> getTransactionsBetweenDates() throws NoTransactionsException {
+        int startIndex = ThreadLocalRandom.current().nextInt(Math.max(1, ledgerSize - QUERY_WINDOW_MINUTES));
+        return fileStorage.getTransactionsBetweenDates(Ledgers.dateTimeAt(startIndex),
+                Ledgers.dateTimeAt(startIndex + QUERY_WINDOW_MINUTES));
+    }
+
+    @Benchmark
+    public void addTransactionToBinary() {
+        binaryStorage.addTransaction(Ledgers.transactionAt(ledgerSize));
+    }
+
+    @Benchmark
+    public Transaction getTransactionByIdFromBinary() throws NoTransactionsException {
+        return binaryStorage.getTransactionById(ThreadLocalRandom.current().nextInt(ledgerSize));
+    }
+
+    @Benchmark
+    public Map<Integer, Transaction> getTransactionsBetweenDatesFromBinary() throws NoTransactionsException {
+        int startIndex = ThreadLocalRandom.current().nextInt(Math.max(1, ledgerSize - QUERY_WINDOW_MINUTES));
+        return binaryStorage.getTransactionsBetweenDates(Ledgers.dateTimeAt(startIndex),
+                Ledgers.dateTimeAt(startIndex + QUERY_WINDOW_MINUTES));
+    }
+
+    @Benchmark
+    public long countLargeExpensesWithPushdown() {
+        try (Stream<StoredTransaction> transactions = fileStorage.streamTransactionsMatching(LARGE_EXPENSES)) {
+            return transactions.count();
+        }
+    }
+
+    @Benchmark
+    public long countLargeExpensesAfterFullParse() {
+        try (Stream<StoredTransaction> transactions =
+                     fileStorage.streamTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX)) {
+            return transactions.filter(storedTransaction -> LARGE_EXPENSES.matches(storedTransaction.transaction()))
+                    .count();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.exceptions.IncorrectInputException;
+import com.FinanceTracker.logic.InputConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InputConverterBenchmark {
+    @Param({"2024-03-15 13:45:10", "2024-03-15"})
+    public String dateTimeInput;
+
+    @Benchmark
+    public LocalDateTime convertDateTime() throws IncorrectInputException {
+        return InputConverter.convertDateTime(dateTimeInput);
+    }
+
+    @Benchmark
+    public BigDecimal convertSum() throws IncorrectInputException {
+        return InputConverter.convertSum("12345.67");
+    }
+
+    @Benchmark
+    public int convertId() throws IncorrectInputException {
+        return InputConverter.convertId("1048576");
+    }
+
+    @Benchmark
+    public TransactionType convertTransactionType() throws IncorrectInputException {
+        return InputConverter.convertTransactionType("EXPENSE");
+    }
+}
@@ -0,0 +1,73 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.ObservableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.RuntimeStorageType;
+import com.FinanceTracker.data.transactionsstoring.RuntimeTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.TransactionStorage;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+final class Ledgers {
+    static final LocalDateTime FIRST_DATE_TIME = LocalDateTime.of(2015, 1, 1, 0, 0);
+
+    private Ledgers() {}
+
+    static Transaction transactionAt(int index) {
+        TransactionType type = index % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+        BigDecimal sum = BigDecimal.valueOf(100 + (index * 7919L) % 500_000, 2);
+        return new Transaction(FIRST_DATE_TIME.plusMinutes(index), type, sum);
+    }
+
+    static LocalDateTime dateTimeAt(int index) {
+        return FIRST_DATE_TIME.plusMinutes(index);
+    }
+
+    static Path writeCsvLedger(Path directory, int ledgerSize) throws IOException {
+        Path filePath = directory.resolve("ledger-" + ledgerSize + ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8)) {
+            for (int index = 0; index < ledgerSize; index++) {
+                writer.write(index + "," + transactionAt(index).toString().replace(" ", ","));
+                writer.newLine();
+            }
+        }
+        return filePath;
+    }
+
+    static RuntimeTransactionStorage createRuntimeStorage(int ledgerSize) {
+        RuntimeTransactionStorage runtimeStorage = new RuntimeTransactionStorage();
+        fillStorage(runtimeStorage, ledgerSize);
+        return runtimeStorage;
+    }
+
+    static ObservableTransactionStorage createRuntimeStorage(RuntimeStorageType runtimeStorageType, int ledgerSize) {
+        ObservableTransactionStorage runtimeStorage = runtimeStorageType.createStorage();
+        fillStorage(runtimeStorage, ledgerSize);
+        return runtimeStorage;
+    }
+
+    private static void fillStorage(TransactionStorage storage, int ledgerSize) {
+        for (int index = 0; index < ledgerSize; index++)
+            storage.addTransaction(transactionAt(index));
+    }
+
+    static Path createTempDirectory() throws IOException {
+        return Files.createTempDirectory("finance-tracker-benchmarks");
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.deleteIfExists(path);
+        }
+    }
+}
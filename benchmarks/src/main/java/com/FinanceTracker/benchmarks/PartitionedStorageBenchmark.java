@@ -0,0 +1,63 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.PartitionPeriod;
+import com.FinanceTracker.data.transactionsstoring.PartitionedTransactionStorage;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.FinanceTrackerException;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PartitionedStorageBenchmark {
+    private static final int QUERY_WINDOW_MINUTES = 60 * 24;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int ledgerSize;
+
+    @Param({"DAY", "MONTH", "YEAR"})
+    public PartitionPeriod period;
+
+    private Path directory;
+    private PartitionedTransactionStorage partitionedStorage;
+
+    @Setup(Level.Trial)
+    public void createLedger() throws IOException, FinanceTrackerException {
+        directory = Ledgers.createTempDirectory();
+        partitionedStorage = PartitionedTransactionStorage.migrateFromFile(
+                Ledgers.writeCsvLedger(directory, ledgerSize), directory.resolve("ledger"), period);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLedger() throws IOException {
+        partitionedStorage.close();
+        Ledgers.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void addTransaction() {
+        partitionedStorage.addTransaction(Ledgers.transactionAt(ledgerSize));
+    }
+
+    @Benchmark
+    public Transaction getTransactionById() throws NoTransactionsException {
+        return partitionedStorage.getTransactionById(ThreadLocalRandom.current().nextInt(ledgerSize));
+    }
+
+    @Benchmark
+    public Map<Integer, Transaction> getTransactionsBetweenDates() throws NoTransactionsException {
+        int startIndex = ThreadLocalRandom.current().nextInt(Math.max(1, ledgerSize - QUERY_WINDOW_MINUTES));
+        return partitionedStorage.getTransactionsBetweenDates(Ledgers.dateTimeAt(startIndex),
+                Ledgers.dateTimeAt(startIndex + QUERY_WINDOW_MINUTES));
+    }
+}
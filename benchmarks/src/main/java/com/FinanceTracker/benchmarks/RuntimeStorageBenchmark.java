@@ -0,0 +1,51 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.ObservableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.RuntimeStorageType;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RuntimeStorageBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int ledgerSize;
+
+    @Param({"60", "43200"})
+    public int queryWindowMinutes;
+
+    @Param({"MAP", "CONCURRENT", "COLUMNAR"})
+    public RuntimeStorageType storageType;
+
+    private ObservableTransactionStorage runtimeStorage;
+
+    @Setup(Level.Trial)
+    public void createStorage() {
+        runtimeStorage = Ledgers.createRuntimeStorage(storageType, ledgerSize);
+    }
+
+    @Benchmark
+    public Map<Integer, Transaction> getTransactionsBetweenDates() throws NoTransactionsException {
+        int startIndex = ThreadLocalRandom.current().nextInt(Math.max(1, ledgerSize - queryWindowMinutes));
+        return runtimeStorage.getTransactionsBetweenDates(Ledgers.dateTimeAt(startIndex),
+                Ledgers.dateTimeAt(startIndex + queryWindowMinutes));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public Map<Integer, Transaction> getAllTransactions() throws NoTransactionsException {
+        return runtimeStorage.getTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX);
+    }
+}
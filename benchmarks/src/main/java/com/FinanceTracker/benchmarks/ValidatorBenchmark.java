@@ -0,0 +1,58 @@
+package com.FinanceTracker.benchmarks;
+
+import com.FinanceTracker.data.transactionsstoring.FileTransactionStorageValidator;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValidatorBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int ledgerSize;
+
+    private Path directory;
+    private Path filePath;
+
+    @Setup(Level.Trial)
+    public void createLedger() throws IOException {
+        directory = Ledgers.createTempDirectory();
+        filePath = Ledgers.writeCsvLedger(directory, ledgerSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLedger() throws IOException {
+        Ledgers.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public int fullValidationPass() throws TransactionsFileFormatException {
+        FileTransactionStorageValidator validator = new FileTransactionStorageValidator(filePath);
+        validator.ensureFileHasCorrectValues();
+        return validator.getLastFreeId();
+    }
+
+    @Benchmark
+    public int repeatedValidationOfUnchangedFile(ValidatedFile validatedFile) throws TransactionsFileFormatException {
+        validatedFile.validator.ensureFileHasCorrectValues();
+        return validatedFile.validator.getLastFreeId();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ValidatedFile {
+        FileTransactionStorageValidator validator;
+
+        @Setup(Level.Trial)
+        public void validate(ValidatorBenchmark benchmark) throws TransactionsFileFormatException {
+            validator = new FileTransactionStorageValidator(benchmark.filePath);
+            validator.ensureFileHasCorrectValues();
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package com.FinanceTracker;
 
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Scanner;
 
+import com.FinanceTracker.data.transactionsstoring.RuntimeStorageType;
 import com.FinanceTracker.ui.UserInterface;
 
 public class Program {
     public static void main(String[] args) {
+        RuntimeStorageType runtimeStorageType = RuntimeStorageType.CONCURRENT;
+        if (args.length > 0) {
+            try {
+                runtimeStorageType = RuntimeStorageType.valueOf(args[0].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown runtime storage: " + args[0] + ". Available storages: "
+                        + Arrays.toString(RuntimeStorageType.values()).toLowerCase(Locale.ROOT));
+                return;
+            }
+        }
+
         Scanner scanner = new Scanner(System.in);
-        UserInterface ui = new UserInterface(scanner);
+        UserInterface ui = new UserInterface(scanner, runtimeStorageType);
 
         ui.callMainMenu();
     }
@@ -0,0 +1,353 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.exceptions.TransactionsFileCreationException;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class BinaryTransactionStorage implements SynchronizableTransactionStorage<FileReadPosition> {
+    public static final String FILE_EXTENSION = ".ftb";
+
+    static final int MAGIC = 0x46544231;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 4;
+    static final int RECORD_SIZE = 4 + 8 + 1 + 8;
+
+    private static final int ID_OFFSET = 0;
+    private static final int EPOCH_SECOND_OFFSET = 4;
+    private static final int TYPE_OFFSET = 12;
+    private static final int UNSCALED_SUM_OFFSET = 13;
+    private static final int RECORDS_PER_READ = 4096;
+
+    private final Path filePath;
+    private final TransactionFileIndex idIndex = new TransactionFileIndex();
+    private long indexedRecordsCount = 0;
+    private long generation = 0;
+    private FileTime indexedModifiedTime;
+    private Object indexedFileKey;
+
+    public BinaryTransactionStorage(Path filePath) throws TransactionsFileCreationException, TransactionsFileFormatException {
+        this.filePath = filePath;
+        createFileIfNotExists();
+        ensureFileHasCorrectProperties();
+        readHeader();
+    }
+
+    private void createFileIfNotExists() throws TransactionsFileCreationException {
+        if (Files.exists(filePath))
+            return;
+
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeHeader(fileChannel, 0, 0);
+        } catch (IOException e) {
+            throw new TransactionsFileCreationException("File can't be created at this path: " + filePath);
+        }
+    }
+
+    private void ensureFileHasCorrectProperties() throws TransactionsFileFormatException {
+        if (!filePath.toString().endsWith(FILE_EXTENSION))
+            throw new TransactionsFileFormatException("Incorrect file type! It should be " + FILE_EXTENSION + ": " + filePath);
+
+        if (!Files.isWritable(filePath) || !Files.isReadable(filePath))
+            throw new TransactionsFileFormatException("File must be both readable and writable: " + filePath);
+    }
+
+    public void addTransaction(Transaction transaction) {
+        addTransactions(List.of(transaction));
+    }
+
+    public synchronized void addTransactions(Collection<Transaction> transactions) {
+        if (transactions.isEmpty())
+            return;
+        for (Transaction transaction : transactions)
+            CompactTransactionValues.ensureCanBeStored(transaction);
+
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Header header = readHeader(fileChannel);
+            indexRecords(fileChannel, header);
+            int id = header.nextId();
+            long recordIndex = header.recordCount();
+
+            ByteBuffer recordsBuffer = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_READ);
+            for (Transaction transaction : transactions) {
+                if (!recordsBuffer.hasRemaining())
+                    recordIndex += writeRecords(fileChannel, recordsBuffer, recordIndex);
+                putRecord(recordsBuffer, id, transaction);
+                id++;
+            }
+            recordIndex += writeRecords(fileChannel, recordsBuffer, recordIndex);
+            fileChannel.force(false);
+
+            writeHeader(fileChannel, recordIndex, id);
+            fileChannel.force(false);
+
+            int addedId = header.nextId();
+            for (long addedRecord = header.recordCount(); addedRecord < recordIndex; addedRecord++)
+                idIndex.put(addedId++, addedRecord, RECORD_SIZE);
+            indexedRecordsCount = recordIndex;
+            rememberIndexedFile();
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
+                    "Details:\n" + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during adding transaction to file.", e);
+        }
+    }
+
+    public synchronized Transaction getTransactionById(int id) throws NoTransactionsException {
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            indexRecords(fileChannel, readHeader(fileChannel));
+
+            long searchedRecord = idIndex.getOffset(id);
+            if (searchedRecord >= 0)
+                return getRecord(readRecords(fileChannel, searchedRecord, 1, ByteBuffer.allocate(RECORD_SIZE)), 0);
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
+                    "Details:\n" + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during getting values from file.", e);
+        }
+
+        throw new NoTransactionsException("No transaction with this Id: " + id);
+    }
+
+    private void indexRecords(FileChannel fileChannel, Header header) throws IOException {
+        if (header.recordCount() < indexedRecordsCount || isIndexedFileChanged()) {
+            idIndex.clear();
+            indexedRecordsCount = 0;
+            generation++;
+        }
+
+        ByteBuffer recordsBuffer = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_READ);
+        while (indexedRecordsCount < header.recordCount()) {
+            int recordsCount = (int) Math.min(RECORDS_PER_READ, header.recordCount() - indexedRecordsCount);
+            readRecords(fileChannel, indexedRecordsCount, recordsCount, recordsBuffer);
+            for (int record = 0; record < recordsCount; record++)
+                idIndex.put(getRecordId(recordsBuffer, record), indexedRecordsCount + record, RECORD_SIZE);
+            indexedRecordsCount += recordsCount;
+        }
+        rememberIndexedFile();
+    }
+
+    private boolean isIndexedFileChanged() throws IOException {
+        if (indexedModifiedTime == null)
+            return false;
+
+        BasicFileAttributes fileAttributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        return !indexedModifiedTime.equals(fileAttributes.lastModifiedTime())
+                || !Objects.equals(indexedFileKey, fileAttributes.fileKey());
+    }
+
+    private void rememberIndexedFile() throws IOException {
+        BasicFileAttributes fileAttributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        indexedModifiedTime = fileAttributes.lastModifiedTime();
+        indexedFileKey = fileAttributes.fileKey();
+    }
+
+    public synchronized FileReadPosition readTransactionsAfter(FileReadPosition position,
+                                                               Consumer<StoredTransaction> action)
+    {
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            Header header = readHeader(fileChannel);
+            indexRecords(fileChannel, header);
+
+            long startRecord = position != null && position.generation() == generation ? position.offset() : 0;
+            ByteBuffer recordsBuffer = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_READ);
+            for (long recordIndex = startRecord; recordIndex < header.recordCount(); recordIndex += RECORDS_PER_READ) {
+                int recordsCount = (int) Math.min(RECORDS_PER_READ, header.recordCount() - recordIndex);
+                readRecords(fileChannel, recordIndex, recordsCount, recordsBuffer);
+                for (int record = 0; record < recordsCount; record++)
+                    action.accept(new StoredTransaction(getRecordId(recordsBuffer, record), getRecord(recordsBuffer, record)));
+            }
+
+            return new FileReadPosition(generation, header.recordCount());
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
+                    "Details:\n" + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during getting values from file.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
+            throws NoTransactionsException
+    {
+        Map<Integer, Transaction> searchedTransactions = new LinkedHashMap<>();
+
+        try (Stream<StoredTransaction> transactionsStream = streamTransactionsBetweenDates(startDateTime, endDateTime)) {
+            transactionsStream.forEach(storedTransaction ->
+                    searchedTransactions.put(storedTransaction.id(), storedTransaction.transaction()));
+        }
+
+        if (searchedTransactions.isEmpty())
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+
+        return searchedTransactions;
+    }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        long startEpochSecond = CompactTransactionValues.startBoundToEpochSecond(startDateTime);
+        long endEpochSecond = CompactTransactionValues.endBoundToEpochSecond(endDateTime);
+
+        FileChannel fileChannel;
+        long recordCount;
+        try {
+            fileChannel = FileChannel.open(filePath, StandardOpenOption.READ);
+            recordCount = readHeader(fileChannel).recordCount();
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
+                    "Details:\n" + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during getting values from file.", e);
+        }
+
+        Spliterator<StoredTransaction> recordsSpliterator =
+                new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private final ByteBuffer recordsBuffer = ByteBuffer.allocate(RECORD_SIZE * RECORDS_PER_READ);
+            private long nextRecordIndex = 0;
+            private int bufferedRecords = 0;
+            private int nextBufferedRecord = 0;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super StoredTransaction> action) {
+                try {
+                    while (true) {
+                        if (nextBufferedRecord == bufferedRecords) {
+                            if (nextRecordIndex >= recordCount)
+                                return false;
+                            bufferedRecords = (int) Math.min(RECORDS_PER_READ, recordCount - nextRecordIndex);
+                            readRecords(fileChannel, nextRecordIndex, bufferedRecords, recordsBuffer);
+                            nextRecordIndex += bufferedRecords;
+                            nextBufferedRecord = 0;
+                        }
+
+                        int record = nextBufferedRecord++;
+                        long epochSecond = recordsBuffer.getLong(record * RECORD_SIZE + EPOCH_SECOND_OFFSET);
+                        if (epochSecond > startEpochSecond && epochSecond < endEpochSecond) {
+                            action.accept(new StoredTransaction(getRecordId(recordsBuffer, record),
+                                    getRecord(recordsBuffer, record)));
+                            return true;
+                        }
+                    }
+                } catch (TransactionsFileFormatException e) {
+                    throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
+                            "Details:\n" + e.getMessage());
+                } catch (IOException e) {
+                    //it shouldn't happen
+                    throw new UncheckedIOException("Unexpected IO exception during getting values from file.", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(recordsSpliterator, false).onClose(() -> {
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new UncheckedIOException("Unexpected IO exception during closing the file.", e);
+            }
+        });
+    }
+
+    private void readHeader() throws TransactionsFileFormatException {
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            readHeader(fileChannel);
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during file processing", e);
+        }
+    }
+
+    static Header readHeader(FileChannel fileChannel) throws IOException, TransactionsFileFormatException {
+        ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (headerBuffer.hasRemaining() && fileChannel.read(headerBuffer, headerBuffer.position()) >= 0);
+
+        if (headerBuffer.hasRemaining() || headerBuffer.getInt(0) != MAGIC)
+            throw new TransactionsFileFormatException("The file isn't a transactions binary file.");
+        if (headerBuffer.getInt(4) != VERSION || headerBuffer.getInt(8) != CompactTransactionValues.SUM_SCALE)
+            throw new TransactionsFileFormatException("Unsupported transactions binary file version.");
+
+        Header header = new Header(headerBuffer.getLong(12), headerBuffer.getInt(20));
+        if (header.recordCount() < 0 || fileChannel.size() < HEADER_SIZE + header.recordCount() * RECORD_SIZE)
+            throw new TransactionsFileFormatException("The transactions binary file is shorter than its header states.");
+
+        return header;
+    }
+
+    static void writeHeader(FileChannel fileChannel, long recordCount, int nextId) throws IOException {
+        ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE);
+        headerBuffer.putInt(MAGIC).putInt(VERSION).putInt(CompactTransactionValues.SUM_SCALE)
+                .putLong(recordCount).putInt(nextId);
+        headerBuffer.flip();
+        while (headerBuffer.hasRemaining())
+            fileChannel.write(headerBuffer, headerBuffer.position());
+    }
+
+    static void putRecord(ByteBuffer recordsBuffer, int id, Transaction transaction) {
+        recordsBuffer.putInt(id)
+                .putLong(CompactTransactionValues.toEpochSecond(transaction.dateTime()))
+                .put(CompactTransactionValues.toTypeCode(transaction.type()))
+                .putLong(CompactTransactionValues.toUnscaledSum(transaction.sum()));
+    }
+
+    static Transaction getRecord(ByteBuffer recordsBuffer, int record) throws TransactionsFileFormatException {
+        int recordOffset = record * RECORD_SIZE;
+        return new Transaction(
+                CompactTransactionValues.toDateTime(recordsBuffer.getLong(recordOffset + EPOCH_SECOND_OFFSET)),
+                CompactTransactionValues.toType(recordsBuffer.get(recordOffset + TYPE_OFFSET)),
+                CompactTransactionValues.toSum(recordsBuffer.getLong(recordOffset + UNSCALED_SUM_OFFSET)));
+    }
+
+    static int getRecordId(ByteBuffer recordsBuffer, int record) {
+        return recordsBuffer.getInt(record * RECORD_SIZE + ID_OFFSET);
+    }
+
+    static long writeRecords(FileChannel fileChannel, ByteBuffer recordsBuffer, long firstRecordIndex) throws IOException {
+        recordsBuffer.flip();
+        long recordsCount = recordsBuffer.remaining() / RECORD_SIZE;
+        long position = HEADER_SIZE + firstRecordIndex * RECORD_SIZE;
+        while (recordsBuffer.hasRemaining())
+            fileChannel.write(recordsBuffer, position + recordsBuffer.position());
+        recordsBuffer.clear();
+        return recordsCount;
+    }
+
+    static ByteBuffer readRecords(FileChannel fileChannel, long firstRecordIndex, int recordsCount, ByteBuffer recordsBuffer)
+            throws IOException
+    {
+        recordsBuffer.clear().limit(recordsCount * RECORD_SIZE);
+        long position = HEADER_SIZE + firstRecordIndex * RECORD_SIZE;
+        while (recordsBuffer.hasRemaining()) {
+            if (fileChannel.read(recordsBuffer, position + recordsBuffer.position()) < 0)
+                throw new IOException("Unexpected end of the transactions binary file.");
+        }
+        return recordsBuffer;
+    }
+
+    record Header(long recordCount, int nextId) {
+    }
+}
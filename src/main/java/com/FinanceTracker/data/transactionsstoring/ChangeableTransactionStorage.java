@@ -0,0 +1,11 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+
+public interface ChangeableTransactionStorage extends TransactionStorage {
+
+    void updateTransaction(int id, Transaction transaction) throws NoTransactionsException;
+
+    void deleteTransaction(int id) throws NoTransactionsException;
+}
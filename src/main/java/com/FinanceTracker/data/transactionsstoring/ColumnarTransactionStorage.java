@@ -0,0 +1,257 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class ColumnarTransactionStorage implements ObservableTransactionStorage {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_REMOVED_ROWS_TO_COMPACT = 1024;
+    private static final byte REMOVED_ROW = -1;
+    private static final int NO_ROW = TransactionRowIndex.NO_ROW;
+
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private byte[] typeCodes = new byte[INITIAL_CAPACITY];
+    private long[] unscaledSums = new long[INITIAL_CAPACITY];
+    private int[] rowIds = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private int removedRowsCount = 0;
+
+    private int[] rowsInTimeOrder = new int[INITIAL_CAPACITY];
+    private int timeOrderedSize = 0;
+
+    private final TransactionRowIndex rowsById = new TransactionRowIndex();
+    private int lastFreeID = 0;
+    private final List<TransactionStorageListener> listeners = new ArrayList<>();
+
+    public void addListener(TransactionStorageListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TransactionStorageListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void addTransaction(Transaction transaction) {
+        putTransaction(lastFreeID, transaction);
+        lastFreeID++;
+    }
+
+    public void addTransactions(Collection<Transaction> transactions) {
+        for (Transaction transaction : transactions)
+            CompactTransactionValues.ensureCanBeStored(transaction);
+
+        ensureCapacity(size + transactions.size());
+        for (Transaction transaction : transactions)
+            addTransaction(transaction);
+    }
+
+    public void addTransactionsKeepingIds(Map<Integer, Transaction> transactionsWithIds) {
+        for (Transaction transaction : transactionsWithIds.values())
+            CompactTransactionValues.ensureCanBeStored(transaction);
+
+        ensureCapacity(size + transactionsWithIds.size());
+        for (Map.Entry<Integer, Transaction> transactionPair : transactionsWithIds.entrySet()) {
+            int id = transactionPair.getKey();
+            if (id < 0 || rowOf(id) != NO_ROW)
+                id = lastFreeID;
+
+            putTransaction(id, transactionPair.getValue());
+            lastFreeID = Math.max(lastFreeID, id + 1);
+        }
+    }
+
+    private void putTransaction(int id, Transaction transaction) {
+        long epochSecond = CompactTransactionValues.toEpochSecond(transaction.dateTime());
+        long unscaledSum = CompactTransactionValues.toUnscaledSum(transaction.sum());
+
+        ensureCapacity(size + 1);
+        int row = size;
+        epochSeconds[row] = epochSecond;
+        typeCodes[row] = CompactTransactionValues.toTypeCode(transaction.type());
+        unscaledSums[row] = unscaledSum;
+        rowIds[row] = id;
+        rowsById.put(id, row);
+
+        if (timeOrderedSize == size
+                && (timeOrderedSize == 0 || epochSeconds[rowsInTimeOrder[timeOrderedSize - 1]] <= epochSecond)) {
+            rowsInTimeOrder[timeOrderedSize] = row;
+            timeOrderedSize++;
+        }
+        size++;
+
+        if (!listeners.isEmpty()) {
+            Transaction storedTransaction = materialize(row);
+            for (TransactionStorageListener listener : listeners)
+                listener.transactionAdded(id, storedTransaction);
+        }
+    }
+
+    public Transaction getTransactionById(int id) throws NoTransactionsException {
+        int row = rowOf(id);
+        if (row == NO_ROW)
+            throw new NoTransactionsException("No transaction with this Id: " + id);
+
+        return materialize(row);
+    }
+
+    public void updateTransaction(int id, Transaction transaction) throws NoTransactionsException {
+        CompactTransactionValues.ensureCanBeStored(transaction);
+
+        removeTransaction(id);
+        putTransaction(id, transaction);
+    }
+
+    public void deleteTransaction(int id) throws NoTransactionsException {
+        removeTransaction(id);
+    }
+
+    private void removeTransaction(int id) throws NoTransactionsException {
+        int row = rowOf(id);
+        if (row == NO_ROW)
+            throw new NoTransactionsException("No transaction with this Id: " + id);
+
+        Transaction removedTransaction = listeners.isEmpty() ? null : materialize(row);
+        typeCodes[row] = REMOVED_ROW;
+        rowsById.remove(id);
+        removedRowsCount++;
+
+        for (TransactionStorageListener listener : listeners)
+            listener.transactionRemoved(id, removedTransaction);
+
+        if (removedRowsCount >= MIN_REMOVED_ROWS_TO_COMPACT && removedRowsCount * 2 >= size)
+            compactRows();
+    }
+
+    public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
+            throws NoTransactionsException
+    {
+        Map<Integer, Transaction> searchedTransactions = new LinkedHashMap<>();
+        streamTransactionsBetweenDates(startDateTime, endDateTime).forEach(storedTransaction ->
+                searchedTransactions.put(storedTransaction.id(), storedTransaction.transaction()));
+
+        if (searchedTransactions.isEmpty())
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+
+        return searchedTransactions;
+    }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        ensureTimeOrder();
+
+        int fromPosition = findFirstPositionAfter(CompactTransactionValues.startBoundToEpochSecond(startDateTime));
+        int toPosition = findFirstPositionAfter(CompactTransactionValues.endBoundToEpochSecond(endDateTime) - 1);
+
+        return IntStream.range(fromPosition, Math.max(fromPosition, toPosition))
+                .map(position -> rowsInTimeOrder[position])
+                .filter(row -> typeCodes[row] != REMOVED_ROW)
+                .mapToObj(row -> new StoredTransaction(rowIds[row], materialize(row)));
+    }
+
+    public int size() {
+        return size - removedRowsCount;
+    }
+
+    private Transaction materialize(int row) {
+        try {
+            return new Transaction(CompactTransactionValues.toDateTime(epochSeconds[row]),
+                    CompactTransactionValues.toType(typeCodes[row]),
+                    CompactTransactionValues.toSum(unscaledSums[row]));
+        } catch (TransactionsFileFormatException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected type code of a stored transaction.", e);
+        }
+    }
+
+    private int rowOf(int id) {
+        return id >= 0 ? rowsById.get(id) : NO_ROW;
+    }
+
+    private int findFirstPositionAfter(long epochSecond) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochSeconds[rowsInTimeOrder[middle]] <= epochSecond)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int requiredCapacity) {
+        if (requiredCapacity <= epochSeconds.length)
+            return;
+
+        int newCapacity = Math.max(requiredCapacity, epochSeconds.length + (epochSeconds.length >> 1));
+        epochSeconds = Arrays.copyOf(epochSeconds, newCapacity);
+        typeCodes = Arrays.copyOf(typeCodes, newCapacity);
+        unscaledSums = Arrays.copyOf(unscaledSums, newCapacity);
+        rowIds = Arrays.copyOf(rowIds, newCapacity);
+        rowsInTimeOrder = Arrays.copyOf(rowsInTimeOrder, newCapacity);
+    }
+
+    private void compactRows() {
+        int liveRow = 0;
+        for (int row = 0; row < size; row++) {
+            if (typeCodes[row] == REMOVED_ROW)
+                continue;
+
+            epochSeconds[liveRow] = epochSeconds[row];
+            typeCodes[liveRow] = typeCodes[row];
+            unscaledSums[liveRow] = unscaledSums[row];
+            rowIds[liveRow] = rowIds[row];
+            rowsById.put(rowIds[liveRow], liveRow);
+            liveRow++;
+        }
+
+        size = liveRow;
+        removedRowsCount = 0;
+        timeOrderedSize = 0;
+    }
+
+    private void ensureTimeOrder() {
+        if (timeOrderedSize == size)
+            return;
+
+        for (int row = timeOrderedSize; row < size; row++)
+            rowsInTimeOrder[row] = row;
+
+        int[] buffer = new int[size];
+        sortRowsByTime(rowsInTimeOrder, buffer, 0, size);
+        timeOrderedSize = size;
+    }
+
+    private void sortRowsByTime(int[] rows, int[] buffer, int from, int to) {
+        if (to - from < 2)
+            return;
+
+        int middle = (from + to) >>> 1;
+        sortRowsByTime(rows, buffer, from, middle);
+        sortRowsByTime(rows, buffer, middle, to);
+        if (epochSeconds[rows[middle - 1]] <= epochSeconds[rows[middle]])
+            return;
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int position = from; position < to; position++) {
+            if (right >= to || (left < middle && epochSeconds[buffer[left]] <= epochSeconds[buffer[right]]))
+                rows[position] = buffer[left++];
+            else
+                rows[position] = buffer[right++];
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+final class CompactTransactionValues {
+    static final int SUM_SCALE = 4;
+
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    private CompactTransactionValues() {}
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        if (dateTime.getNano() != 0)
+            throw new IllegalArgumentException("Compact storages keep whole seconds only: " + dateTime);
+
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    static long startBoundToEpochSecond(LocalDateTime startDateTime) {
+        return startDateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static long endBoundToEpochSecond(LocalDateTime endDateTime) {
+        long epochSecond = endDateTime.toEpochSecond(ZoneOffset.UTC);
+        return endDateTime.getNano() == 0 ? epochSecond : epochSecond + 1;
+    }
+
+    static long toUnscaledSum(BigDecimal sum) {
+        try {
+            return sum.setScale(SUM_SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Compact storages keep sums with at most " + SUM_SCALE
+                    + " decimal places and " + (18 - SUM_SCALE) + " integer digits: " + sum);
+        }
+    }
+
+    static BigDecimal toSum(long unscaledSum) {
+        return BigDecimal.valueOf(unscaledSum, SUM_SCALE);
+    }
+
+    static void ensureCanBeStored(Transaction transaction) {
+        toEpochSecond(transaction.dateTime());
+        toUnscaledSum(transaction.sum());
+    }
+
+    static byte toTypeCode(TransactionType type) {
+        return (byte) type.ordinal();
+    }
+
+    static TransactionType toType(byte typeCode) throws TransactionsFileFormatException {
+        if (typeCode < 0 || typeCode >= TRANSACTION_TYPES.length)
+            throw new TransactionsFileFormatException("Unknown transaction type code: " + typeCode);
+
+        return TRANSACTION_TYPES[typeCode];
+    }
+}
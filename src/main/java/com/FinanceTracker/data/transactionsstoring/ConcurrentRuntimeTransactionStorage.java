@@ -0,0 +1,185 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class ConcurrentRuntimeTransactionStorage implements ObservableTransactionStorage {
+    private final AtomicInteger nextFreeId = new AtomicInteger();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong publishedWatermark = new AtomicLong();
+    private final ConcurrentSkipListSet<Long> pendingPublications = new ConcurrentSkipListSet<>();
+
+    private final ConcurrentHashMap<Integer, SequencedTransaction> transactions = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDateTime, Queue<SequencedTransaction>> transactionsByDateTime =
+            new ConcurrentSkipListMap<>();
+    private final List<TransactionStorageListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(TransactionStorageListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TransactionStorageListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void addTransaction(Transaction transaction) {
+        long sequence = nextSequence.getAndIncrement();
+        int id;
+        SequencedTransaction sequencedTransaction;
+        do {
+            id = nextFreeId.getAndIncrement();
+            sequencedTransaction = new SequencedTransaction(id, sequence, transaction);
+        } while (transactions.putIfAbsent(id, sequencedTransaction) != null);
+
+        indexAndPublish(sequencedTransaction);
+    }
+
+    public void addTransactions(Collection<Transaction> newTransactions) {
+        for (Transaction transaction : newTransactions)
+            addTransaction(transaction);
+    }
+
+    public void addTransactionsKeepingIds(Map<Integer, Transaction> transactionsWithIds) {
+        for (Map.Entry<Integer, Transaction> transactionPair : transactionsWithIds.entrySet()) {
+            int keptId = transactionPair.getKey();
+            SequencedTransaction sequencedTransaction =
+                    new SequencedTransaction(keptId, nextSequence.getAndIncrement(), transactionPair.getValue());
+
+            if (transactions.putIfAbsent(keptId, sequencedTransaction) == null) {
+                nextFreeId.accumulateAndGet(keptId + 1, Math::max);
+                indexAndPublish(sequencedTransaction);
+                continue;
+            }
+
+            int id;
+            do {
+                id = nextFreeId.getAndIncrement();
+                sequencedTransaction = new SequencedTransaction(id, sequencedTransaction.sequence(),
+                        sequencedTransaction.transaction());
+            } while (transactions.putIfAbsent(id, sequencedTransaction) != null);
+            indexAndPublish(sequencedTransaction);
+        }
+    }
+
+    private void indexAndPublish(SequencedTransaction sequencedTransaction) {
+        index(sequencedTransaction);
+        publish(sequencedTransaction.sequence());
+
+        for (TransactionStorageListener listener : listeners)
+            listener.transactionAdded(sequencedTransaction.id(), sequencedTransaction.transaction());
+    }
+
+    private void index(SequencedTransaction sequencedTransaction) {
+        transactionsByDateTime.computeIfAbsent(sequencedTransaction.transaction().dateTime(),
+                dateTime -> new ConcurrentLinkedQueue<>()).add(sequencedTransaction);
+    }
+
+    private void unindex(SequencedTransaction sequencedTransaction) {
+        Queue<SequencedTransaction> sameDateTimeTransactions =
+                transactionsByDateTime.get(sequencedTransaction.transaction().dateTime());
+        if (sameDateTimeTransactions != null)
+            sameDateTimeTransactions.remove(sequencedTransaction);
+    }
+
+    private void publish(long sequence) {
+        if (!publishedWatermark.compareAndSet(sequence, sequence + 1))
+            pendingPublications.add(sequence);
+
+        while (!pendingPublications.isEmpty()) {
+            long watermark = publishedWatermark.get();
+            if (!pendingPublications.remove(watermark))
+                break;
+            publishedWatermark.set(watermark + 1);
+        }
+    }
+
+    public Transaction getTransactionById(int id) throws NoTransactionsException {
+        return getPublishedTransaction(id).transaction();
+    }
+
+    private SequencedTransaction getPublishedTransaction(int id) throws NoTransactionsException {
+        SequencedTransaction searchedTransaction = transactions.get(id);
+
+        if (searchedTransaction == null || searchedTransaction.sequence() >= publishedWatermark.get())
+            throw new NoTransactionsException("No transaction with this Id: " + id);
+
+        return searchedTransaction;
+    }
+
+    public void updateTransaction(int id, Transaction transaction) throws NoTransactionsException {
+        SequencedTransaction updatedTransaction = new SequencedTransaction(id, nextSequence.getAndIncrement(), transaction);
+        SequencedTransaction replacedTransaction;
+        try {
+            do {
+                replacedTransaction = getPublishedTransaction(id);
+            } while (!transactions.replace(id, replacedTransaction, updatedTransaction));
+        } catch (NoTransactionsException e) {
+            publish(updatedTransaction.sequence());
+            throw e;
+        }
+
+        unindex(replacedTransaction);
+        notifyRemoved(replacedTransaction);
+        indexAndPublish(updatedTransaction);
+    }
+
+    public void deleteTransaction(int id) throws NoTransactionsException {
+        SequencedTransaction removedTransaction;
+        do {
+            removedTransaction = getPublishedTransaction(id);
+        } while (!transactions.remove(id, removedTransaction));
+
+        unindex(removedTransaction);
+        notifyRemoved(removedTransaction);
+    }
+
+    private void notifyRemoved(SequencedTransaction removedTransaction) {
+        for (TransactionStorageListener listener : listeners)
+            listener.transactionRemoved(removedTransaction.id(), removedTransaction.transaction());
+    }
+
+    public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
+            throws NoTransactionsException
+    {
+        Map<Integer, Transaction> searchedTransactions = new LinkedHashMap<>();
+        streamTransactionsBetweenDates(startDateTime, endDateTime).forEach(storedTransaction ->
+                searchedTransactions.put(storedTransaction.id(), storedTransaction.transaction()));
+
+        if (searchedTransactions.isEmpty())
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+
+        return searchedTransactions;
+    }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (!startDateTime.isBefore(endDateTime))
+            return Stream.empty();
+
+        long snapshotWatermark = publishedWatermark.get();
+        return transactionsByDateTime.subMap(startDateTime, false, endDateTime, false)
+                .values().stream()
+                .flatMap(Queue::stream)
+                .filter(sequencedTransaction -> sequencedTransaction.sequence() < snapshotWatermark)
+                .map(sequencedTransaction ->
+                        new StoredTransaction(sequencedTransaction.id(), sequencedTransaction.transaction()));
+    }
+
+    public long size() {
+        return transactions.size();
+    }
+
+    private record SequencedTransaction(int id, long sequence, Transaction transaction) {
+    }
+}
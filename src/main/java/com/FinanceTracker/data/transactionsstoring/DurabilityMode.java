@@ -0,0 +1,7 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+public enum DurabilityMode {
+    SYNC,
+    GROUP_COMMIT,
+    ASYNC
+}
@@ -0,0 +1,4 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+public record FileReadPosition(long generation, long offset) implements StorageReadPosition {
+}
@@ -0,0 +1,109 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.metrics.Metrics;
+import com.FinanceTracker.metrics.OperationTimer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class FileStorageWarmUp {
+    private final long fileSize;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile long verifiedLength = 0;
+
+    private FileStorageWarmUp(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    @SuppressWarnings("try")
+    static FileStorageWarmUp start(FileTransactionStorageValidator fileValidator, long fileSize) {
+        FileStorageWarmUp warmUp = new FileStorageWarmUp(fileSize);
+
+        CompletableFuture.runAsync(() -> {
+            try (OperationTimer timer = Metrics.startTimer("file.warmUp")) {
+                fileValidator.ensureFileHasCorrectValues(warmUp::verified);
+                warmUp.verifiedLength = fileValidator.getValidatedLength();
+                warmUp.completion.complete(null);
+            } catch (TransactionsFileFormatException | RuntimeException e) {
+                warmUp.completion.completeExceptionally(e);
+            }
+        });
+
+        return warmUp;
+    }
+
+    private void verified(long length) {
+        if (completion.isCancelled())
+            throw new CancellationException("The file was unattached during its verification.");
+        verifiedLength = length;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getVerifiedLength() {
+        return verifiedLength;
+    }
+
+    public int getProgressPercent() {
+        if (completion.isDone() || fileSize == 0)
+            return 100;
+        return (int) Math.min(99, verifiedLength * 100 / fileSize);
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    public boolean isFailed() {
+        return completion.isCompletedExceptionally();
+    }
+
+    public String getFailureMessage() {
+        if (!isFailed())
+            return null;
+
+        try {
+            await();
+            return null;
+        } catch (TransactionsFileFormatException | RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    public boolean await(long timeout, TimeUnit unit) {
+        try {
+            completion.get(timeout, unit);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            return true;
+        }
+        return true;
+    }
+
+    public void await() throws TransactionsFileFormatException {
+        try {
+            completion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TransactionsFileFormatException formatException)
+                throw formatException;
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw e;
+        }
+    }
+
+    void cancel() {
+        completion.cancel(false);
+    }
+}
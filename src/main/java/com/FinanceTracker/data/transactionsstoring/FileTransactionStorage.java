@@ -1,39 +1,170 @@
 package com.FinanceTracker.data.transactionsstoring;
 
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
 import com.FinanceTracker.data.transactionunit.Transaction;
 import com.FinanceTracker.exceptions.TransactionsFileCreationException;
 import com.FinanceTracker.exceptions.TransactionsFileFormatException;
-import com.FinanceTracker.data.transactionunit.TransactionType;
 import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
 
 import java.io.*;
-import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class FileTransactionStorage implements SynchronizableTransactionStorage<FileReadPosition>,
+        ChangeableTransactionStorage
+{
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int LOAD_BATCH_SIZE = 1 << 16;
 
-public class FileTransactionStorage implements TransactionStorage {
     Path filePath;
     FileTransactionStorageValidator fileValidator;
+    private final TransactionWriteAheadLog writeAheadLog;
+    private final DurabilityMode durabilityMode;
+    private final FileStorageWarmUp warmUp;
+    private final TransactionArchive archive;
+    private final TransactionFileColumns fileColumns;
+    private TransactionFileCompaction compaction;
+    private int nextLoggedId = 0;
 
     public FileTransactionStorage(Path filePath) throws TransactionsFileCreationException, TransactionsFileFormatException {
-        fileValidator = new FileTransactionStorageValidator(filePath);
+        this(filePath, false);
+    }
+
+    public FileTransactionStorage(Path filePath, boolean useSidecarIndex)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        this(filePath, useSidecarIndex, null);
+    }
+
+    public FileTransactionStorage(Path filePath, boolean useSidecarIndex, DurabilityMode durabilityMode)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        this(filePath, useSidecarIndex, durabilityMode, false);
+    }
+
+    private FileTransactionStorage(Path filePath, boolean useSidecarIndex, DurabilityMode durabilityMode,
+                                   boolean isValidatedInBackground)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        fileValidator = new FileTransactionStorageValidator(filePath, useSidecarIndex);
         fileValidator.createFileIfNotExists();
         fileValidator.ensureFileHasCorrectProperties();
-        fileValidator.ensureFileHasCorrectValues();
+
+        try {
+            TransactionArchive.recover(filePath);
+            TransactionFileCompaction.recover(filePath);
+        } catch (IOException | NumberFormatException e) {
+            throw new TransactionsFileFormatException("The interrupted archiving of the file can't be recovered: " + filePath);
+        }
+
+        try {
+            TransactionWriteAheadLog.recover(filePath);
+        } catch (IOException e) {
+            throw new TransactionsFileFormatException("The transactions log of the file can't be recovered: " + filePath);
+        }
+
+        try {
+            archive = new TransactionArchive(filePath);
+        } catch (IOException e) {
+            throw new TransactionsFileFormatException("The archive of the file can't be read: " + filePath);
+        }
+        fileValidator.setArchivedIds(archive.snapshotIdRanges());
+
+        if (isValidatedInBackground) {
+            try {
+                warmUp = FileStorageWarmUp.start(fileValidator, Files.size(filePath));
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new RuntimeException("Unexpected IO exception during file processing", e);
+            }
+        } else {
+            fileValidator.ensureFileHasCorrectValues();
+            warmUp = null;
+        }
         this.filePath = filePath;
+        this.durabilityMode = durabilityMode;
+        fileColumns = new TransactionFileColumns(filePath);
+
+        try {
+            this.writeAheadLog = durabilityMode == null ? null : new TransactionWriteAheadLog(filePath, durabilityMode);
+        } catch (IOException e) {
+            throw new TransactionsFileCreationException("The transactions log can't be created next to the file: " + filePath);
+        }
+    }
+
+    public static FileTransactionStorage openValidatingInBackground(Path filePath, boolean useSidecarIndex,
+                                                                    DurabilityMode durabilityMode)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        return new FileTransactionStorage(filePath, useSidecarIndex, durabilityMode, true);
+    }
+
+    public FileStorageWarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    private boolean isWarmingUp() {
+        return warmUp != null && !warmUp.isDone();
+    }
+
+    private void awaitWarmUp() throws TransactionsFileFormatException {
+        if (warmUp != null)
+            warmUp.await();
     }
 
     public void addTransaction(Transaction transaction) {
-        try (PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(filePath.toString(), true)))) {
+        addTransactions(List.of(transaction));
+    }
+
+    public void addTransactions(Collection<Transaction> transactions) {
+        if (transactions.isEmpty())
+            return;
+
+        if (writeAheadLog != null) {
+            addTransactionsThroughLog(transactions);
+            return;
+        }
+
+        installFinishedCompaction();
+        try (FileOutputStream fileOutputStream = new FileOutputStream(filePath.toFile(), true);
+             BufferedOutputStream fileWriter = new BufferedOutputStream(fileOutputStream, WRITE_BUFFER_SIZE))
+        {
+            awaitWarmUp();
             fileValidator.ensureFileHasCorrectProperties();
             fileValidator.ensureFileHasCorrectValues();
 
-            int id = findLastFreeId();
-            String stringOfValues = id + "," + transaction.toString().replace(" ", ",");
-            printWriter.println(stringOfValues);
+            TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+            int id = getLastFreeId();
+            long writtenBytesCount = 0;
+            for (Transaction transaction : transactions) {
+                int lineLength = csvCodec.encode(id, transaction);
+                fileWriter.write(csvCodec.encodedLine(), 0, lineLength);
+                writtenBytesCount += lineLength;
+                id++;
+            }
+
+            fileWriter.flush();
+            fileOutputStream.getChannel().force(false);
+            Metrics.add(MetricCounter.BYTES_WRITTEN, writtenBytesCount);
         } catch(TransactionsFileFormatException e) {
             throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
                     "Details:\n"
@@ -44,26 +175,375 @@ public class FileTransactionStorage implements TransactionStorage {
         }
     }
 
-    private int findLastFreeId() throws IOException {
-        return Files.lines(filePath).mapToInt(line -> Integer.parseInt(line.split(",")[0])).max().orElse(-1) + 1;
+    private void addTransactionsThroughLog(Collection<Transaction> transactions) {
+        CompletableFuture<Void> logWrite;
+
+        synchronized (writeAheadLog) {
+            try {
+                installFinishedCompaction();
+                if (!writeAheadLog.hasPendingWrites()) {
+                    awaitWarmUp();
+                    fileValidator.ensureFileHasCorrectProperties();
+                    fileValidator.ensureFileHasCorrectValues();
+                    writeAheadLog.synchronizeFileSize();
+                    nextLoggedId = Math.max(nextLoggedId, getLastFreeId());
+                }
+
+                TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+                ByteArrayOutputStream lines = new ByteArrayOutputStream(transactions.size() * 48);
+                for (Transaction transaction : transactions) {
+                    int lineLength = csvCodec.encode(nextLoggedId++, transaction);
+                    lines.write(csvCodec.encodedLine(), 0, lineLength);
+                }
+
+                logWrite = writeAheadLog.append(lines.toByteArray());
+                Metrics.add(MetricCounter.BYTES_WRITTEN, lines.size());
+            } catch (TransactionsFileFormatException e) {
+                throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. " +
+                        "Details:\n"
+                        + e.getMessage());
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new RuntimeException("Unexpected IO exception during adding transaction to file.", e);
+            }
+        }
+
+        if (durabilityMode != DurabilityMode.ASYNC)
+            logWrite.join();
     }
 
-    public Transaction getTransactionById(int id) throws NoTransactionsException {
-        Transaction searchedTransaction = null;
-        String line;
+    public void updateTransaction(int id, Transaction transaction) throws NoTransactionsException {
+        appendChange(id, csvCodec -> csvCodec.encodeReplacement(id, transaction));
+    }
+
+    public void deleteTransaction(int id) throws NoTransactionsException {
+        appendChange(id, csvCodec -> csvCodec.encodeTombstone(id));
+    }
 
-        try (BufferedReader fileReader = new BufferedReader(new FileReader(filePath.toString()))) {
+    private void appendChange(int id, ToIntFunction<TransactionCsvCodec> encoder) throws NoTransactionsException {
+        CompletableFuture<Void> logWrite = null;
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+
+        try {
+            awaitWarmUp();
+            if (writeAheadLog == null) {
+                installFinishedCompaction();
+                ensureTransactionExists(id);
+                int lineLength = encoder.applyAsInt(csvCodec);
+                try (FileOutputStream fileOutputStream = new FileOutputStream(filePath.toFile(), true)) {
+                    fileOutputStream.write(csvCodec.encodedLine(), 0, lineLength);
+                    fileOutputStream.getChannel().force(false);
+                }
+                Metrics.add(MetricCounter.BYTES_WRITTEN, lineLength);
+                fileValidator.ensureFileHasCorrectValues();
+                startCompactionIfNeeded();
+            } else {
+                synchronized (writeAheadLog) {
+                    installFinishedCompaction();
+                    writeAheadLog.awaitPendingWrites();
+                    ensureTransactionExists(id);
+                    startCompactionIfNeeded();
+                    writeAheadLog.synchronizeFileSize();
+                    nextLoggedId = Math.max(nextLoggedId, getLastFreeId());
+                    int lineLength = encoder.applyAsInt(csvCodec);
+                    logWrite = writeAheadLog.append(Arrays.copyOf(csvCodec.encodedLine(), lineLength));
+                    Metrics.add(MetricCounter.BYTES_WRITTEN, lineLength);
+                }
+            }
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
+                    + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during changing the file transaction.", e);
+        }
+
+        if (logWrite != null && durabilityMode != DurabilityMode.ASYNC)
+            logWrite.join();
+    }
+
+    private void ensureTransactionExists(int id) throws TransactionsFileFormatException, IOException, NoTransactionsException {
+        fileValidator.ensureFileHasCorrectProperties();
+        fileValidator.ensureFileHasCorrectValues();
+
+        TransactionFileIndex fileIndex = fileValidator.getFileIndex();
+        boolean isInFile;
+        boolean isDeleted;
+        synchronized (fileIndex) {
+            isInFile = fileIndex.contains(id);
+            isDeleted = fileIndex.isDeleted(id);
+        }
+        if (isDeleted || !isInFile && archive.findTransactionById(id) == null)
+            throw new NoTransactionsException("No transaction with this Id: " + id);
+    }
+
+    private void startCompactionIfNeeded() {
+        if (compaction == null && TransactionFileCompaction.isNeeded(fileValidator.getFileIndex()))
+            compaction = TransactionFileCompaction.start(filePath, fileValidator, archive.snapshotIdRanges());
+    }
+
+    public int compact() {
+        try {
+            awaitWarmUp();
+            if (writeAheadLog == null)
+                return compactNow();
+
+            synchronized (writeAheadLog) {
+                return compactNow();
+            }
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
+                    + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during compacting the file.", e);
+        }
+    }
+
+    private int compactNow() throws TransactionsFileFormatException, IOException {
+        discardCompaction();
+        awaitPendingWrites();
+        fileValidator.ensureFileHasCorrectProperties();
+        fileValidator.ensureFileHasCorrectValues();
+
+        TransactionFileCompaction startedCompaction = TransactionFileCompaction.start(filePath, fileValidator,
+                archive.snapshotIdRanges());
+        compaction = startedCompaction;
+        startedCompaction.await();
+        return installFinishedCompaction() ? startedCompaction.getRemovedRecordsCount() : 0;
+    }
+
+    private boolean installFinishedCompaction() {
+        if (compaction == null || !compaction.isDone())
+            return false;
+
+        TransactionFileCompaction finishedCompaction = compaction;
+        compaction = null;
+
+        try {
+            if (finishedCompaction.isFailed())
+                return false;
+
+            awaitPendingWrites();
+            if (writeAheadLog != null)
+                writeAheadLog.checkpoint();
             fileValidator.ensureFileHasCorrectProperties();
             fileValidator.ensureFileHasCorrectValues();
-            while ((line = fileReader.readLine()) != null) {
-                String[] currentLine = line.split(",");
-                if (Integer.parseInt(currentLine[0]) == id) {
-                    LocalDateTime dateTime = LocalDateTime.parse(currentLine[1]);
-                    TransactionType type = TransactionType.valueOf(currentLine[2]);
-                    BigDecimal sum = new BigDecimal(currentLine[3]);
-                    searchedTransaction = new Transaction(dateTime, type, sum);
-                    break;
+            if (fileValidator.getValidationGeneration() != finishedCompaction.getValidationGeneration()) {
+                finishedCompaction.discard();
+                return false;
+            }
+
+            Path compactedFilePath = finishedCompaction.getCompactedFilePath();
+            long appendedTailLength = copyFileTail(finishedCompaction.getSourceLength(), compactedFilePath);
+            Files.move(compactedFilePath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileValidator.adoptCompactedFile(finishedCompaction.await(), finishedCompaction.getCompactedLength());
+            if (writeAheadLog != null)
+                writeAheadLog.reopenFile(filePath);
+
+            Metrics.add(MetricCounter.BYTES_WRITTEN, appendedTailLength);
+            return true;
+        } catch (TransactionsFileFormatException e) {
+            finishedCompaction.discard();
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
+                    + e.getMessage());
+        } catch (IOException e) {
+            finishedCompaction.discard();
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during replacing the file with its compacted copy.", e);
+        }
+    }
+
+    private long copyFileTail(long tailOffset, Path targetFilePath) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(filePath, StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(targetFilePath, StandardOpenOption.WRITE,
+                     StandardOpenOption.APPEND))
+        {
+            long tailLength = sourceChannel.size() - tailOffset;
+            long copiedBytesCount = 0;
+            while (copiedBytesCount < tailLength)
+                copiedBytesCount += sourceChannel.transferTo(tailOffset + copiedBytesCount,
+                        tailLength - copiedBytesCount, targetChannel);
+            targetChannel.force(true);
+            return tailLength;
+        }
+    }
+
+    private void discardCompaction() {
+        if (compaction == null)
+            return;
+
+        compaction.discard();
+        compaction = null;
+    }
+
+    private int getLastFreeId() {
+        return Math.max(fileValidator.getLastFreeId(), archive.maxId() + 1);
+    }
+
+    private void awaitPendingWrites() {
+        if (writeAheadLog != null)
+            writeAheadLog.awaitPendingWrites();
+    }
+
+    @Override
+    public void close() {
+        fileColumns.release();
+        if (warmUp != null)
+            warmUp.cancel();
+        if (writeAheadLog == null) {
+            if (!installFinishedCompaction())
+                discardCompaction();
+            return;
+        }
+
+        synchronized (writeAheadLog) {
+            if (!installFinishedCompaction())
+                discardCompaction();
+        }
+
+        try {
+            writeAheadLog.close();
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during closing the transactions log.", e);
+        }
+    }
+
+    public void copyAllTransactionsTo(ObservableTransactionStorage targetStorage) throws NoTransactionsException {
+        Map<Integer, Transaction> transactionsBatch = new LinkedHashMap<>();
+        int[] loadedTransactionsCount = new int[1];
+
+        readTransactionsAfter(null, storedTransaction -> {
+            loadedTransactionsCount[0]++;
+            transactionsBatch.put(storedTransaction.id(), storedTransaction.transaction());
+            if (transactionsBatch.size() == LOAD_BATCH_SIZE) {
+                targetStorage.addTransactionsKeepingIds(transactionsBatch);
+                transactionsBatch.clear();
+            }
+        });
+        targetStorage.addTransactionsKeepingIds(transactionsBatch);
+
+        if (loadedTransactionsCount[0] == 0)
+            throw new NoTransactionsException("There are no transactions in the file.");
+    }
+
+    public FileReadPosition readTransactionsAfter(FileReadPosition position, Consumer<StoredTransaction> action) {
+        FileReadPosition endPosition;
+        long readBytesCount = 0;
+        long parsedLinesCount = 0;
+
+        try {
+            awaitWarmUp();
+            awaitPendingWrites();
+            fileValidator.ensureFileHasCorrectProperties();
+            fileValidator.ensureFileHasCorrectValues();
+            endPosition = new FileReadPosition(fileValidator.getContentGeneration(), fileValidator.getValidatedLength());
+            TransactionFileIndex fileIndex = fileValidator.getFileIndex();
+            boolean hasChanges = hasChanges(fileIndex);
+
+            long startOffset = position != null && position.generation() == endPosition.generation()
+                    ? position.offset() : 0;
+            if (startOffset == 0) {
+                readAllTransactions(endPosition.offset(), action);
+                return endPosition;
+            }
+            try (TransactionFileLineReader lineReader = new TransactionFileLineReader(filePath, startOffset)) {
+                TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+                while (lineReader.nextLine() && lineReader.lineOffset() < endPosition.offset()) {
+                    parsedLinesCount++;
+                    if (!csvCodec.decodeRecord(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd()))
+                        throw new TransactionsFileFormatException("The validated part of the file contains an incorrect line: "
+                                + filePath);
+                    if (csvCodec.recordKind() == TransactionRecordKind.TOMBSTONE || hasChanges
+                            && !isLatestRecord(fileIndex, csvCodec.id(), lineReader.lineOffset(), endPosition.offset()))
+                        continue;
+                    action.accept(new StoredTransaction(csvCodec.id(), csvCodec.toTransaction()));
                 }
+                readBytesCount = lineReader.bytesReadCount();
+            }
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
+                    + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during getting values from file.", e);
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount);
+        Metrics.add(MetricCounter.BYTES_READ, readBytesCount);
+        return endPosition;
+    }
+
+    private void readAllTransactions(long endOffset, Consumer<StoredTransaction> action)
+            throws TransactionsFileFormatException, IOException
+    {
+        ParallelTransactionFileLoader fileLoader = new ParallelTransactionFileLoader(filePath);
+        fileLoader.parse(endOffset);
+
+        archive.readAllTransactions(storedTransaction -> {
+            if (!fileLoader.isChangedInFile(storedTransaction.id()))
+                action.accept(storedTransaction);
+        });
+        fileLoader.forEachParsedTransaction(action);
+    }
+
+    public int archiveTransactionsBefore(LocalDateTime sealDateTime) {
+        try {
+            awaitWarmUp();
+            if (writeAheadLog == null) {
+                discardCompaction();
+                return sealTransactionsBefore(sealDateTime);
+            }
+
+            synchronized (writeAheadLog) {
+                discardCompaction();
+                writeAheadLog.awaitPendingWrites();
+                writeAheadLog.checkpoint();
+                int sealedTransactionsCount = sealTransactionsBefore(sealDateTime);
+                writeAheadLog.reopenFile(filePath);
+                return sealedTransactionsCount;
+            }
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
+                    + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during archiving the file transactions.", e);
+        }
+    }
+
+    private int sealTransactionsBefore(LocalDateTime sealDateTime) throws TransactionsFileFormatException, IOException {
+        fileValidator.ensureFileHasCorrectProperties();
+        fileValidator.ensureFileHasCorrectValues();
+        int sealedTransactionsCount = archive.sealTransactionsBefore(sealDateTime, fileValidator.getValidatedLength(),
+                fileValidator.getFileIndex());
+        fileValidator.setArchivedIds(archive.snapshotIdRanges());
+        return sealedTransactionsCount;
+    }
+
+    public long getArchivedTransactionsCount() {
+        return archive.recordsCount();
+    }
+
+    public long getArchiveSize() {
+        return archive.compressedSize();
+    }
+
+    public Transaction getTransactionById(int id) throws NoTransactionsException {
+        Transaction searchedTransaction = null;
+
+        try {
+            if (isWarmingUp())
+                searchedTransaction = findTransactionById(fileValidator.getFileIndex(), id);
+
+            if (searchedTransaction == null) {
+                awaitWarmUp();
+                awaitPendingWrites();
+                fileValidator.ensureFileHasCorrectProperties();
+                fileValidator.ensureFileHasCorrectValues();
+                searchedTransaction = findTransactionById(fileValidator.getFileIndex(), id);
             }
         } catch (TransactionsFileFormatException e) {
             throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
@@ -79,25 +559,106 @@ public class FileTransactionStorage implements TransactionStorage {
         return searchedTransaction;
     }
 
+    private Transaction findTransactionById(TransactionFileIndex fileIndex, int id)
+            throws IOException, TransactionsFileFormatException
+    {
+        if (isChangedInFile(fileIndex, id))
+            return readIndexedTransaction(fileIndex, id);
+        return archive.findTransactionById(id);
+    }
+
+    private static boolean hasChanges(TransactionFileIndex fileIndex) {
+        synchronized (fileIndex) {
+            return fileIndex.hasModifications();
+        }
+    }
+
+    private static boolean isChangedInFile(TransactionFileIndex fileIndex, int id) {
+        synchronized (fileIndex) {
+            return fileIndex.contains(id);
+        }
+    }
+
+    private static boolean isLatestRecord(TransactionFileIndex fileIndex, int id, long lineOffset, long endOffset) {
+        synchronized (fileIndex) {
+            return fileIndex.isLatestBefore(id, lineOffset, endOffset);
+        }
+    }
+
+    private Transaction readIndexedTransaction(TransactionFileIndex fileIndex, int id)
+            throws IOException, TransactionsFileFormatException
+    {
+        long lineOffset;
+        int lineLength;
+        synchronized (fileIndex) {
+            lineOffset = fileIndex.getOffset(id);
+            lineLength = fileIndex.getLength(id);
+        }
+        if (lineOffset < 0)
+            return null;
+
+        byte[] line = readLineAt(lineOffset, lineLength);
+        Metrics.add(MetricCounter.BYTES_READ, line.length);
+        Metrics.add(MetricCounter.LINES_PARSED, 1);
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        if (!csvCodec.decodeRecord(line, 0, line.length))
+            throw new TransactionsFileFormatException("The indexed line of the transaction " + id + " is incorrect.");
+        return csvCodec.toTransaction();
+    }
+
+    private byte[] readLineAt(long lineOffset, int lineLength) throws IOException {
+        ByteBuffer lineBuffer = ByteBuffer.allocate(lineLength);
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            while (lineBuffer.hasRemaining()) {
+                if (fileChannel.read(lineBuffer, lineOffset + lineBuffer.position()) < 0)
+                    throw new EOFException("The transactions file ended before the indexed line: " + filePath);
+            }
+        }
+        return lineBuffer.array();
+    }
+
     public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
         throws NoTransactionsException
     {
-        Map<Integer, Transaction> searchedTransactions = new HashMap<>();
-        String line;
+        Map<Integer, Transaction> searchedTransactions = new LinkedHashMap<>();
 
-        try (BufferedReader fileReader = new BufferedReader(new FileReader(filePath.toString()))) {
-            fileValidator.ensureFileHasCorrectProperties();
-            fileValidator.ensureFileHasCorrectValues();
-            while ((line = fileReader.readLine()) != null) {
-                String[] currentLine = line.split(",");
-                if (startDateTime.isBefore(LocalDateTime.parse(currentLine[1])) && endDateTime.isAfter(LocalDateTime.parse(currentLine[1]))) {
-                    int id = Integer.parseInt(currentLine[0]);
-                    LocalDateTime dateTime = LocalDateTime.parse(currentLine[1]);
-                    TransactionType type = TransactionType.valueOf(currentLine[2]);
-                    BigDecimal sum = new BigDecimal(currentLine[3]);
-                    searchedTransactions.put(id, new Transaction(dateTime, type, sum));
-                }
+        try (Stream<StoredTransaction> transactionsStream = streamTransactionsBetweenDates(startDateTime, endDateTime)) {
+            transactionsStream.forEach(storedTransaction ->
+                    searchedTransactions.put(storedTransaction.id(), storedTransaction.transaction()));
+        }
+
+        if (searchedTransactions.isEmpty())
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+
+        return searchedTransactions;
+    }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return streamTransactionsMatching(TransactionScanCriteria.between(startDateTime, endDateTime));
+    }
+
+    public Stream<StoredTransaction> streamTransactionsMatching(TransactionScanCriteria criteria) {
+        if (criteria.isEmpty())
+            return Stream.empty();
+
+        TransactionFileLineReader lineReader;
+        long validatedLength;
+        TransactionFileIndex fileIndex = fileValidator.getFileIndex();
+        TransactionFileColumns.Snapshot cachedLines = TransactionFileColumns.Snapshot.EMPTY;
+
+        try {
+            if (isWarmingUp()) {
+                validatedLength = warmUp.getVerifiedLength();
+            } else {
+                awaitWarmUp();
+                awaitPendingWrites();
+                fileValidator.ensureFileHasCorrectProperties();
+                fileValidator.ensureFileHasCorrectValues();
+                validatedLength = fileValidator.getValidatedLength();
+                fileIndex = fileValidator.getFileIndex();
+                cachedLines = fileColumns.cacheValidatedLines(fileValidator.getValidationGeneration(), validatedLength);
             }
+            lineReader = new TransactionFileLineReader(filePath, cachedLines.cachedLength());
         } catch (TransactionsFileFormatException e) {
             throw new RuntimeException("The transactions file was manually modified incorrectly during program runtime. Details:\n"
                     + e.getMessage());
@@ -105,9 +666,58 @@ public class FileTransactionStorage implements TransactionStorage {
             //it shouldn't happen
             throw new RuntimeException("Unexpected IO exception during getting values from file.", e);
         }
-        if (searchedTransactions.isEmpty())
-            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
 
-        return searchedTransactions;
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        TransactionLineFilter lineFilter = new TransactionLineFilter(criteria);
+        TransactionFileIndex scannedFileIndex = fileIndex;
+        boolean hasChanges = hasChanges(fileIndex);
+        long[] parsedLinesCount = new long[1];
+
+        Spliterator<StoredTransaction> transactionsSpliterator =
+                new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super StoredTransaction> action) {
+                try {
+                    while (lineReader.nextLine() && lineReader.lineOffset() < validatedLength) {
+                        parsedLinesCount[0]++;
+                        if (csvCodec.decodeMatching(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd(),
+                                lineFilter) && (!hasChanges || isLatestRecord(scannedFileIndex, csvCodec.id(),
+                                lineReader.lineOffset(), validatedLength)))
+                        {
+                            action.accept(new StoredTransaction(csvCodec.id(), csvCodec.toTransaction()));
+                            return true;
+                        }
+                        if (csvCodec.incorrectField() != null)
+                            throw new IllegalStateException("The validated part of the file contains an incorrect line: "
+                                    + filePath);
+                    }
+                    return false;
+                } catch (IOException e) {
+                    //it shouldn't happen
+                    throw new UncheckedIOException("Unexpected IO exception during getting values from file.", e);
+                }
+            }
+        };
+
+        Stream<StoredTransaction> fileTransactions = StreamSupport.stream(transactionsSpliterator, false).onClose(() -> {
+            Metrics.add(MetricCounter.FILE_SCANS, 1);
+            Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount[0]);
+            Metrics.add(MetricCounter.BYTES_READ, lineReader.bytesReadCount());
+            try {
+                lineReader.close();
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new UncheckedIOException("Unexpected IO exception during closing the file.", e);
+            }
+        });
+
+        Stream<StoredTransaction> cachedTransactions = cachedLines.streamMatching(lineFilter, (id, lineOffset) ->
+                !hasChanges || isLatestRecord(scannedFileIndex, id, lineOffset, validatedLength));
+
+        Stream<StoredTransaction> archivedTransactions = archive.streamTransactionsMatching(lineFilter);
+        if (hasChanges)
+            archivedTransactions = archivedTransactions.filter(storedTransaction ->
+                    !isChangedInFile(scannedFileIndex, storedTransaction.id()));
+        return Stream.concat(Stream.concat(archivedTransactions, cachedTransactions), fileTransactions);
     }
 }
@@ -1,33 +1,52 @@
 package com.FinanceTracker.data.transactionsstoring;
 
 import com.FinanceTracker.exceptions.TransactionsFileFormatException;
-import com.FinanceTracker.data.transactionunit.Transaction;
-import com.FinanceTracker.data.transactionunit.TransactionType;
 import com.FinanceTracker.exceptions.TransactionsFileCreationException;
 
 import java.io.*;
-import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.DateTimeException;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
 
 public class FileTransactionStorageValidator {
-    private Path filePath;
+    private static final int BOUNDARY_SAMPLE_SIZE = 64;
+
+    private final Path filePath;
+    private final Path sidecarIndexPath;
+
+    private boolean isValidated = false;
+    private long validationGeneration = 0;
+    private long contentGeneration = 0;
+    private long validatedOffset = 0;
+    private long validatedLastModified = 0;
+    private boolean isValidatedPartEndsWithLine = true;
+    private byte[] boundarySample = new byte[0];
+    private TransactionFileIndex fileIndex = new TransactionFileIndex();
+    private TransactionFileValidationReport lastValidationReport = new TransactionFileValidationReport();
+    private IntPredicate archivedIds = id -> false;
 
     public FileTransactionStorageValidator(Path filePath) {
+        this(filePath, false);
+    }
+
+    public FileTransactionStorageValidator(Path filePath, boolean useSidecarIndex) {
         this.filePath = filePath;
+        this.sidecarIndexPath = useSidecarIndex ? TransactionFileIndex.sidecarPathFor(filePath) : null;
     }
 
     public void createFileIfNotExists() throws TransactionsFileCreationException {
+        if (Files.exists(filePath))
+            return;
+
         ensureFileCanBeCreated();
 
         try {
-            if (Files.notExists(filePath)) {
-                Files.createFile(filePath);
-            }
+            Files.createFile(filePath);
         } catch (IOException e) {
             throw new TransactionsFileCreationException("Unknown I/O exception occurred during file or directory creation: "
                     + filePath);
@@ -65,35 +84,151 @@ public class FileTransactionStorageValidator {
     }
 
     public void ensureFileHasCorrectValues() throws TransactionsFileFormatException {
-        int lineNumber = 0;
-        String line;
-        List<Integer> idList = new ArrayList<>();
-        try (BufferedReader fileReader = new BufferedReader(new FileReader(filePath.toString()))) {
-            while ((line = fileReader.readLine()) != null) {
-                String[] transactionLineArray = line.split(",");
-
-                if (transactionLineArray.length > 4)
-                    throw new IllegalArgumentException();
-
-                int id = Integer.parseInt(transactionLineArray[0]);
-                if (id < 0 || idList.contains(id))
-                    throw new IllegalArgumentException();
-                idList.add(id);
-
-                LocalDateTime dateTime = LocalDateTime.parse(transactionLineArray[1]);
-                TransactionType type = TransactionType.valueOf(transactionLineArray[2]);
-                BigDecimal sum = new BigDecimal(transactionLineArray[3]);
-
-                new Transaction(dateTime, type, sum);
-
-                lineNumber++;
-            }
-        } catch (IllegalArgumentException | DateTimeException e) {
-            throw new TransactionsFileFormatException("Incorrect values in the file lines. " +
-                    "The exception occurred on line " + lineNumber);
+        ensureFileHasCorrectValues(null);
+    }
+
+    void ensureFileHasCorrectValues(LongConsumer verifiedLengthListener) throws TransactionsFileFormatException {
+        try {
+            long fileSize = Files.size(filePath);
+            long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+
+            if (isValidated && fileSize == validatedOffset && lastModified == validatedLastModified)
+                return;
+
+            if (!isValidated && loadSidecarIndex(fileSize, lastModified))
+                return;
+
+            if (!isValidated || !isAppendedSinceLastValidation(fileSize))
+                resetValidatedState();
+
+            int firstNewIndexEntry = fileIndex.size();
+            int previousModificationsCount = fileIndex.modificationsCount();
+            validateLinesFromOffset(validatedOffset, verifiedLengthListener);
+            if (fileIndex.modificationsCount() > previousModificationsCount)
+                contentGeneration++;
+            validatedLastModified = lastModified;
+            boundarySample = readBoundarySample(validatedOffset);
+            isValidated = true;
+
+            if (sidecarIndexPath != null && (firstNewIndexEntry == 0 || fileIndex.size() > firstNewIndexEntry))
+                fileIndex.writeSidecar(sidecarIndexPath, currentFingerprint(), firstNewIndexEntry);
         } catch (IOException e) {
             //it shouldn't happen
             throw new RuntimeException("Unexpected IO exception during file processing", e);
         }
     }
+
+    public int getLastFreeId() {
+        return fileIndex.maxId() + 1;
+    }
+
+    public TransactionFileValidationReport getLastValidationReport() {
+        return lastValidationReport;
+    }
+
+    long getValidationGeneration() {
+        return validationGeneration;
+    }
+
+    long getContentGeneration() {
+        return contentGeneration;
+    }
+
+    long getValidatedLength() {
+        return validatedOffset;
+    }
+
+    TransactionFileIndex getFileIndex() {
+        return fileIndex;
+    }
+
+    void setArchivedIds(IntPredicate archivedIds) {
+        this.archivedIds = archivedIds;
+    }
+
+    void adoptCompactedFile(TransactionFileIndex compactedIndex, long compactedLength) throws IOException {
+        validationGeneration++;
+        contentGeneration++;
+        fileIndex = compactedIndex;
+        validatedOffset = compactedLength;
+        isValidatedPartEndsWithLine = true;
+        boundarySample = readBoundarySample(compactedLength);
+        isValidated = true;
+
+        if (sidecarIndexPath != null)
+            Files.deleteIfExists(sidecarIndexPath);
+        if (Files.size(filePath) == compactedLength) {
+            validatedLastModified = Files.getLastModifiedTime(filePath).toMillis();
+            if (sidecarIndexPath != null)
+                fileIndex.writeSidecar(sidecarIndexPath, currentFingerprint(), 0);
+        } else {
+            validatedLastModified = 0;
+        }
+    }
+
+    private boolean loadSidecarIndex(long fileSize, long lastModified) throws IOException {
+        if (sidecarIndexPath == null)
+            return false;
+
+        TransactionFileIndex sidecarIndex = TransactionFileIndex.readSidecar(sidecarIndexPath,
+                new TransactionFileIndex.SidecarFingerprint(fileSize, lastModified));
+        if (sidecarIndex == null)
+            return false;
+
+        fileIndex = sidecarIndex;
+        validatedOffset = fileSize;
+        validatedLastModified = lastModified;
+        boundarySample = readBoundarySample(validatedOffset);
+        isValidatedPartEndsWithLine = boundarySample.length == 0 || boundarySample[boundarySample.length - 1] == '\n';
+        isValidated = true;
+        return true;
+    }
+
+    private TransactionFileIndex.SidecarFingerprint currentFingerprint() {
+        return new TransactionFileIndex.SidecarFingerprint(validatedOffset, validatedLastModified);
+    }
+
+    private boolean isAppendedSinceLastValidation(long fileSize) throws IOException {
+        if (fileSize <= validatedOffset || !isValidatedPartEndsWithLine)
+            return false;
+
+        return Arrays.equals(boundarySample, readBoundarySample(validatedOffset));
+    }
+
+    private byte[] readBoundarySample(long endOffset) throws IOException {
+        int sampleSize = (int) Math.min(BOUNDARY_SAMPLE_SIZE, endOffset);
+        ByteBuffer sample = ByteBuffer.allocate(sampleSize);
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long position = endOffset - sampleSize;
+            while (sample.hasRemaining() && fileChannel.read(sample, position + sample.position()) >= 0);
+        }
+        return Arrays.copyOf(sample.array(), sample.position());
+    }
+
+    private void resetValidatedState() {
+        validationGeneration++;
+        contentGeneration++;
+        isValidated = false;
+        validatedOffset = 0;
+        isValidatedPartEndsWithLine = true;
+        synchronized (fileIndex) {
+            fileIndex.clear();
+        }
+    }
+
+    private void validateLinesFromOffset(long startOffset, LongConsumer verifiedLengthListener)
+            throws TransactionsFileFormatException, IOException
+    {
+        ParallelTransactionFileValidator.ValidationResult validationResult = new ParallelTransactionFileValidator(filePath)
+                .validateFromOffset(startOffset, fileIndex, archivedIds, verifiedLengthListener);
+        lastValidationReport = validationResult.report();
+
+        if (lastValidationReport.hasIncorrectLines()) {
+            resetValidatedState();
+            throw new TransactionsFileFormatException(lastValidationReport.describe());
+        }
+
+        validatedOffset = validationResult.validatedOffset();
+        isValidatedPartEndsWithLine = validationResult.endsWithLine();
+    }
 }
@@ -0,0 +1,33 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.metrics.Metrics;
+import com.FinanceTracker.metrics.OperationTimer;
+
+public class InstrumentedChangeableTransactionStorage extends InstrumentedTransactionStorage
+        implements ChangeableTransactionStorage
+{
+    private final String storageName;
+    private final ChangeableTransactionStorage storage;
+
+    public InstrumentedChangeableTransactionStorage(String storageName, ChangeableTransactionStorage storage) {
+        super(storageName, storage);
+        this.storageName = storageName;
+        this.storage = storage;
+    }
+
+    public void updateTransaction(int id, Transaction transaction) throws NoTransactionsException {
+        try (OperationTimer timer = Metrics.startStorageCall(storageName, "updateTransaction")) {
+            storage.updateTransaction(id, transaction);
+            timer.addRecords(1);
+        }
+    }
+
+    public void deleteTransaction(int id) throws NoTransactionsException {
+        try (OperationTimer timer = Metrics.startStorageCall(storageName, "deleteTransaction")) {
+            storage.deleteTransaction(id);
+            timer.addRecords(1);
+        }
+    }
+}
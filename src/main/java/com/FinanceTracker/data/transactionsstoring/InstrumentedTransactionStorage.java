@@ -0,0 +1,79 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.metrics.Metrics;
+import com.FinanceTracker.metrics.OperationTimer;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class InstrumentedTransactionStorage implements TransactionStorage {
+    private final String storageName;
+    private final TransactionStorage storage;
+
+    public InstrumentedTransactionStorage(String storageName, TransactionStorage storage) {
+        this.storageName = storageName;
+        this.storage = storage;
+    }
+
+    @SuppressWarnings("try")
+    public void addTransaction(Transaction transaction) {
+        try (OperationTimer timer = Metrics.startStorageCall(storageName, "addTransaction")) {
+            storage.addTransaction(transaction);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void addTransactions(Collection<Transaction> transactions) {
+        try (OperationTimer timer = Metrics.startStorageCall(storageName, "addTransactions")) {
+            storage.addTransactions(transactions);
+        }
+    }
+
+    public Transaction getTransactionById(int id) throws NoTransactionsException {
+        try (OperationTimer timer = Metrics.startStorageCall(storageName, "getTransactionById")) {
+            Transaction searchedTransaction = storage.getTransactionById(id);
+            timer.addRecords(1);
+            return searchedTransaction;
+        }
+    }
+
+    public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
+            throws NoTransactionsException
+    {
+        try (OperationTimer timer = Metrics.startStorageCall(storageName, "getTransactionsBetweenDates")) {
+            Map<Integer, Transaction> searchedTransactions =
+                    storage.getTransactionsBetweenDates(startDateTime, endDateTime);
+            timer.addRecords(searchedTransactions.size());
+            return searchedTransactions;
+        }
+    }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        OperationTimer timer = Metrics.startStorageCall(storageName, "streamTransactionsBetweenDates");
+        try {
+            return storage.streamTransactionsBetweenDates(startDateTime, endDateTime)
+                    .peek(storedTransaction -> timer.addRecords(1))
+                    .onClose(timer::close);
+        } catch (RuntimeException e) {
+            timer.close();
+            throw e;
+        }
+    }
+
+    public Stream<StoredTransaction> streamTransactionsMatching(TransactionScanCriteria criteria) {
+        OperationTimer timer = Metrics.startStorageCall(storageName, "streamTransactionsMatching");
+        try {
+            return storage.streamTransactionsMatching(criteria)
+                    .peek(storedTransaction -> timer.addRecords(1))
+                    .onClose(timer::close);
+        } catch (RuntimeException e) {
+            timer.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import java.util.Map;
+
+public record LedgerReadPosition(long generation, Map<String, Long> segmentOffsets) implements StorageReadPosition {
+}
@@ -0,0 +1,317 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+class LedgerSegment {
+    static final String SEGMENT_EXTENSION = ".csv";
+    private static final String MANIFEST_EXTENSION = ".manifest";
+
+    private final String key;
+    private final Path segmentPath;
+    private final Path manifestPath;
+
+    private long recordsCount;
+    private LocalDateTime minDateTime;
+    private LocalDateTime maxDateTime;
+    private int minId;
+    private int maxId;
+    private long size;
+    private long lastModified;
+
+    LedgerSegment(Path directory, String key) {
+        this.key = key;
+        this.segmentPath = directory.resolve(key + SEGMENT_EXTENSION);
+        this.manifestPath = directory.resolve(key + SEGMENT_EXTENSION + MANIFEST_EXTENSION);
+        reset();
+    }
+
+    private void reset() {
+        recordsCount = 0;
+        minDateTime = null;
+        maxDateTime = null;
+        minId = Integer.MAX_VALUE;
+        maxId = -1;
+        size = 0;
+        lastModified = 0;
+    }
+
+    String key() {
+        return key;
+    }
+
+    Path segmentPath() {
+        return segmentPath;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long recordsCount() {
+        return recordsCount;
+    }
+
+    LocalDateTime minDateTime() {
+        return minDateTime;
+    }
+
+    int maxId() {
+        return maxId;
+    }
+
+    boolean overlaps(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return recordsCount > 0 && maxDateTime.isAfter(startDateTime) && minDateTime.isBefore(endDateTime);
+    }
+
+    boolean mayContainId(int id) {
+        return recordsCount > 0 && id >= minId && id <= maxId;
+    }
+
+    boolean exists() {
+        return Files.exists(segmentPath);
+    }
+
+    void loadManifest() {
+        if (Files.notExists(manifestPath))
+            return;
+
+        Properties manifest = new Properties();
+        try (Reader manifestReader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            manifest.load(manifestReader);
+            long manifestRecordsCount = Long.parseLong(manifest.getProperty("records"));
+            if (manifestRecordsCount > 0) {
+                minDateTime = LocalDateTime.parse(manifest.getProperty("minDateTime"));
+                maxDateTime = LocalDateTime.parse(manifest.getProperty("maxDateTime"));
+                minId = Integer.parseInt(manifest.getProperty("minId"));
+                maxId = Integer.parseInt(manifest.getProperty("maxId"));
+            }
+            recordsCount = manifestRecordsCount;
+            size = Long.parseLong(manifest.getProperty("size"));
+            lastModified = Long.parseLong(manifest.getProperty("lastModified"));
+        } catch (IOException | IllegalArgumentException | NullPointerException | DateTimeParseException e) {
+            reset();
+        }
+    }
+
+    boolean mayContainIds(int fromId, int toId) {
+        return recordsCount > 0 && minId <= toId && maxId >= fromId;
+    }
+
+    boolean refresh(PartitionPeriod period, IntPredicate scannedIdAdder)
+            throws IOException, TransactionsFileFormatException
+    {
+        long fileSize = exists() ? Files.size(segmentPath) : 0;
+        long fileLastModified = exists() ? Files.getLastModifiedTime(segmentPath).toMillis() : 0;
+        if (fileSize == size && fileLastModified == lastModified)
+            return false;
+
+        boolean isAppended = fileSize > size && (size == 0 || endsWithLineAt(size));
+        if (!isAppended)
+            reset();
+
+        if (fileSize > 0) {
+            scan(period, scannedIdAdder);
+            lastModified = fileLastModified;
+            writeManifest();
+        } else {
+            Files.deleteIfExists(manifestPath);
+        }
+
+        return !isAppended;
+    }
+
+    private boolean endsWithLineAt(long offset) throws IOException {
+        ByteBuffer lastByte = ByteBuffer.allocate(1);
+        try (FileChannel segmentChannel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            return segmentChannel.read(lastByte, offset - 1) == 1 && lastByte.get(0) == '\n';
+        }
+    }
+
+    private void scan(PartitionPeriod period, IntPredicate scannedIdAdder)
+            throws IOException, TransactionsFileFormatException
+    {
+        TransactionFileValidationReport report = new TransactionFileValidationReport();
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        long firstLineNumber = recordsCount;
+        long lineNumber = firstLineNumber;
+        long scannedBytesCount;
+
+        try (TransactionFileLineReader lineReader = new TransactionFileLineReader(segmentPath, size)) {
+            while (lineReader.nextLine()) {
+                lineNumber++;
+                if (!csvCodec.decode(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd()))
+                    report.addIncorrectLine(lineNumber, "incorrect " + csvCodec.incorrectField());
+                else if (csvCodec.id() < 0)
+                    report.addIncorrectLine(lineNumber, "negative id " + csvCodec.id());
+                else if (!period.partitionKey(csvCodec.dateTime()).equals(key))
+                    report.addIncorrectLine(lineNumber, "date and time outside the segment period");
+                else if (!scannedIdAdder.test(csvCodec.id()))
+                    report.addIncorrectLine(lineNumber, "duplicate id " + csvCodec.id());
+                else
+                    include(csvCodec.id(), csvCodec.dateTime());
+            }
+            size = lineReader.nextLineOffset();
+            scannedBytesCount = lineReader.bytesReadCount();
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.LINES_PARSED, lineNumber - firstLineNumber);
+        Metrics.add(MetricCounter.BYTES_READ, scannedBytesCount);
+
+        if (report.hasIncorrectLines()) {
+            reset();
+            throw new TransactionsFileFormatException("Segment " + segmentPath + ": " + report.describe());
+        }
+    }
+
+    void include(int id, LocalDateTime dateTime) {
+        recordsCount++;
+        if (minDateTime == null || dateTime.isBefore(minDateTime))
+            minDateTime = dateTime;
+        if (maxDateTime == null || dateTime.isAfter(maxDateTime))
+            maxDateTime = dateTime;
+        minId = Math.min(minId, id);
+        maxId = Math.max(maxId, id);
+    }
+
+    void append(ByteArrayOutputStream lines, List<StoredTransaction> transactions) throws IOException {
+        try (FileOutputStream segmentOutputStream = new FileOutputStream(segmentPath.toFile(), true)) {
+            lines.writeTo(segmentOutputStream);
+        }
+
+        for (StoredTransaction storedTransaction : transactions)
+            include(storedTransaction.id(), storedTransaction.transaction().dateTime());
+        appended(lines.size());
+        markWritten();
+    }
+
+    void appended(long bytesCount) {
+        size += bytesCount;
+    }
+
+    void markWritten() throws IOException {
+        try (FileChannel segmentChannel = FileChannel.open(segmentPath, StandardOpenOption.WRITE)) {
+            segmentChannel.force(true);
+        }
+        lastModified = Files.getLastModifiedTime(segmentPath).toMillis();
+        writeManifest();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(segmentPath);
+        invalidate();
+    }
+
+    void invalidate() throws IOException {
+        Files.deleteIfExists(manifestPath);
+        reset();
+    }
+
+    private void writeManifest() throws IOException {
+        Properties manifest = new Properties();
+        manifest.setProperty("records", Long.toString(recordsCount));
+        if (recordsCount > 0) {
+            manifest.setProperty("minDateTime", minDateTime.toString());
+            manifest.setProperty("maxDateTime", maxDateTime.toString());
+            manifest.setProperty("minId", Integer.toString(minId));
+            manifest.setProperty("maxId", Integer.toString(maxId));
+        }
+        manifest.setProperty("size", Long.toString(size));
+        manifest.setProperty("lastModified", Long.toString(lastModified));
+
+        Path temporaryManifestPath = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        try (Writer manifestWriter = Files.newBufferedWriter(temporaryManifestPath, StandardCharsets.UTF_8)) {
+            manifest.store(manifestWriter, null);
+        }
+        Files.move(temporaryManifestPath, manifestPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    List<StoredTransaction> readBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime, long endOffset)
+            throws IOException
+    {
+        long startEpochSecond = startDateTime.toEpochSecond(ZoneOffset.UTC);
+        long endEpochSecond = endDateTime.toEpochSecond(ZoneOffset.UTC);
+        List<StoredTransaction> searchedTransactions = new ArrayList<>();
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+
+        read(0, endOffset, csvCodec, () -> {
+            if (csvCodec.isDateTimeAfter(startEpochSecond, startDateTime.getNano())
+                    && csvCodec.isDateTimeBefore(endEpochSecond, endDateTime.getNano()))
+                searchedTransactions.add(new StoredTransaction(csvCodec.id(), csvCodec.toTransaction()));
+        });
+
+        return searchedTransactions;
+    }
+
+    Transaction findTransactionById(int id, long endOffset) throws IOException {
+        Transaction[] searchedTransaction = new Transaction[1];
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+
+        read(0, endOffset, csvCodec, () -> {
+            if (searchedTransaction[0] == null && csvCodec.id() == id)
+                searchedTransaction[0] = csvCodec.toTransaction();
+        });
+
+        return searchedTransaction[0];
+    }
+
+    void readIds(long endOffset, IntConsumer action) throws IOException {
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        read(0, endOffset, csvCodec, () -> action.accept(csvCodec.id()));
+    }
+
+    void readTransactions(long startOffset, long endOffset, Consumer<StoredTransaction> action) throws IOException {
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        read(startOffset, endOffset, csvCodec, () ->
+                action.accept(new StoredTransaction(csvCodec.id(), csvCodec.toTransaction())));
+    }
+
+    private void read(long startOffset, long endOffset, TransactionCsvCodec csvCodec, Runnable lineAction)
+            throws IOException
+    {
+        long parsedLinesCount = 0;
+        long readBytesCount;
+
+        try (TransactionFileLineReader lineReader = new TransactionFileLineReader(segmentPath, startOffset)) {
+            while (lineReader.nextLine() && lineReader.lineOffset() < endOffset) {
+                parsedLinesCount++;
+                if (!csvCodec.decode(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd()))
+                    throw new IllegalStateException("The scanned part of the segment contains an incorrect line: "
+                            + segmentPath);
+                lineAction.run();
+            }
+            readBytesCount = lineReader.bytesReadCount();
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount);
+        Metrics.add(MetricCounter.BYTES_READ, readBytesCount);
+    }
+}
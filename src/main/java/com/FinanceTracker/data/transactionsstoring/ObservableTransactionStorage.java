@@ -0,0 +1,14 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+
+import java.util.Map;
+
+public interface ObservableTransactionStorage extends ChangeableTransactionStorage {
+
+    void addListener(TransactionStorageListener listener);
+
+    void removeListener(TransactionStorageListener listener);
+
+    void addTransactionsKeepingIds(Map<Integer, Transaction> transactionsWithIds);
+}
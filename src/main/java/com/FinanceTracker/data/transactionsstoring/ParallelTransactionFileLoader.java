@@ -0,0 +1,242 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+class ParallelTransactionFileLoader {
+    private static final long TARGET_CHUNK_SIZE = 8L << 20;
+    private static final int BOUNDARY_SEARCH_BUFFER_SIZE = 4096;
+
+    private final Path filePath;
+    private final List<ChunkResult> chunkResults = new ArrayList<>();
+    private final Map<Integer, Transaction> latestChanges = new HashMap<>();
+
+    ParallelTransactionFileLoader(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    void parse(long endOffset) throws TransactionsFileFormatException, IOException {
+        long loadedBytesCount;
+
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long[] chunkBoundaries = findChunkBoundaries(fileChannel, 0, endOffset, TARGET_CHUNK_SIZE);
+            loadedBytesCount = chunkBoundaries[chunkBoundaries.length - 1];
+
+            List<ForkJoinTask<ChunkResult>> chunkTasks = new ArrayList<>();
+            for (int i = 0; i < chunkBoundaries.length - 1; i++) {
+                ChunkParseTask chunkTask = new ChunkParseTask(fileChannel, chunkBoundaries[i], chunkBoundaries[i + 1]);
+                chunkTasks.add(ForkJoinPool.commonPool().submit(chunkTask));
+            }
+
+            for (ForkJoinTask<ChunkResult> chunkTask : chunkTasks)
+                chunkResults.add(chunkTask.join());
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.BYTES_READ, loadedBytesCount);
+        Metrics.add(MetricCounter.LINES_PARSED, chunkResults.stream().mapToLong(chunkResult -> chunkResult.lineCount).sum());
+
+        ensureChunksAreCorrect();
+    }
+
+    boolean isChangedInFile(int id) {
+        return latestChanges.containsKey(id);
+    }
+
+    void forEachParsedTransaction(Consumer<StoredTransaction> action) {
+        for (ChunkResult chunkResult : chunkResults) {
+            for (Map.Entry<Integer, Transaction> transactionPair : chunkResult.transactions.entrySet()) {
+                if (!latestChanges.containsKey(transactionPair.getKey()))
+                    action.accept(new StoredTransaction(transactionPair.getKey(), transactionPair.getValue()));
+            }
+        }
+
+        for (Map.Entry<Integer, Transaction> changePair : latestChanges.entrySet()) {
+            if (changePair.getValue() != null)
+                action.accept(new StoredTransaction(changePair.getKey(), changePair.getValue()));
+        }
+    }
+
+    private void ensureChunksAreCorrect() throws TransactionsFileFormatException {
+        Set<Integer> ids = new HashSet<>();
+        long linesBeforeChunk = 0;
+
+        for (ChunkResult chunkResult : chunkResults) {
+            long transactionInChunk = 0;
+            for (Integer id : chunkResult.transactions.keySet()) {
+                if (!ids.add(id) || latestChanges.containsKey(id))
+                    throwIncorrectLine(linesBeforeChunk + chunkResult.lineIndexOfTransaction(transactionInChunk));
+                transactionInChunk++;
+            }
+
+            for (StoredChange change : chunkResult.changes) {
+                if (latestChanges.containsKey(change.id()) && latestChanges.get(change.id()) == null)
+                    throwIncorrectLine(linesBeforeChunk + change.lineIndex());
+                latestChanges.put(change.id(), change.transaction());
+            }
+
+            if (chunkResult.incorrectLineIndex >= 0)
+                throwIncorrectLine(linesBeforeChunk + chunkResult.incorrectLineIndex);
+
+            linesBeforeChunk += chunkResult.lineCount;
+        }
+    }
+
+    private void throwIncorrectLine(long lineNumber) throws TransactionsFileFormatException {
+        throw new TransactionsFileFormatException("Incorrect values in the file lines. " +
+                "The exception occurred on line " + (lineNumber + 1));
+    }
+
+    static long[] findChunkBoundaries(FileChannel fileChannel, long startOffset, long targetChunkSize)
+            throws IOException
+    {
+        return findChunkBoundaries(fileChannel, startOffset, fileChannel.size(), targetChunkSize);
+    }
+
+    static long[] findChunkBoundaries(FileChannel fileChannel, long startOffset, long endOffset, long targetChunkSize)
+            throws IOException
+    {
+        long fileSize = Math.min(endOffset, fileChannel.size());
+        List<Long> chunkBoundaries = new ArrayList<>();
+        chunkBoundaries.add(startOffset);
+
+        ByteBuffer searchBuffer = ByteBuffer.allocate(BOUNDARY_SEARCH_BUFFER_SIZE);
+        long position = startOffset + targetChunkSize;
+        while (position < fileSize) {
+            long lineEnd = findNextLineEnd(fileChannel, position, searchBuffer);
+            if (lineEnd >= fileSize)
+                break;
+            chunkBoundaries.add(lineEnd + 1);
+            position = lineEnd + 1 + targetChunkSize;
+        }
+        chunkBoundaries.add(Math.max(startOffset, fileSize));
+
+        return chunkBoundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long findNextLineEnd(FileChannel fileChannel, long position, ByteBuffer searchBuffer)
+            throws IOException
+    {
+        while (true) {
+            searchBuffer.clear();
+            int bytesRead = fileChannel.read(searchBuffer, position);
+            if (bytesRead <= 0)
+                return Long.MAX_VALUE;
+
+            for (int i = 0; i < bytesRead; i++) {
+                if (searchBuffer.get(i) == '\n')
+                    return position + i;
+            }
+            position += bytesRead;
+        }
+    }
+
+    private record StoredChange(int id, Transaction transaction, long lineIndex) {
+    }
+
+    private static class ChunkResult {
+        private final Map<Integer, Transaction> transactions = new LinkedHashMap<>();
+        private final List<StoredChange> changes = new ArrayList<>();
+        private final Set<Integer> changedIds = new HashSet<>();
+        private final Set<Integer> deletedIds = new HashSet<>();
+        private long lineCount = 0;
+        private long incorrectLineIndex = -1;
+
+        private boolean add(TransactionCsvCodec csvCodec) {
+            int id = csvCodec.id();
+            if (id < 0)
+                return false;
+
+            if (csvCodec.recordKind() == TransactionRecordKind.TRANSACTION)
+                return !changedIds.contains(id) && transactions.putIfAbsent(id, csvCodec.toTransaction()) == null;
+
+            if (deletedIds.contains(id))
+                return false;
+            changedIds.add(id);
+            if (csvCodec.recordKind() == TransactionRecordKind.TOMBSTONE) {
+                deletedIds.add(id);
+                changes.add(new StoredChange(id, null, lineCount));
+            } else {
+                changes.add(new StoredChange(id, csvCodec.toTransaction(), lineCount));
+            }
+            return true;
+        }
+
+        private long lineIndexOfTransaction(long transactionIndex) {
+            long lineIndex = transactionIndex;
+            for (StoredChange change : changes) {
+                if (change.lineIndex() > lineIndex)
+                    break;
+                lineIndex++;
+            }
+            return lineIndex;
+        }
+    }
+
+    private static class ChunkParseTask extends RecursiveTask<ChunkResult> {
+        private final FileChannel fileChannel;
+        private final long startOffset;
+        private final long endOffset;
+
+        ChunkParseTask(FileChannel fileChannel, long startOffset, long endOffset) {
+            this.fileChannel = fileChannel;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            ChunkResult chunkResult = new ChunkResult();
+
+            MappedByteBuffer chunkBuffer;
+            try {
+                chunkBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, endOffset - startOffset);
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new RuntimeException("Unexpected IO exception during mapping the transactions file.", e);
+            }
+
+            TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+            byte[] lineBytes = new byte[256];
+            int chunkSize = chunkBuffer.limit();
+            int lineStart = 0;
+            while (lineStart < chunkSize) {
+                int lineEnd = lineStart;
+                while (lineEnd < chunkSize && chunkBuffer.get(lineEnd) != '\n')
+                    lineEnd++;
+
+                int lineLength = lineEnd - lineStart;
+                if (lineLength > 0 && chunkBuffer.get(lineEnd - 1) == '\r')
+                    lineLength--;
+                if (lineLength > lineBytes.length)
+                    lineBytes = new byte[lineLength * 2];
+                chunkBuffer.get(lineStart, lineBytes, 0, lineLength);
+
+                if (!csvCodec.decodeRecord(lineBytes, 0, lineLength) || !chunkResult.add(csvCodec)) {
+                    chunkResult.incorrectLineIndex = chunkResult.lineCount;
+                    break;
+                }
+
+                chunkResult.lineCount++;
+                lineStart = lineEnd + 1;
+            }
+
+            return chunkResult;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+
+class ParallelTransactionFileValidator {
+    private static final long TARGET_CHUNK_SIZE = 8L << 20;
+
+    private final Path filePath;
+
+    ParallelTransactionFileValidator(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    ValidationResult validateFromOffset(long startOffset, TransactionFileIndex fileIndex) throws IOException {
+        return validateFromOffset(startOffset, fileIndex, id -> false, null);
+    }
+
+    ValidationResult validateFromOffset(long startOffset, TransactionFileIndex fileIndex, IntPredicate archivedIds,
+                                        LongConsumer verifiedOffsetListener) throws IOException
+    {
+        TransactionFileValidationReport report = new TransactionFileValidationReport();
+        long firstLineNumber = fileIndex.size();
+        long lineNumber = firstLineNumber;
+        boolean endsWithLine = true;
+        long endOffset;
+
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long[] chunkBoundaries = ParallelTransactionFileLoader.findChunkBoundaries(fileChannel, startOffset,
+                    TARGET_CHUNK_SIZE);
+            int chunksCount = chunkBoundaries.length - 1;
+            endOffset = chunkBoundaries[chunksCount];
+            int waveSize = verifiedOffsetListener == null ? Math.max(1, chunksCount)
+                    : Math.max(2, ForkJoinPool.getCommonPoolParallelism());
+
+            for (int firstChunk = 0; firstChunk < chunksCount; firstChunk += waveSize) {
+                int endChunk = Math.min(chunksCount, firstChunk + waveSize);
+                List<ChunkValidationTask> chunkTasks = new ArrayList<>();
+                for (int i = firstChunk; i < endChunk; i++)
+                    chunkTasks.add(new ChunkValidationTask(fileChannel, chunkBoundaries[i], chunkBoundaries[i + 1]));
+
+                ForkJoinTask.invokeAll(chunkTasks);
+
+                synchronized (fileIndex) {
+                    for (ChunkValidationTask chunkTask : chunkTasks) {
+                        ChunkResult chunkResult = chunkTask.join();
+                        int incorrectLinePosition = 0;
+
+                        for (int line = 0; line < chunkResult.lineCount; line++) {
+                            lineNumber++;
+                            int id = chunkResult.ids[line];
+                            TransactionRecordKind kind = chunkResult.kinds[line];
+
+                            if (chunkResult.lengths[line] < 0)
+                                report.addIncorrectLine(lineNumber,
+                                        chunkResult.incorrectLineReasons.get(incorrectLinePosition++));
+                            else if (kind != TransactionRecordKind.TRANSACTION && !fileIndex.contains(id)
+                                    && !archivedIds.test(id))
+                                report.addIncorrectLine(lineNumber, "change of the unknown id " + id);
+                            else if (!fileIndex.put(id, chunkResult.offsets[line], chunkResult.lengths[line], kind))
+                                report.addIncorrectLine(lineNumber, kind == TransactionRecordKind.TRANSACTION
+                                        ? "duplicate id " + id : "change of the deleted id " + id);
+                        }
+
+                        if (chunkResult.lineCount > 0)
+                            endsWithLine = chunkResult.isLastLineTerminated;
+                    }
+                }
+
+                if (verifiedOffsetListener != null && !report.hasIncorrectLines())
+                    verifiedOffsetListener.accept(chunkBoundaries[endChunk]);
+            }
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        if (startOffset == 0)
+            Metrics.add(MetricCounter.FULL_FILE_VALIDATIONS, 1);
+        Metrics.add(MetricCounter.BYTES_READ, endOffset - startOffset);
+        Metrics.add(MetricCounter.LINES_PARSED, lineNumber - firstLineNumber);
+
+        return new ValidationResult(endOffset, endsWithLine, report);
+    }
+
+    record ValidationResult(long validatedOffset, boolean endsWithLine, TransactionFileValidationReport report) {
+    }
+
+    private static class ChunkResult {
+        private int[] ids = new int[1024];
+        private long[] offsets = new long[1024];
+        private int[] lengths = new int[1024];
+        private TransactionRecordKind[] kinds = new TransactionRecordKind[1024];
+        private final List<String> incorrectLineReasons = new ArrayList<>();
+        private int lineCount = 0;
+        private boolean isLastLineTerminated = true;
+
+        private void addLine(int id, long offset, int length, TransactionRecordKind kind) {
+            if (lineCount == ids.length) {
+                ids = Arrays.copyOf(ids, lineCount * 2);
+                offsets = Arrays.copyOf(offsets, lineCount * 2);
+                lengths = Arrays.copyOf(lengths, lineCount * 2);
+                kinds = Arrays.copyOf(kinds, lineCount * 2);
+            }
+            ids[lineCount] = id;
+            offsets[lineCount] = offset;
+            lengths[lineCount] = length;
+            kinds[lineCount] = kind;
+            lineCount++;
+        }
+
+        private void addIncorrectLine(String reason) {
+            addLine(-1, -1, -1, null);
+            incorrectLineReasons.add(reason);
+        }
+    }
+
+    private static class ChunkValidationTask extends RecursiveTask<ChunkResult> {
+        private final FileChannel fileChannel;
+        private final long startOffset;
+        private final long endOffset;
+
+        ChunkValidationTask(FileChannel fileChannel, long startOffset, long endOffset) {
+            this.fileChannel = fileChannel;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            ChunkResult chunkResult = new ChunkResult();
+
+            MappedByteBuffer chunkBuffer;
+            try {
+                chunkBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, endOffset - startOffset);
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new RuntimeException("Unexpected IO exception during mapping the transactions file.", e);
+            }
+
+            TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+            byte[] lineBytes = new byte[256];
+            int chunkSize = chunkBuffer.limit();
+            int lineStart = 0;
+            while (lineStart < chunkSize) {
+                int lineEnd = lineStart;
+                while (lineEnd < chunkSize && chunkBuffer.get(lineEnd) != '\n')
+                    lineEnd++;
+
+                int lineLength = lineEnd - lineStart;
+                if (lineEnd < chunkSize && lineLength > 0 && chunkBuffer.get(lineEnd - 1) == '\r')
+                    lineLength--;
+                if (lineLength > lineBytes.length)
+                    lineBytes = new byte[lineLength * 2];
+                chunkBuffer.get(lineStart, lineBytes, 0, lineLength);
+
+                if (!csvCodec.decodeRecord(lineBytes, 0, lineLength))
+                    chunkResult.addIncorrectLine("incorrect " + csvCodec.incorrectField());
+                else if (csvCodec.id() < 0)
+                    chunkResult.addIncorrectLine("negative id " + csvCodec.id());
+                else
+                    chunkResult.addLine(csvCodec.id(), startOffset + lineStart, lineLength, csvCodec.recordKind());
+
+                chunkResult.isLastLineTerminated = lineEnd < chunkSize;
+                lineStart = lineEnd + 1;
+            }
+
+            return chunkResult;
+        }
+    }
+}
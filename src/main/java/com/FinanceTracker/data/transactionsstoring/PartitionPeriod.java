@@ -0,0 +1,20 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public enum PartitionPeriod {
+    DAY("uuuu-MM-dd"),
+    MONTH("uuuu-MM"),
+    YEAR("uuuu");
+
+    private final DateTimeFormatter keyFormatter;
+
+    PartitionPeriod(String keyPattern) {
+        this.keyFormatter = DateTimeFormatter.ofPattern(keyPattern);
+    }
+
+    String partitionKey(LocalDateTime dateTime) {
+        return keyFormatter.format(dateTime);
+    }
+}
@@ -0,0 +1,465 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.exceptions.TransactionsFileCreationException;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class PartitionedTransactionStorage implements SynchronizableTransactionStorage<LedgerReadPosition> {
+    private static final String LEDGER_PROPERTIES_FILE_NAME = "ledger.properties";
+    private static final int MIGRATION_WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_OPEN_MIGRATION_WRITERS = 64;
+
+    private final Path directory;
+    private final PartitionPeriod period;
+    private final Map<String, LedgerSegment> segments = new HashMap<>();
+    private long generation = 0;
+    private int nextFreeId = 0;
+
+    public PartitionedTransactionStorage(Path directory, PartitionPeriod period)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        this.directory = directory;
+        createLedgerIfNotExists(period);
+        this.period = readLedgerPeriod();
+
+        try {
+            refreshSegments();
+        } catch (IOException e) {
+            throw new TransactionsFileFormatException("The ledger directory can't be read: " + directory);
+        }
+    }
+
+    public static PartitionedTransactionStorage migrateFromFile(Path filePath, Path directory, PartitionPeriod period)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        PartitionedTransactionStorage ledger = new PartitionedTransactionStorage(directory, period);
+        if (!ledger.segments.isEmpty())
+            throw new TransactionsFileCreationException("The ledger to migrate into must be empty: " + directory);
+
+        try {
+            ledger.migrate(filePath);
+        } catch (IOException | UncheckedIOException e) {
+            ledger.deleteMigratedLedger();
+            throw new TransactionsFileCreationException("The file can't be migrated into the ledger: " + filePath);
+        }
+        return ledger;
+    }
+
+    private void createLedgerIfNotExists(PartitionPeriod period)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        Path ledgerPropertiesPath = directory.resolve(LEDGER_PROPERTIES_FILE_NAME);
+        try {
+            if (Files.notExists(directory))
+                Files.createDirectory(directory);
+            else if (!Files.isDirectory(directory))
+                throw new TransactionsFileFormatException("Ledger must be a directory: " + directory);
+
+            if (Files.exists(ledgerPropertiesPath))
+                return;
+
+            try (Stream<Path> directoryEntries = Files.list(directory)) {
+                if (directoryEntries.findAny().isPresent())
+                    throw new TransactionsFileFormatException("The directory isn't empty and isn't a ledger: " + directory);
+            }
+
+            Properties ledgerProperties = new Properties();
+            ledgerProperties.setProperty("period", period.name());
+            try (Writer ledgerPropertiesWriter = Files.newBufferedWriter(ledgerPropertiesPath, StandardCharsets.UTF_8)) {
+                ledgerProperties.store(ledgerPropertiesWriter, null);
+            }
+        } catch (IOException e) {
+            throw new TransactionsFileCreationException("Ledger directory can't be created at this path: " + directory);
+        }
+    }
+
+    private PartitionPeriod readLedgerPeriod() throws TransactionsFileFormatException {
+        Path ledgerPropertiesPath = directory.resolve(LEDGER_PROPERTIES_FILE_NAME);
+        Properties ledgerProperties = new Properties();
+        try (Reader ledgerPropertiesReader = Files.newBufferedReader(ledgerPropertiesPath, StandardCharsets.UTF_8)) {
+            ledgerProperties.load(ledgerPropertiesReader);
+            return PartitionPeriod.valueOf(ledgerProperties.getProperty("period", ""));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("Incorrect ledger properties: " + ledgerPropertiesPath);
+        }
+    }
+
+    private void refreshSegments() throws IOException, TransactionsFileFormatException {
+        Set<String> segmentKeys = new HashSet<>();
+        try (DirectoryStream<Path> segmentPaths =
+                     Files.newDirectoryStream(directory, "*" + LedgerSegment.SEGMENT_EXTENSION)) {
+            for (Path segmentPath : segmentPaths) {
+                String fileName = segmentPath.getFileName().toString();
+                segmentKeys.add(fileName.substring(0, fileName.length() - LedgerSegment.SEGMENT_EXTENSION.length()));
+            }
+        }
+
+        Iterator<LedgerSegment> segmentsIterator = segments.values().iterator();
+        while (segmentsIterator.hasNext()) {
+            LedgerSegment segment = segmentsIterator.next();
+            if (!segmentKeys.contains(segment.key())) {
+                segment.refresh(period, id -> true);
+                segmentsIterator.remove();
+                generation++;
+            }
+        }
+
+        TransactionFileIndex scannedIds = new TransactionFileIndex();
+        int[] scannedIdsRange = {Integer.MAX_VALUE, -1};
+        IntPredicate scannedIdAdder = id -> {
+            scannedIdsRange[0] = Math.min(scannedIdsRange[0], id);
+            scannedIdsRange[1] = Math.max(scannedIdsRange[1], id);
+            return scannedIds.put(id, 0, 0);
+        };
+        Map<LedgerSegment, Long> checkedSizes = new HashMap<>();
+        List<LedgerSegment> scannedSegments = new ArrayList<>();
+
+        try {
+            for (String segmentKey : segmentKeys) {
+                LedgerSegment segment = segments.get(segmentKey);
+                if (segment == null) {
+                    segment = new LedgerSegment(directory, segmentKey);
+                    segment.loadManifest();
+                    segments.put(segmentKey, segment);
+                }
+
+                long checkedSize = segment.size();
+                if (segment.refresh(period, scannedIdAdder)) {
+                    generation++;
+                    checkedSize = 0;
+                    scannedSegments.add(segment);
+                } else if (segment.size() != checkedSize) {
+                    scannedSegments.add(segment);
+                }
+                if (checkedSize > 0)
+                    checkedSizes.put(segment, checkedSize);
+                nextFreeId = Math.max(nextFreeId, segment.maxId() + 1);
+            }
+
+            if (scannedIds.size() > 0)
+                ensureScannedIdsAreNew(scannedIds, scannedIdsRange[0], scannedIdsRange[1], checkedSizes);
+        } catch (TransactionsFileFormatException e) {
+            for (LedgerSegment scannedSegment : scannedSegments)
+                scannedSegment.invalidate();
+            throw e;
+        }
+    }
+
+    private static void ensureScannedIdsAreNew(TransactionFileIndex scannedIds, int minScannedId, int maxScannedId,
+                                               Map<LedgerSegment, Long> checkedSizes)
+            throws IOException, TransactionsFileFormatException
+    {
+        for (Map.Entry<LedgerSegment, Long> checkedSegment : checkedSizes.entrySet()) {
+            LedgerSegment segment = checkedSegment.getKey();
+            if (!segment.mayContainIds(minScannedId, maxScannedId))
+                continue;
+
+            int[] duplicateId = {-1};
+            segment.readIds(checkedSegment.getValue(), id -> {
+                if (duplicateId[0] < 0 && scannedIds.contains(id))
+                    duplicateId[0] = id;
+            });
+            if (duplicateId[0] >= 0)
+                throw new TransactionsFileFormatException("A changed segment contains the duplicate id "
+                        + duplicateId[0] + ", which is already in the segment " + segment.segmentPath());
+        }
+    }
+
+    private void refreshSegmentsDuringRuntime() {
+        try {
+            refreshSegments();
+        } catch (TransactionsFileFormatException e) {
+            throw new RuntimeException("The ledger was manually modified incorrectly during program runtime. Details:\n"
+                    + e.getMessage());
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during reading the ledger.", e);
+        }
+    }
+
+    private void migrate(Path filePath) throws IOException, TransactionsFileFormatException {
+        TransactionFileValidationReport report = new TransactionFileValidationReport();
+        TransactionFileIndex migratedIds = new TransactionFileIndex();
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+
+        Map<String, OutputStream> segmentWriters = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OutputStream> eldestWriter) {
+                if (size() <= MAX_OPEN_MIGRATION_WRITERS)
+                    return false;
+                try {
+                    eldestWriter.getValue().close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            }
+        };
+
+        try (TransactionFileLineReader lineReader = new TransactionFileLineReader(filePath, 0)) {
+            long lineNumber = 0;
+            while (lineReader.nextLine()) {
+                lineNumber++;
+                if (!csvCodec.decode(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd())) {
+                    report.addIncorrectLine(lineNumber, "incorrect " + csvCodec.incorrectField());
+                    continue;
+                }
+                if (csvCodec.id() < 0) {
+                    report.addIncorrectLine(lineNumber, "negative id " + csvCodec.id());
+                    continue;
+                }
+                if (!migratedIds.put(csvCodec.id(), 0, 0)) {
+                    report.addIncorrectLine(lineNumber, "duplicate id " + csvCodec.id());
+                    continue;
+                }
+                if (report.hasIncorrectLines())
+                    continue;
+
+                LocalDateTime dateTime = csvCodec.dateTime();
+                String segmentKey = period.partitionKey(dateTime);
+                LedgerSegment segment = segments.computeIfAbsent(segmentKey, key -> new LedgerSegment(directory, key));
+                OutputStream segmentWriter = segmentWriters.get(segmentKey);
+                if (segmentWriter == null) {
+                    segmentWriter = new BufferedOutputStream(
+                            new FileOutputStream(segment.segmentPath().toFile(), true), MIGRATION_WRITE_BUFFER_SIZE);
+                    segmentWriters.put(segmentKey, segmentWriter);
+                }
+
+                int lineLength = lineReader.lineEnd() - lineReader.lineStart();
+                segmentWriter.write(lineReader.buffer(), lineReader.lineStart(), lineLength);
+                segmentWriter.write('\n');
+                segment.include(csvCodec.id(), dateTime);
+                segment.appended(lineLength + 1);
+            }
+        } finally {
+            for (OutputStream segmentWriter : segmentWriters.values())
+                segmentWriter.close();
+        }
+
+        if (report.hasIncorrectLines()) {
+            deleteSegments();
+            throw new TransactionsFileFormatException(report.describe());
+        }
+
+        long migratedBytesCount = 0;
+        for (LedgerSegment segment : segments.values()) {
+            segment.markWritten();
+            migratedBytesCount += segment.size();
+            nextFreeId = Math.max(nextFreeId, segment.maxId() + 1);
+        }
+        Metrics.add(MetricCounter.BYTES_WRITTEN, migratedBytesCount);
+    }
+
+    private void deleteSegments() throws IOException {
+        for (LedgerSegment segment : segments.values())
+            segment.delete();
+        segments.clear();
+    }
+
+    private void deleteMigratedLedger() {
+        try {
+            deleteSegments();
+            Files.deleteIfExists(directory.resolve(LEDGER_PROPERTIES_FILE_NAME));
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new UncheckedIOException("Unexpected IO exception during deleting the incompletely migrated ledger.", e);
+        }
+    }
+
+    public PartitionPeriod getPeriod() {
+        return period;
+    }
+
+    public void addTransaction(Transaction transaction) {
+        addTransactions(List.of(transaction));
+    }
+
+    public synchronized void addTransactions(Collection<Transaction> transactions) {
+        if (transactions.isEmpty())
+            return;
+
+        refreshSegmentsDuringRuntime();
+
+        Map<String, ByteArrayOutputStream> segmentLines = new LinkedHashMap<>();
+        Map<String, List<StoredTransaction>> segmentTransactions = new HashMap<>();
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        for (Transaction transaction : transactions) {
+            String segmentKey = period.partitionKey(transaction.dateTime());
+            int lineLength = csvCodec.encode(nextFreeId, transaction);
+            segmentLines.computeIfAbsent(segmentKey, key -> new ByteArrayOutputStream())
+                    .write(csvCodec.encodedLine(), 0, lineLength);
+            segmentTransactions.computeIfAbsent(segmentKey, key -> new ArrayList<>())
+                    .add(new StoredTransaction(nextFreeId, transaction));
+            nextFreeId++;
+        }
+
+        long writtenBytesCount = 0;
+        try {
+            for (Map.Entry<String, ByteArrayOutputStream> lines : segmentLines.entrySet()) {
+                LedgerSegment segment = segments.computeIfAbsent(lines.getKey(), key -> new LedgerSegment(directory, key));
+                segment.append(lines.getValue(), segmentTransactions.get(lines.getKey()));
+                writtenBytesCount += lines.getValue().size();
+            }
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during adding transactions to the ledger.", e);
+        }
+        Metrics.add(MetricCounter.BYTES_WRITTEN, writtenBytesCount);
+    }
+
+    public Transaction getTransactionById(int id) throws NoTransactionsException {
+        List<SegmentSnapshot> candidateSegments;
+        synchronized (this) {
+            refreshSegmentsDuringRuntime();
+            candidateSegments = segments.values().stream()
+                    .filter(segment -> segment.mayContainId(id))
+                    .map(segment -> new SegmentSnapshot(segment, segment.size()))
+                    .toList();
+        }
+
+        try {
+            for (SegmentSnapshot candidateSegment : candidateSegments) {
+                Transaction searchedTransaction = candidateSegment.segment().findTransactionById(id,
+                        candidateSegment.size());
+                if (searchedTransaction != null)
+                    return searchedTransaction;
+            }
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during getting values from the ledger.", e);
+        }
+
+        throw new NoTransactionsException("No transaction with this Id: " + id);
+    }
+
+    public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
+            throws NoTransactionsException
+    {
+        Map<Integer, Transaction> searchedTransactions = new LinkedHashMap<>();
+
+        try (Stream<StoredTransaction> transactionsStream = streamTransactionsBetweenDates(startDateTime, endDateTime)) {
+            transactionsStream.forEach(storedTransaction ->
+                    searchedTransactions.put(storedTransaction.id(), storedTransaction.transaction()));
+        }
+
+        if (searchedTransactions.isEmpty())
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+
+        return searchedTransactions;
+    }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        List<SegmentSnapshot> overlappingSegments;
+        synchronized (this) {
+            refreshSegmentsDuringRuntime();
+            overlappingSegments = segments.values().stream()
+                    .filter(segment -> segment.overlaps(startDateTime, endDateTime))
+                    .sorted(Comparator.comparing(LedgerSegment::minDateTime))
+                    .map(segment -> new SegmentSnapshot(segment, segment.size()))
+                    .toList();
+        }
+
+        SegmentReadAhead segmentReads = new SegmentReadAhead(overlappingSegments, startDateTime, endDateTime);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(segmentReads, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(segmentReads::cancel);
+    }
+
+    public synchronized LedgerReadPosition readTransactionsAfter(LedgerReadPosition position,
+                                                                 Consumer<StoredTransaction> action)
+    {
+        refreshSegmentsDuringRuntime();
+
+        Map<String, Long> readOffsets = position != null && position.generation() == generation
+                ? position.segmentOffsets() : Map.of();
+        Map<String, Long> endOffsets = new HashMap<>();
+        try {
+            for (LedgerSegment segment : segments.values()) {
+                long startOffset = readOffsets.getOrDefault(segment.key(), 0L);
+                if (startOffset < segment.size())
+                    segment.readTransactions(startOffset, segment.size(), action);
+                endOffsets.put(segment.key(), segment.size());
+            }
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new RuntimeException("Unexpected IO exception during getting values from the ledger.", e);
+        }
+
+        return new LedgerReadPosition(generation, Map.copyOf(endOffsets));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private record SegmentSnapshot(LedgerSegment segment, long size) {
+    }
+
+    private static class SegmentReadAhead implements Iterator<List<StoredTransaction>> {
+        private static final int READ_AHEAD_SEGMENTS_COUNT = Math.max(2, ForkJoinPool.getCommonPoolParallelism());
+
+        private final List<SegmentSnapshot> segments;
+        private final LocalDateTime startDateTime;
+        private final LocalDateTime endDateTime;
+        private final ArrayDeque<ForkJoinTask<List<StoredTransaction>>> pendingReads = new ArrayDeque<>();
+        private int nextSegmentIndex = 0;
+
+        SegmentReadAhead(List<SegmentSnapshot> segments, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+            this.segments = segments;
+            this.startDateTime = startDateTime;
+            this.endDateTime = endDateTime;
+        }
+
+        @Override
+        public boolean hasNext() {
+            submitReads();
+            return !pendingReads.isEmpty();
+        }
+
+        @Override
+        public List<StoredTransaction> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return pendingReads.removeFirst().join();
+        }
+
+        private void submitReads() {
+            while (pendingReads.size() < READ_AHEAD_SEGMENTS_COUNT && nextSegmentIndex < segments.size()) {
+                SegmentSnapshot segmentSnapshot = segments.get(nextSegmentIndex++);
+                pendingReads.addLast(ForkJoinPool.commonPool().submit(() -> {
+                    try {
+                        return segmentSnapshot.segment().readBetweenDates(startDateTime, endDateTime,
+                                segmentSnapshot.size());
+                    } catch (IOException e) {
+                        //it shouldn't happen
+                        throw new UncheckedIOException("Unexpected IO exception during getting values from the ledger.", e);
+                    }
+                }));
+            }
+        }
+
+        private void cancel() {
+            for (ForkJoinTask<List<StoredTransaction>> pendingRead : pendingReads)
+                pendingRead.cancel(false);
+            pendingReads.clear();
+        }
+    }
+}
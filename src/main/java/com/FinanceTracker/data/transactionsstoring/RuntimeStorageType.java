@@ -0,0 +1,25 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+public enum RuntimeStorageType {
+    MAP(false),
+    CONCURRENT(true),
+    COLUMNAR(false);
+
+    private final boolean isConcurrent;
+
+    RuntimeStorageType(boolean isConcurrent) {
+        this.isConcurrent = isConcurrent;
+    }
+
+    public boolean isConcurrent() {
+        return isConcurrent;
+    }
+
+    public ObservableTransactionStorage createStorage() {
+        return switch (this) {
+            case MAP -> new RuntimeTransactionStorage();
+            case CONCURRENT -> new ConcurrentRuntimeTransactionStorage();
+            case COLUMNAR -> new ColumnarTransactionStorage();
+        };
+    }
+}
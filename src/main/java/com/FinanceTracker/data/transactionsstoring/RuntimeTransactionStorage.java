@@ -1,21 +1,55 @@
 package com.FinanceTracker.data.transactionsstoring;
 
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
 import com.FinanceTracker.data.transactionunit.Transaction;
 import com.FinanceTracker.exceptions.NoTransactionsException;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.stream.Stream;
 
-public class RuntimeTransactionStorage implements TransactionStorage {
+public class RuntimeTransactionStorage implements ObservableTransactionStorage {
     private int lastFreeID = 0;
     private final Map<Integer, Transaction> transactions = new HashMap<>();
+    private final NavigableMap<LocalDateTime, List<Integer>> idsByDateTime = new TreeMap<>();
+    private final List<TransactionStorageListener> listeners = new ArrayList<>();
+
+    public void addListener(TransactionStorageListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TransactionStorageListener listener) {
+        listeners.remove(listener);
+    }
 
     public void addTransaction(Transaction transaction)  {
-        transactions.put(lastFreeID, transaction);
+        putTransaction(lastFreeID, transaction);
         lastFreeID++;
     }
 
+    private void putTransaction(int id, Transaction transaction) {
+        transactions.put(id, transaction);
+        idsByDateTime.computeIfAbsent(transaction.dateTime(), dateTime -> new ArrayList<>(1)).add(id);
+        for (TransactionStorageListener listener : listeners)
+            listener.transactionAdded(id, transaction);
+    }
+
+    public void addTransactions(Collection<Transaction> newTransactions) {
+        for (Transaction transaction : newTransactions)
+            addTransaction(transaction);
+    }
+
+    public void addTransactionsKeepingIds(Map<Integer, Transaction> transactionsWithIds) {
+        for (Map.Entry<Integer, Transaction> transactionPair : transactionsWithIds.entrySet()) {
+            int id = transactionPair.getKey();
+            if (transactions.containsKey(id))
+                id = lastFreeID;
+
+            putTransaction(id, transactionPair.getValue());
+            lastFreeID = Math.max(lastFreeID, id + 1);
+        }
+    }
+
     public Transaction getTransactionById(int id) throws NoTransactionsException {
         Transaction searchedTransaction = transactions.get(id);
 
@@ -25,14 +59,35 @@ public class RuntimeTransactionStorage implements TransactionStorage {
         return transactions.get(id);
     }
 
+    public void updateTransaction(int id, Transaction transaction) throws NoTransactionsException {
+        removeTransaction(id);
+        putTransaction(id, transaction);
+    }
+
+    public void deleteTransaction(int id) throws NoTransactionsException {
+        removeTransaction(id);
+    }
+
+    private void removeTransaction(int id) throws NoTransactionsException {
+        Transaction removedTransaction = transactions.remove(id);
+        if (removedTransaction == null)
+            throw new NoTransactionsException("No transaction with this Id: " + id);
+
+        List<Integer> ids = idsByDateTime.get(removedTransaction.dateTime());
+        ids.remove(Integer.valueOf(id));
+        if (ids.isEmpty())
+            idsByDateTime.remove(removedTransaction.dateTime());
+        for (TransactionStorageListener listener : listeners)
+            listener.transactionRemoved(id, removedTransaction);
+    }
+
     public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
             throws NoTransactionsException
     {
-        HashMap<Integer, Transaction> searchedTransactions = new HashMap<>();
-        for (Map.Entry<Integer, Transaction> transactionPair : transactions.entrySet()) {
-            if (transactionPair.getValue().dateTime().isAfter(startDateTime)
-                    && transactionPair.getValue().dateTime().isBefore(endDateTime))
-                searchedTransactions.put(transactionPair.getKey(), transactionPair.getValue());
+        Map<Integer, Transaction> searchedTransactions = new LinkedHashMap<>();
+        for (List<Integer> ids : idsBetweenDates(startDateTime, endDateTime)) {
+            for (Integer id : ids)
+                searchedTransactions.put(id, transactions.get(id));
         }
 
         if (searchedTransactions.isEmpty())
@@ -40,4 +95,17 @@ public class RuntimeTransactionStorage implements TransactionStorage {
 
         return searchedTransactions;
     }
+
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return idsBetweenDates(startDateTime, endDateTime).stream()
+                .flatMap(List::stream)
+                .map(id -> new StoredTransaction(id, transactions.get(id)));
+    }
+
+    private Collection<List<Integer>> idsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (!startDateTime.isBefore(endDateTime))
+            return List.of();
+
+        return idsByDateTime.subMap(startDateTime, false, endDateTime, false).values();
+    }
 }
@@ -0,0 +1,6 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+public interface StorageReadPosition {
+
+    long generation();
+}
@@ -0,0 +1,14 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+public interface SynchronizableTransactionStorage<P extends StorageReadPosition> extends TransactionStorage, Closeable {
+
+    P readTransactionsAfter(P position, Consumer<StoredTransaction> action);
+
+    @Override
+    void close();
+}
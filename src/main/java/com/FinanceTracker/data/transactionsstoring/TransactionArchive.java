@@ -0,0 +1,535 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+class TransactionArchive {
+    private static final int BLOCK_MAGIC = 0x46544142;
+    private static final int BLOCK_HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4 + 4 + 8;
+    private static final int TARGET_BLOCK_SIZE = 256 << 10;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Path filePath;
+    private final Path archivePath;
+    private final List<Block> blocks = new ArrayList<>();
+    private long archiveLength = 0;
+    private long recordsCount = 0;
+    private int maxId = -1;
+
+    TransactionArchive(Path filePath) throws IOException, TransactionsFileFormatException {
+        this.filePath = filePath;
+        this.archivePath = archivePathFor(filePath);
+        loadBlocks();
+    }
+
+    static Path archivePathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".archive");
+    }
+
+    private static Path pendingSealPathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".archive.pending");
+    }
+
+    private static Path rewrittenFilePathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".sealing");
+    }
+
+    static void recover(Path filePath) throws IOException {
+        Path pendingSealPath = pendingSealPathFor(filePath);
+        if (Files.notExists(pendingSealPath))
+            return;
+
+        Path rewrittenFilePath = rewrittenFilePathFor(filePath);
+        if (Files.exists(rewrittenFilePath)) {
+            long committedArchiveLength = Long.parseLong(Files.readString(pendingSealPath, StandardCharsets.US_ASCII).trim());
+            try (FileChannel archiveChannel = FileChannel.open(archivePathFor(filePath), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                archiveChannel.truncate(committedArchiveLength);
+                archiveChannel.force(true);
+            }
+            Files.delete(rewrittenFilePath);
+        }
+        Files.delete(pendingSealPath);
+    }
+
+    private void loadBlocks() throws IOException, TransactionsFileFormatException {
+        if (Files.notExists(archivePath))
+            return;
+
+        try (FileChannel archiveChannel = FileChannel.open(archivePath, StandardOpenOption.READ)) {
+            long archiveSize = archiveChannel.size();
+            ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+            long offset = 0;
+
+            while (offset < archiveSize) {
+                if (offset + BLOCK_HEADER_SIZE > archiveSize)
+                    throw new TransactionsFileFormatException("The archive ends with an incomplete block: " + archivePath);
+
+                header.clear();
+                readFully(archiveChannel, header, offset);
+                Block block = new Block(offset, header.getInt(4), header.getLong(8), header.getLong(16),
+                        header.getInt(24), header.getInt(28), header.getInt(32), header.getInt(36), header.getLong(40));
+                if (header.getInt(0) != BLOCK_MAGIC || block.recordsCount() <= 0 || block.uncompressedLength() < 0
+                        || block.compressedLength() < 0 || block.end() > archiveSize)
+                    throw new TransactionsFileFormatException("The archive has an incorrect block at the offset "
+                            + offset + ": " + archivePath);
+
+                addBlock(block);
+                offset = block.end();
+            }
+        }
+    }
+
+    private void addBlock(Block block) {
+        blocks.add(block);
+        archiveLength = block.end();
+        recordsCount += block.recordsCount();
+        maxId = Math.max(maxId, block.maxId());
+    }
+
+    long recordsCount() {
+        return recordsCount;
+    }
+
+    int maxId() {
+        return maxId;
+    }
+
+    long compressedSize() {
+        return archiveLength;
+    }
+
+    int blocksCount() {
+        return blocks.size();
+    }
+
+    IntPredicate snapshotIdRanges() {
+        List<Block> blocksSnapshot = List.copyOf(blocks);
+        return id -> blocksSnapshot.stream().anyMatch(block -> block.mayContainId(id));
+    }
+
+    Transaction findTransactionById(int id) throws IOException {
+        List<Block> candidateBlocks = blocks.stream().filter(block -> block.mayContainId(id)).toList();
+        if (candidateBlocks.isEmpty())
+            return null;
+
+        try (BlockReader blockReader = new BlockReader()) {
+            for (Block block : candidateBlocks) {
+                blockReader.readBlock(block);
+                while (blockReader.nextLine()) {
+                    if (blockReader.csvCodec.id() == id)
+                        return blockReader.csvCodec.toTransaction();
+                }
+            }
+        }
+        return null;
+    }
+
+    void readAllTransactions(Consumer<StoredTransaction> action) throws IOException {
+        if (blocks.isEmpty())
+            return;
+
+        try (BlockReader blockReader = new BlockReader()) {
+            for (Block block : blocks) {
+                blockReader.readBlock(block);
+                while (blockReader.nextLine())
+                    action.accept(new StoredTransaction(blockReader.csvCodec.id(), blockReader.csvCodec.toTransaction()));
+            }
+        }
+    }
+
+    Stream<StoredTransaction> streamTransactionsMatching(TransactionLineFilter lineFilter) {
+        Iterator<Block> overlappingBlocks = blocks.stream()
+                .filter(block -> block.overlaps(lineFilter.startEpochSecond(), lineFilter.endEpochSecond()))
+                .toList()
+                .iterator();
+        if (!overlappingBlocks.hasNext())
+            return Stream.empty();
+
+        BlockReader blockReader;
+        try {
+            blockReader = new BlockReader();
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new UncheckedIOException("Unexpected IO exception during opening the archive.", e);
+        }
+        TransactionCsvCodec csvCodec = blockReader.csvCodec;
+
+        Spliterator<StoredTransaction> transactionsSpliterator =
+                new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super StoredTransaction> action) {
+                try {
+                    while (true) {
+                        if (blockReader.nextMatchingLine(lineFilter)) {
+                            action.accept(new StoredTransaction(csvCodec.id(), csvCodec.toTransaction()));
+                            return true;
+                        }
+
+                        if (!overlappingBlocks.hasNext())
+                            return false;
+                        blockReader.readBlock(overlappingBlocks.next());
+                    }
+                } catch (IOException e) {
+                    //it shouldn't happen
+                    throw new UncheckedIOException("Unexpected IO exception during reading the archive.", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(transactionsSpliterator, false).onClose(blockReader::close);
+    }
+
+    int sealTransactionsBefore(LocalDateTime sealDateTime, long validatedLength, TransactionFileIndex fileIndex)
+            throws IOException
+    {
+        Path pendingSealPath = pendingSealPathFor(filePath);
+        Path rewrittenFilePath = rewrittenFilePathFor(filePath);
+        long sealEpochSecond = sealDateTime.toEpochSecond(ZoneOffset.UTC);
+        IntPredicate archivedIds = snapshotIdRanges();
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        List<Block> sealedBlocks;
+        long parsedLinesCount = 0;
+        long readBytesCount;
+
+        writePendingSeal(pendingSealPath);
+        try (TransactionFileLineReader lineReader = new TransactionFileLineReader(filePath, 0);
+             FileOutputStream rewrittenFileOutputStream = new FileOutputStream(rewrittenFilePath.toFile());
+             BufferedOutputStream rewrittenFileWriter = new BufferedOutputStream(rewrittenFileOutputStream,
+                     WRITE_BUFFER_SIZE);
+             BlockWriter blockWriter = new BlockWriter(archiveLength))
+        {
+            while (lineReader.nextLine() && lineReader.lineOffset() < validatedLength) {
+                parsedLinesCount++;
+                int lineLength = lineReader.lineEnd() - lineReader.lineStart();
+                if (!csvCodec.decodeRecord(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd()))
+                    throw new IllegalStateException("The validated part of the file contains an incorrect line: "
+                            + filePath);
+
+                int id = csvCodec.id();
+                TransactionRecordKind recordKind = csvCodec.recordKind();
+                boolean isLatest;
+                int maxFileId;
+                synchronized (fileIndex) {
+                    maxFileId = fileIndex.maxId();
+                    isLatest = fileIndex.isLatestBefore(id, lineReader.lineOffset(), validatedLength)
+                            || id == maxFileId && recordKind == TransactionRecordKind.TRANSACTION
+                            && fileIndex.isDeleted(id);
+                }
+                if (!isLatest || recordKind == TransactionRecordKind.TOMBSTONE && !archivedIds.test(id) && id != maxFileId)
+                    continue;
+
+                boolean isKeptAsModification = recordKind == TransactionRecordKind.TOMBSTONE
+                        || recordKind == TransactionRecordKind.REPLACEMENT && archivedIds.test(id);
+                if (recordKind == TransactionRecordKind.REPLACEMENT && !isKeptAsModification)
+                    lineLength = csvCodec.transactionEnd() - lineReader.lineStart();
+
+                if (!isKeptAsModification && csvCodec.isDateTimeBefore(sealEpochSecond, sealDateTime.getNano())) {
+                    blockWriter.add(csvCodec, lineReader.buffer(), lineReader.lineStart(), lineLength);
+                } else {
+                    rewrittenFileWriter.write(lineReader.buffer(), lineReader.lineStart(), lineLength);
+                    rewrittenFileWriter.write('\n');
+                }
+            }
+            readBytesCount = lineReader.bytesReadCount();
+
+            blockWriter.finish();
+            sealedBlocks = blockWriter.writtenBlocks;
+            if (!sealedBlocks.isEmpty()) {
+                rewrittenFileWriter.flush();
+                rewrittenFileOutputStream.getChannel().force(true);
+            }
+        } catch (IOException | RuntimeException e) {
+            abortSeal(pendingSealPath, rewrittenFilePath);
+            throw e;
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount);
+        Metrics.add(MetricCounter.BYTES_READ, readBytesCount);
+
+        if (sealedBlocks.isEmpty()) {
+            abortSeal(pendingSealPath, rewrittenFilePath);
+            return 0;
+        }
+
+        Files.move(rewrittenFilePath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(pendingSealPath);
+
+        long sealedRecordsCount = 0;
+        for (Block block : sealedBlocks) {
+            addBlock(block);
+            sealedRecordsCount += block.recordsCount();
+        }
+        Metrics.add(MetricCounter.BYTES_WRITTEN, Files.size(filePath)
+                + sealedBlocks.getLast().end() - sealedBlocks.getFirst().offset());
+        return (int) sealedRecordsCount;
+    }
+
+    private void writePendingSeal(Path pendingSealPath) throws IOException {
+        try (FileChannel pendingSealChannel = FileChannel.open(pendingSealPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            pendingSealChannel.write(ByteBuffer.wrap(Long.toString(archiveLength).getBytes(StandardCharsets.US_ASCII)));
+            pendingSealChannel.force(true);
+        }
+    }
+
+    private void abortSeal(Path pendingSealPath, Path rewrittenFilePath) throws IOException {
+        if (Files.exists(archivePath)) {
+            try (FileChannel archiveChannel = FileChannel.open(archivePath, StandardOpenOption.WRITE)) {
+                archiveChannel.truncate(archiveLength);
+            }
+        }
+        Files.deleteIfExists(rewrittenFilePath);
+        Files.deleteIfExists(pendingSealPath);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of the archive.");
+        }
+    }
+
+    private record Block(long offset, int recordsCount, long minEpochSecond, long maxEpochSecond, int minId, int maxId,
+                         int uncompressedLength, int compressedLength, long checksum)
+    {
+        long end() {
+            return offset + BLOCK_HEADER_SIZE + compressedLength;
+        }
+
+        boolean overlaps(long startEpochSecond, long endEpochSecond) {
+            return maxEpochSecond >= startEpochSecond && minEpochSecond <= endEpochSecond;
+        }
+
+        boolean mayContainId(int id) {
+            return id >= minId && id <= maxId;
+        }
+    }
+
+    private class BlockWriter implements Closeable {
+        private final FileChannel archiveChannel;
+        private final Deflater deflater = new Deflater();
+        private final List<Block> writtenBlocks = new ArrayList<>();
+        private byte[] lines = new byte[TARGET_BLOCK_SIZE + 256];
+        private byte[] compressedLines = new byte[TARGET_BLOCK_SIZE];
+        private int linesLength = 0;
+        private long writeOffset;
+
+        private int recordsCount = 0;
+        private long minEpochSecond = Long.MAX_VALUE;
+        private long maxEpochSecond = Long.MIN_VALUE;
+        private int minId = Integer.MAX_VALUE;
+        private int maxId = -1;
+
+        BlockWriter(long writeOffset) throws IOException {
+            this.archiveChannel = FileChannel.open(archivePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.writeOffset = writeOffset;
+        }
+
+        void add(TransactionCsvCodec csvCodec, byte[] line, int lineStart, int lineLength) throws IOException {
+            if (linesLength + lineLength + 1 > lines.length)
+                lines = Arrays.copyOf(lines, Math.max(lines.length * 2, linesLength + lineLength + 1));
+            System.arraycopy(line, lineStart, lines, linesLength, lineLength);
+            linesLength += lineLength;
+            lines[linesLength++] = '\n';
+
+            recordsCount++;
+            minEpochSecond = Math.min(minEpochSecond, csvCodec.epochSecond());
+            maxEpochSecond = Math.max(maxEpochSecond, csvCodec.epochSecond());
+            minId = Math.min(minId, csvCodec.id());
+            maxId = Math.max(maxId, csvCodec.id());
+
+            if (linesLength >= TARGET_BLOCK_SIZE)
+                writeBlock();
+        }
+
+        void finish() throws IOException {
+            if (recordsCount > 0)
+                writeBlock();
+            if (!writtenBlocks.isEmpty())
+                archiveChannel.force(true);
+        }
+
+        private void writeBlock() throws IOException {
+            deflater.reset();
+            deflater.setInput(lines, 0, linesLength);
+            deflater.finish();
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressedLines.length)
+                    compressedLines = Arrays.copyOf(compressedLines, compressedLines.length * 2);
+                compressedLength += deflater.deflate(compressedLines, compressedLength,
+                        compressedLines.length - compressedLength);
+            }
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(compressedLines, 0, compressedLength);
+            Block block = new Block(writeOffset, recordsCount, minEpochSecond, maxEpochSecond, minId, maxId,
+                    linesLength, compressedLength, crc32.getValue());
+
+            ByteBuffer blockBuffer = ByteBuffer.allocate(BLOCK_HEADER_SIZE + compressedLength);
+            blockBuffer.putInt(BLOCK_MAGIC)
+                    .putInt(block.recordsCount())
+                    .putLong(block.minEpochSecond())
+                    .putLong(block.maxEpochSecond())
+                    .putInt(block.minId())
+                    .putInt(block.maxId())
+                    .putInt(block.uncompressedLength())
+                    .putInt(block.compressedLength())
+                    .putLong(block.checksum())
+                    .put(compressedLines, 0, compressedLength);
+            blockBuffer.flip();
+            while (blockBuffer.hasRemaining())
+                archiveChannel.write(blockBuffer, writeOffset + blockBuffer.position());
+
+            writtenBlocks.add(block);
+            writeOffset = block.end();
+            linesLength = 0;
+            recordsCount = 0;
+            minEpochSecond = Long.MAX_VALUE;
+            maxEpochSecond = Long.MIN_VALUE;
+            minId = Integer.MAX_VALUE;
+            maxId = -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            archiveChannel.close();
+        }
+    }
+
+    private class BlockReader implements Closeable {
+        private final FileChannel archiveChannel;
+        private final Inflater inflater;
+        private final TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        private byte[] compressedLines = new byte[0];
+        private byte[] lines = new byte[0];
+        private int linesLength = 0;
+        private int linePosition = 0;
+        private long readBytesCount = 0;
+        private long parsedLinesCount = 0;
+        private long readBlocksCount = 0;
+
+        BlockReader() throws IOException {
+            this.archiveChannel = FileChannel.open(archivePath, StandardOpenOption.READ);
+            this.inflater = new Inflater();
+        }
+
+        void readBlock(Block block) throws IOException {
+            if (compressedLines.length < block.compressedLength())
+                compressedLines = new byte[block.compressedLength()];
+            if (lines.length < block.uncompressedLength())
+                lines = new byte[block.uncompressedLength()];
+
+            ByteBuffer compressedBuffer = ByteBuffer.wrap(compressedLines, 0, block.compressedLength());
+            readFully(archiveChannel, compressedBuffer, block.offset() + BLOCK_HEADER_SIZE);
+            readBytesCount += BLOCK_HEADER_SIZE + block.compressedLength();
+            readBlocksCount++;
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(compressedLines, 0, block.compressedLength());
+            if (crc32.getValue() != block.checksum())
+                throw new IllegalStateException("The archive block at the offset " + block.offset()
+                        + " is damaged: " + archivePath);
+
+            inflater.reset();
+            inflater.setInput(compressedLines, 0, block.compressedLength());
+            try {
+                linesLength = 0;
+                while (linesLength < block.uncompressedLength() && !inflater.finished()) {
+                    int inflatedLength = inflater.inflate(lines, linesLength, block.uncompressedLength() - linesLength);
+                    if (inflatedLength == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        break;
+                    linesLength += inflatedLength;
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("The archive block at the offset " + block.offset()
+                        + " is damaged: " + archivePath);
+            }
+            if (linesLength != block.uncompressedLength())
+                throw new IllegalStateException("The archive block at the offset " + block.offset()
+                        + " is damaged: " + archivePath);
+            linePosition = 0;
+        }
+
+        boolean nextLine() {
+            if (linePosition >= linesLength)
+                return false;
+
+            int lineEnd = linePosition;
+            while (lineEnd < linesLength && lines[lineEnd] != '\n')
+                lineEnd++;
+            if (!csvCodec.decode(lines, linePosition, lineEnd))
+                throw new IllegalStateException("The archive contains an incorrect line: " + archivePath);
+
+            linePosition = lineEnd + 1;
+            parsedLinesCount++;
+            return true;
+        }
+
+        boolean nextMatchingLine(TransactionLineFilter lineFilter) {
+            while (linePosition < linesLength) {
+                int lineEnd = linePosition;
+                while (lineEnd < linesLength && lines[lineEnd] != '\n')
+                    lineEnd++;
+                boolean isMatching = csvCodec.decodeMatching(lines, linePosition, lineEnd, lineFilter);
+                if (!isMatching && csvCodec.incorrectField() != null)
+                    throw new IllegalStateException("The archive contains an incorrect line: " + archivePath);
+
+                linePosition = lineEnd + 1;
+                parsedLinesCount++;
+                if (isMatching)
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+            Metrics.add(MetricCounter.FILE_SCANS, readBlocksCount > 0 ? 1 : 0);
+            Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount);
+            Metrics.add(MetricCounter.BYTES_READ, readBytesCount);
+            try {
+                archiveChannel.close();
+            } catch (IOException e) {
+                //it shouldn't happen
+                throw new UncheckedIOException("Unexpected IO exception during closing the archive.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.ZoneOffset;
+
+class TransactionContentMultiset {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int distinctCount = 0;
+    private long totalCount = 0;
+
+    void add(long contentHash) {
+        if ((distinctCount + 1) * 2 > hashes.length)
+            rehash(hashes.length * 2);
+
+        int slot = findSlot(contentHash);
+        if (counts[slot] == 0) {
+            hashes[slot] = contentHash;
+            distinctCount++;
+        }
+        counts[slot]++;
+        totalCount++;
+    }
+
+    void remove(long contentHash) {
+        int slot = findSlot(contentHash);
+        if (counts[slot] == 0)
+            return;
+
+        totalCount--;
+        if (--counts[slot] > 0)
+            return;
+
+        distinctCount--;
+        int mask = hashes.length - 1;
+        int emptySlot = slot;
+        for (int nextSlot = (slot + 1) & mask; counts[nextSlot] != 0; nextSlot = (nextSlot + 1) & mask) {
+            int homeSlot = (int) hashes[nextSlot] & mask;
+            if (((nextSlot - homeSlot) & mask) >= ((nextSlot - emptySlot) & mask)) {
+                hashes[emptySlot] = hashes[nextSlot];
+                counts[emptySlot] = counts[nextSlot];
+                counts[nextSlot] = 0;
+                emptySlot = nextSlot;
+            }
+        }
+    }
+
+    int count(long contentHash) {
+        return counts[findSlot(contentHash)];
+    }
+
+    long size() {
+        return totalCount;
+    }
+
+    void addAll(TransactionContentMultiset contents) {
+        for (int slot = 0; slot < contents.hashes.length; slot++) {
+            for (int i = 0; i < contents.counts[slot]; i++)
+                add(contents.hashes[slot]);
+        }
+    }
+
+    private int findSlot(long contentHash) {
+        int mask = hashes.length - 1;
+        int slot = (int) contentHash & mask;
+        while (counts[slot] != 0 && hashes[slot] != contentHash)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        hashes = new long[newCapacity];
+        counts = new int[newCapacity];
+
+        for (int oldSlot = 0; oldSlot < oldHashes.length; oldSlot++) {
+            if (oldCounts[oldSlot] == 0)
+                continue;
+
+            int slot = findSlot(oldHashes[oldSlot]);
+            hashes[slot] = oldHashes[oldSlot];
+            counts[slot] = oldCounts[oldSlot];
+        }
+    }
+
+    static long contentHash(Transaction transaction) {
+        BigDecimal sum = transaction.sum().stripTrailingZeros();
+        BigInteger unscaledSum = sum.unscaledValue();
+
+        long hash = transaction.dateTime().toEpochSecond(ZoneOffset.UTC);
+        hash = mix(hash * 31 + transaction.dateTime().getNano());
+        hash = mix(hash * 31 + transaction.type().ordinal());
+        hash = mix(hash * 31 + sum.scale());
+        hash = mix(hash * 31 + (unscaledSum.bitLength() < Long.SIZE ? unscaledSum.longValue() : unscaledSum.hashCode()));
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,523 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+class TransactionCsvCodec {
+    private static final byte[] INCOME_NAME = TransactionType.INCOME.name().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXPENSE_NAME = TransactionType.EXPENSE.name().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REPLACEMENT_MARK = "UPDATED".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TOMBSTONE_MARK = "DELETED".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_FAST_SUM_DIGITS = 18;
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private int id;
+    private TransactionRecordKind recordKind;
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int nano;
+    private long epochSecond;
+    private TransactionType type;
+    private long unscaledSum;
+    private int sumScale;
+    private BigDecimal slowPathSum;
+    private String incorrectField;
+    private int firstComma;
+    private int secondComma;
+    private int thirdComma;
+    private int sumEnd;
+
+    private byte[] encodedLine = new byte[128];
+    private int encodedLength;
+
+    boolean decode(byte[] line, int start, int end) {
+        if (decodeRecord(line, start, end) && recordKind != TransactionRecordKind.TRANSACTION)
+            incorrectField = "update or delete mark";
+
+        return incorrectField == null;
+    }
+
+    boolean decodeRecord(byte[] line, int start, int end) {
+        recordKind = TransactionRecordKind.TRANSACTION;
+        if (!locateFields(line, start, end))
+            incorrectField = isTombstone(line, end) ? decodeTombstone(line, start) : "number of values";
+        else if (!decodeId(line, start, firstComma))
+            incorrectField = "id";
+        else if (!decodeDateTime(line, firstComma + 1, secondComma))
+            incorrectField = "date and time";
+        else if (!decodeType(line, secondComma + 1, thirdComma))
+            incorrectField = "type";
+        else if (!decodeSum(line, thirdComma + 1, sumEnd))
+            incorrectField = "sum";
+        else
+            incorrectField = null;
+
+        return incorrectField == null;
+    }
+
+    boolean decodeMatching(byte[] line, int start, int end, TransactionLineFilter lineFilter) {
+        incorrectField = null;
+        recordKind = TransactionRecordKind.TRANSACTION;
+        firstComma = indexOfComma(line, start, end);
+        secondComma = indexOfComma(line, firstComma + 1, end);
+        if (isTombstone(line, end)) {
+            incorrectField = decodeTombstone(line, start);
+            return false;
+        }
+        if (secondComma < end && lineFilter.rejectsDateTimePrefix(line, firstComma + 1, secondComma))
+            return false;
+
+        if (!locateFieldsAfterDateTime(line, end))
+            incorrectField = "number of values";
+        else if (!decodeType(line, secondComma + 1, thirdComma))
+            incorrectField = "type";
+        else if (!lineFilter.acceptsType(type))
+            return false;
+        else if (!decodeSum(line, thirdComma + 1, sumEnd))
+            incorrectField = "sum";
+        else if (!lineFilter.acceptsSum(this))
+            return false;
+        else if (!decodeDateTime(line, firstComma + 1, secondComma))
+            incorrectField = "date and time";
+        else if (!lineFilter.acceptsDateTime(this))
+            return false;
+        else if (!decodeId(line, start, firstComma))
+            incorrectField = "id";
+
+        return incorrectField == null;
+    }
+
+    private boolean locateFields(byte[] line, int start, int end) {
+        firstComma = indexOfComma(line, start, end);
+        secondComma = indexOfComma(line, firstComma + 1, end);
+        return locateFieldsAfterDateTime(line, end);
+    }
+
+    private boolean locateFieldsAfterDateTime(byte[] line, int end) {
+        thirdComma = indexOfComma(line, secondComma + 1, end);
+        sumEnd = indexOfComma(line, thirdComma + 1, end);
+        int fieldsEnd = sumEnd;
+        if (sumEnd < end) {
+            int markEnd = indexOfComma(line, sumEnd + 1, end);
+            if (Arrays.equals(line, sumEnd + 1, markEnd, REPLACEMENT_MARK, 0, REPLACEMENT_MARK.length)) {
+                recordKind = TransactionRecordKind.REPLACEMENT;
+                fieldsEnd = markEnd;
+            }
+        }
+
+        boolean hasFourFields = thirdComma < end;
+        for (int position = fieldsEnd; position < end && hasFourFields; position++)
+            hasFourFields = line[position] == ',';
+        return hasFourFields;
+    }
+
+    private boolean isTombstone(byte[] line, int end) {
+        return secondComma == end && firstComma < end
+                && Arrays.equals(line, firstComma + 1, end, TOMBSTONE_MARK, 0, TOMBSTONE_MARK.length);
+    }
+
+    private String decodeTombstone(byte[] line, int start) {
+        recordKind = TransactionRecordKind.TOMBSTONE;
+        return decodeId(line, start, firstComma) ? null : "id";
+    }
+
+    private static int indexOfComma(byte[] line, int start, int end) {
+        int position = start;
+        while (position < end && line[position] != ',')
+            position++;
+        return position;
+    }
+
+    private boolean decodeId(byte[] line, int start, int end) {
+        if (start >= end)
+            return false;
+
+        boolean isNegative = line[start] == '-';
+        int position = line[start] == '-' || line[start] == '+' ? start + 1 : start;
+        if (position == end)
+            return false;
+
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = line[position] - '0';
+            if (digit < 0 || digit > 9)
+                return false;
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1)
+                return false;
+        }
+
+        value = isNegative ? -value : value;
+        if (value > Integer.MAX_VALUE)
+            return false;
+        id = (int) value;
+        return true;
+    }
+
+    private boolean decodeDateTime(byte[] line, int start, int end) {
+        int length = end - start;
+        boolean hasFastLayout = length >= 16
+                && line[start + 4] == '-' && line[start + 7] == '-' && line[start + 10] == 'T' && line[start + 13] == ':'
+                && (length == 16 || (length >= 19 && line[start + 16] == ':'
+                        && (length == 19 || (length <= 29 && line[start + 19] == '.' && length > 20))));
+        if (!hasFastLayout)
+            return decodeDateTimeSlowPath(line, start, end);
+
+        year = parseDigits(line, start, 4);
+        month = parseDigits(line, start + 5, 2);
+        day = parseDigits(line, start + 8, 2);
+        hour = parseDigits(line, start + 11, 2);
+        minute = parseDigits(line, start + 14, 2);
+        second = length >= 19 ? parseDigits(line, start + 17, 2) : 0;
+        nano = 0;
+        if (length > 20) {
+            int fractionDigits = length - 20;
+            nano = parseDigits(line, start + 20, fractionDigits);
+            for (int digit = fractionDigits; digit < 9 && nano >= 0; digit++)
+                nano *= 10;
+        }
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || nano < 0)
+            return false;
+
+        epochSecond = daysFromEpoch(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+        return true;
+    }
+
+    private boolean decodeDateTimeSlowPath(byte[] line, int start, int end) {
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(new String(line, start, end - start, StandardCharsets.UTF_8));
+            year = dateTime.getYear();
+            month = dateTime.getMonthValue();
+            day = dateTime.getDayOfMonth();
+            hour = dateTime.getHour();
+            minute = dateTime.getMinute();
+            second = dateTime.getSecond();
+            nano = dateTime.getNano();
+            epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+
+    private static int parseDigits(byte[] line, int start, int count) {
+        int value = 0;
+        for (int position = start; position < start + count; position++) {
+            int digit = line[position] - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static long daysFromEpoch(int year, int month, int day) {
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private boolean decodeType(byte[] line, int start, int end) {
+        if (Arrays.equals(line, start, end, INCOME_NAME, 0, INCOME_NAME.length))
+            type = TransactionType.INCOME;
+        else if (Arrays.equals(line, start, end, EXPENSE_NAME, 0, EXPENSE_NAME.length))
+            type = TransactionType.EXPENSE;
+        else
+            return false;
+        return true;
+    }
+
+    private boolean decodeSum(byte[] line, int start, int end) {
+        slowPathSum = null;
+
+        int position = start;
+        boolean isNegative = false;
+        if (position < end && (line[position] == '-' || line[position] == '+')) {
+            isNegative = line[position] == '-';
+            position++;
+        }
+
+        long value = 0;
+        int digitsCount = 0;
+        int fractionDigits = -1;
+        for (; position < end; position++) {
+            byte symbol = line[position];
+            if (symbol == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = symbol - '0';
+            if (digit < 0 || digit > 9 || digitsCount == MAX_FAST_SUM_DIGITS)
+                return decodeSumSlowPath(line, start, end);
+            value = value * 10 + digit;
+            digitsCount++;
+            if (fractionDigits >= 0)
+                fractionDigits++;
+        }
+        if (digitsCount == 0)
+            return false;
+
+        unscaledSum = isNegative ? -value : value;
+        sumScale = Math.max(fractionDigits, 0);
+        return true;
+    }
+
+    private boolean decodeSumSlowPath(byte[] line, int start, int end) {
+        try {
+            slowPathSum = new BigDecimal(new String(line, start, end - start, StandardCharsets.UTF_8));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    int id() {
+        return id;
+    }
+
+    String incorrectField() {
+        return incorrectField;
+    }
+
+    TransactionRecordKind recordKind() {
+        return recordKind;
+    }
+
+    int transactionEnd() {
+        return sumEnd;
+    }
+
+    TransactionType type() {
+        return type;
+    }
+
+    long epochSecond() {
+        return epochSecond;
+    }
+
+    int nano() {
+        return nano;
+    }
+
+    boolean hasCompactSum() {
+        return slowPathSum == null;
+    }
+
+    long unscaledSum() {
+        return unscaledSum;
+    }
+
+    int sumScale() {
+        return sumScale;
+    }
+
+    boolean isDateTimeAfter(long boundEpochSecond, int boundNano) {
+        return epochSecond > boundEpochSecond || (epochSecond == boundEpochSecond && nano > boundNano);
+    }
+
+    boolean isDateTimeBefore(long boundEpochSecond, int boundNano) {
+        return epochSecond < boundEpochSecond || (epochSecond == boundEpochSecond && nano < boundNano);
+    }
+
+    int compareSumTo(long boundUnscaledSum, int boundScale) {
+        if (slowPathSum == null) {
+            if (sumScale == boundScale)
+                return Long.compare(unscaledSum, boundUnscaledSum);
+
+            int scaleDifference = Math.abs(sumScale - boundScale);
+            if (scaleDifference <= MAX_FAST_SUM_DIGITS) {
+                long multiplier = powerOfTen(scaleDifference);
+                long sumValue = sumScale < boundScale ? unscaledSum * multiplier : unscaledSum;
+                long boundValue = boundScale < sumScale ? boundUnscaledSum * multiplier : boundUnscaledSum;
+                if (sumScale < boundScale && Math.multiplyHigh(unscaledSum, multiplier) == sumValue >> 63
+                        || boundScale < sumScale && Math.multiplyHigh(boundUnscaledSum, multiplier) == boundValue >> 63)
+                    return Long.compare(sumValue, boundValue);
+            }
+        }
+        return sum().compareTo(BigDecimal.valueOf(boundUnscaledSum, boundScale));
+    }
+
+    LocalDateTime dateTime() {
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    BigDecimal sum() {
+        return slowPathSum != null ? slowPathSum : BigDecimal.valueOf(unscaledSum, sumScale);
+    }
+
+    Transaction toTransaction() {
+        return new Transaction(dateTime(), type, sum());
+    }
+
+    int encode(int id, Transaction transaction) {
+        encodedLength = 0;
+        appendLong(id);
+        appendByte((byte) ',');
+        appendDateTime(transaction.dateTime());
+        appendByte((byte) ',');
+        appendBytes(transaction.type() == TransactionType.INCOME ? INCOME_NAME : EXPENSE_NAME);
+        appendByte((byte) ',');
+        appendSum(transaction.sum());
+        appendBytes(LINE_SEPARATOR);
+        return encodedLength;
+    }
+
+    int encodeReplacement(int id, Transaction transaction) {
+        encodedLength = encode(id, transaction) - LINE_SEPARATOR.length;
+        appendByte((byte) ',');
+        appendBytes(REPLACEMENT_MARK);
+        appendBytes(LINE_SEPARATOR);
+        return encodedLength;
+    }
+
+    int encodeTombstone(int id) {
+        encodedLength = 0;
+        appendLong(id);
+        appendByte((byte) ',');
+        appendBytes(TOMBSTONE_MARK);
+        appendBytes(LINE_SEPARATOR);
+        return encodedLength;
+    }
+
+    byte[] encodedLine() {
+        return encodedLine;
+    }
+
+    private void appendDateTime(LocalDateTime dateTime) {
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            appendAscii(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+
+        appendDigits(dateTime.getYear(), 4);
+        appendByte((byte) '-');
+        appendDigits(dateTime.getMonthValue(), 2);
+        appendByte((byte) '-');
+        appendDigits(dateTime.getDayOfMonth(), 2);
+        appendByte((byte) 'T');
+        appendDigits(dateTime.getHour(), 2);
+        appendByte((byte) ':');
+        appendDigits(dateTime.getMinute(), 2);
+        appendByte((byte) ':');
+        appendDigits(dateTime.getSecond(), 2);
+
+        int fraction = dateTime.getNano();
+        if (fraction > 0) {
+            int fractionDigits = 9;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                fractionDigits--;
+            }
+            appendByte((byte) '.');
+            appendDigits(fraction, fractionDigits);
+        }
+    }
+
+    private void appendSum(BigDecimal sum) {
+        int scale = sum.scale();
+        boolean hasPlainNotation = scale >= 0 && sum.precision() - scale - 1 >= -6;
+        if (!hasPlainNotation || sum.unscaledValue().bitLength() >= 63) {
+            appendAscii(sum.toString());
+            return;
+        }
+
+        long unscaledValue = sum.unscaledValue().longValue();
+        if (unscaledValue < 0) {
+            appendByte((byte) '-');
+            unscaledValue = -unscaledValue;
+        }
+
+        int digitsCount = digitsCount(unscaledValue);
+        if (scale == 0) {
+            appendDigits(unscaledValue, digitsCount);
+        } else if (digitsCount > scale) {
+            long divisor = powerOfTen(scale);
+            appendDigits(unscaledValue / divisor, digitsCount - scale);
+            appendByte((byte) '.');
+            appendDigits(unscaledValue % divisor, scale);
+        } else {
+            appendByte((byte) '0');
+            appendByte((byte) '.');
+            appendDigits(unscaledValue, scale);
+        }
+    }
+
+    private void appendLong(long value) {
+        if (value < 0) {
+            appendByte((byte) '-');
+            value = -value;
+        }
+        appendDigits(value, digitsCount(value));
+    }
+
+    private void appendDigits(long value, int width) {
+        ensureEncodedCapacity(width);
+        for (int position = encodedLength + width - 1; position >= encodedLength; position--) {
+            encodedLine[position] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        encodedLength += width;
+    }
+
+    private void appendByte(byte value) {
+        ensureEncodedCapacity(1);
+        encodedLine[encodedLength++] = value;
+    }
+
+    private void appendBytes(byte[] values) {
+        ensureEncodedCapacity(values.length);
+        System.arraycopy(values, 0, encodedLine, encodedLength, values.length);
+        encodedLength += values.length;
+    }
+
+    private void appendAscii(String value) {
+        appendBytes(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void ensureEncodedCapacity(int additionalLength) {
+        if (encodedLength + additionalLength > encodedLine.length)
+            encodedLine = Arrays.copyOf(encodedLine, Math.max(encodedLine.length * 2, encodedLength + additionalLength));
+    }
+
+    private static int digitsCount(long value) {
+        int digitsCount = 1;
+        while (value >= 10) {
+            value /= 10;
+            digitsCount++;
+        }
+        return digitsCount;
+    }
+
+    private static long powerOfTen(int exponent) {
+        long power = 1;
+        for (int i = 0; i < exponent; i++)
+            power *= 10;
+        return power;
+    }
+}
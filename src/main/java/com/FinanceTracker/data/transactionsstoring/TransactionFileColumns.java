@@ -0,0 +1,240 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class TransactionFileColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int BYTES_PER_CACHED_LINE = 3 * Long.BYTES + 3 * Integer.BYTES + 2;
+    private static final int MAX_HEAP_FRACTION_FOR_CACHE = 8;
+    private static final byte SLOW_PATH_SUM_SCALE = -1;
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    private final Path filePath;
+    private final int maxCachedLines;
+    private long validationGeneration = -1;
+    private long cachedLength = 0;
+    private int linesCount = 0;
+    private long[] lineOffsets = new long[0];
+    private int[] ids = new int[0];
+    private long[] epochSeconds = new long[0];
+    private int[] nanos = new int[0];
+    private byte[] typeCodes = new byte[0];
+    private long[] unscaledSums = new long[0];
+    private byte[] sumScales = new byte[0];
+    private int[] rowsByDateTime = new int[0];
+    private Map<Integer, BigDecimal> slowPathSums = new ConcurrentHashMap<>();
+
+    TransactionFileColumns(Path filePath) {
+        this(filePath, defaultMaxCachedLines());
+    }
+
+    TransactionFileColumns(Path filePath, int maxCachedLines) {
+        this.filePath = filePath;
+        this.maxCachedLines = maxCachedLines;
+    }
+
+    static int defaultMaxCachedLines() {
+        long cacheBytes = Runtime.getRuntime().maxMemory() / MAX_HEAP_FRACTION_FOR_CACHE;
+        return (int) Math.min(Integer.MAX_VALUE - 8, cacheBytes / BYTES_PER_CACHED_LINE);
+    }
+
+    synchronized Snapshot cacheValidatedLines(long currentValidationGeneration, long validatedLength) throws IOException {
+        if (validationGeneration != currentValidationGeneration)
+            reset(currentValidationGeneration);
+        if (cachedLength < validatedLength && linesCount < maxCachedLines)
+            cacheLinesBefore(validatedLength);
+
+        return new Snapshot(cachedLength, linesCount, lineOffsets, ids, epochSeconds, nanos, typeCodes, unscaledSums,
+                sumScales, slowPathSums, rowsByDateTime);
+    }
+
+    synchronized void release() {
+        reset(-1);
+    }
+
+    private void reset(long currentValidationGeneration) {
+        validationGeneration = currentValidationGeneration;
+        cachedLength = 0;
+        linesCount = 0;
+        lineOffsets = new long[0];
+        ids = new int[0];
+        epochSeconds = new long[0];
+        nanos = new int[0];
+        typeCodes = new byte[0];
+        unscaledSums = new long[0];
+        sumScales = new byte[0];
+        rowsByDateTime = new int[0];
+        slowPathSums = new ConcurrentHashMap<>();
+    }
+
+    private void cacheLinesBefore(long validatedLength) throws IOException {
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        long parsedLinesCount = 0;
+        long readBytesCount;
+        int previousLinesCount = linesCount;
+
+        try (TransactionFileLineReader lineReader = new TransactionFileLineReader(filePath, cachedLength)) {
+            while (linesCount < maxCachedLines && lineReader.nextLine() && lineReader.lineOffset() < validatedLength) {
+                parsedLinesCount++;
+                if (!csvCodec.decodeRecord(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd()))
+                    throw new IllegalStateException("The validated part of the file contains an incorrect line: "
+                            + filePath);
+
+                if (csvCodec.recordKind() != TransactionRecordKind.TOMBSTONE)
+                    addLine(lineReader.lineOffset(), csvCodec);
+                cachedLength = lineReader.nextLineOffset();
+            }
+            readBytesCount = lineReader.bytesReadCount();
+        }
+        indexRowsByDateTime(previousLinesCount);
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount);
+        Metrics.add(MetricCounter.BYTES_READ, readBytesCount);
+    }
+
+    private void addLine(long lineOffset, TransactionCsvCodec csvCodec) {
+        if (linesCount == ids.length)
+            grow();
+
+        lineOffsets[linesCount] = lineOffset;
+        ids[linesCount] = csvCodec.id();
+        epochSeconds[linesCount] = csvCodec.epochSecond();
+        nanos[linesCount] = csvCodec.nano();
+        typeCodes[linesCount] = (byte) csvCodec.type().ordinal();
+        if (csvCodec.hasCompactSum()) {
+            unscaledSums[linesCount] = csvCodec.unscaledSum();
+            sumScales[linesCount] = (byte) csvCodec.sumScale();
+        } else {
+            sumScales[linesCount] = SLOW_PATH_SUM_SCALE;
+            slowPathSums.put(linesCount, csvCodec.sum());
+        }
+        linesCount++;
+    }
+
+    private void indexRowsByDateTime(int firstNewRow) {
+        if (firstNewRow == linesCount)
+            return;
+
+        int[] newRows = IntStream.range(firstNewRow, linesCount).toArray();
+        sortRowsByDateTime(newRows, 0, newRows.length, new int[newRows.length]);
+
+        int[] mergedRows = new int[linesCount];
+        mergeRowsByDateTime(rowsByDateTime, 0, rowsByDateTime.length, newRows, 0, newRows.length, mergedRows, 0);
+        rowsByDateTime = mergedRows;
+    }
+
+    private void sortRowsByDateTime(int[] rows, int from, int to, int[] buffer) {
+        if (to - from < 2)
+            return;
+
+        int middle = (from + to) >>> 1;
+        sortRowsByDateTime(rows, from, middle, buffer);
+        sortRowsByDateTime(rows, middle, to, buffer);
+        if (compareRows(rows[middle - 1], rows[middle]) <= 0)
+            return;
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        mergeRowsByDateTime(buffer, from, middle, buffer, middle, to, rows, from);
+    }
+
+    private void mergeRowsByDateTime(int[] leftRows, int leftFrom, int leftTo, int[] rightRows, int rightFrom, int rightTo,
+                                     int[] mergedRows, int mergedFrom)
+    {
+        int merged = mergedFrom;
+        while (leftFrom < leftTo && rightFrom < rightTo) {
+            if (compareRows(leftRows[leftFrom], rightRows[rightFrom]) <= 0)
+                mergedRows[merged++] = leftRows[leftFrom++];
+            else
+                mergedRows[merged++] = rightRows[rightFrom++];
+        }
+        System.arraycopy(leftRows, leftFrom, mergedRows, merged, leftTo - leftFrom);
+        System.arraycopy(rightRows, rightFrom, mergedRows, merged + leftTo - leftFrom, rightTo - rightFrom);
+    }
+
+    private int compareRows(int firstRow, int secondRow) {
+        int comparison = Long.compare(epochSeconds[firstRow], epochSeconds[secondRow]);
+        if (comparison == 0)
+            comparison = Integer.compare(nanos[firstRow], nanos[secondRow]);
+        return comparison != 0 ? comparison : Integer.compare(firstRow, secondRow);
+    }
+
+    private void grow() {
+        int newCapacity = Math.min(maxCachedLines, Math.max(INITIAL_CAPACITY, ids.length * 2));
+        lineOffsets = Arrays.copyOf(lineOffsets, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        epochSeconds = Arrays.copyOf(epochSeconds, newCapacity);
+        nanos = Arrays.copyOf(nanos, newCapacity);
+        typeCodes = Arrays.copyOf(typeCodes, newCapacity);
+        unscaledSums = Arrays.copyOf(unscaledSums, newCapacity);
+        sumScales = Arrays.copyOf(sumScales, newCapacity);
+    }
+
+    interface LatestLineCheck {
+        boolean isLatest(int id, long lineOffset);
+    }
+
+    record Snapshot(long cachedLength, int linesCount, long[] lineOffsets, int[] ids, long[] epochSeconds, int[] nanos,
+                    byte[] typeCodes, long[] unscaledSums, byte[] sumScales, Map<Integer, BigDecimal> slowPathSums,
+                    int[] rowsByDateTime)
+    {
+        static final Snapshot EMPTY = new Snapshot(0, 0, new long[0], new int[0], new long[0], new int[0], new byte[0],
+                new long[0], new byte[0], Map.of(), new int[0]);
+
+        Stream<StoredTransaction> streamMatching(TransactionLineFilter lineFilter, LatestLineCheck latestLineCheck) {
+            int firstIndex = firstIndexAfter(lineFilter.startEpochSecond(), lineFilter.startNano(), false);
+            int lastIndex = firstIndexAfter(lineFilter.endEpochSecond(), lineFilter.endNano(), true);
+            if (firstIndex >= lastIndex)
+                return Stream.empty();
+
+            int[] linesInFileOrder = Arrays.copyOfRange(rowsByDateTime, firstIndex, lastIndex);
+            Arrays.sort(linesInFileOrder);
+
+            return Arrays.stream(linesInFileOrder)
+                    .filter(line -> lineFilter.acceptsType(TRANSACTION_TYPES[typeCodes[line]])
+                            && latestLineCheck.isLatest(ids[line], lineOffsets[line]))
+                    .mapToObj(line -> new StoredTransaction(ids[line], new Transaction(
+                            LocalDateTime.ofEpochSecond(epochSeconds[line], nanos[line], ZoneOffset.UTC),
+                            TRANSACTION_TYPES[typeCodes[line]], sumAt(line))))
+                    .filter(storedTransaction -> lineFilter.acceptsSum(storedTransaction.transaction().sum()));
+        }
+
+        private int firstIndexAfter(long epochSecond, int nano, boolean isDateTimeIncluded) {
+            int low = 0;
+            int high = linesCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int line = rowsByDateTime[middle];
+                int comparison = Long.compare(epochSeconds[line], epochSecond);
+                if (comparison == 0)
+                    comparison = Integer.compare(nanos[line], nano);
+
+                if (comparison < 0 || comparison == 0 && !isDateTimeIncluded)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            return low;
+        }
+
+        private BigDecimal sumAt(int line) {
+            return sumScales[line] == SLOW_PATH_SUM_SCALE ? slowPathSums.get(line)
+                    : BigDecimal.valueOf(unscaledSums[line], sumScales[line]);
+        }
+    }
+}
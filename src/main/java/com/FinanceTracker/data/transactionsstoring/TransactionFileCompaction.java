@@ -0,0 +1,189 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.metrics.MetricCounter;
+import com.FinanceTracker.metrics.Metrics;
+import com.FinanceTracker.metrics.OperationTimer;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntPredicate;
+
+class TransactionFileCompaction {
+    private static final int MIN_DEAD_RECORDS = 256;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Path filePath;
+    private final Path compactedFilePath;
+    private final long validationGeneration;
+    private final long sourceLength;
+    private final CompletableFuture<TransactionFileIndex> completion = new CompletableFuture<>();
+    private volatile boolean isDiscarded = false;
+    private long compactedLength;
+    private int removedRecordsCount;
+
+    private TransactionFileCompaction(Path filePath, long validationGeneration, long sourceLength) {
+        this.filePath = filePath;
+        this.compactedFilePath = compactedFilePathFor(filePath);
+        this.validationGeneration = validationGeneration;
+        this.sourceLength = sourceLength;
+    }
+
+    static Path compactedFilePathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".compacting");
+    }
+
+    static void recover(Path filePath) throws IOException {
+        Files.deleteIfExists(compactedFilePathFor(filePath));
+    }
+
+    static boolean isNeeded(TransactionFileIndex fileIndex) {
+        synchronized (fileIndex) {
+            return fileIndex.deadRecordsCount() >= MIN_DEAD_RECORDS
+                    && (long) fileIndex.deadRecordsCount() * 4 >= fileIndex.size();
+        }
+    }
+
+    @SuppressWarnings("try")
+    static TransactionFileCompaction start(Path filePath, FileTransactionStorageValidator fileValidator,
+                                           IntPredicate archivedIds)
+    {
+        TransactionFileCompaction compaction = new TransactionFileCompaction(filePath,
+                fileValidator.getValidationGeneration(), fileValidator.getValidatedLength());
+        TransactionFileIndex fileIndex = fileValidator.getFileIndex();
+
+        CompletableFuture.runAsync(() -> {
+            try (OperationTimer timer = Metrics.startTimer("file.compaction")) {
+                compaction.completion.complete(compaction.compact(fileIndex, archivedIds));
+            } catch (IOException e) {
+                compaction.fail(new UncheckedIOException("Unexpected IO exception during compacting the file.", e));
+            } catch (RuntimeException e) {
+                compaction.fail(e);
+            }
+        });
+
+        return compaction;
+    }
+
+    private TransactionFileIndex compact(TransactionFileIndex fileIndex, IntPredicate archivedIds) throws IOException {
+        TransactionFileIndex compactedIndex = new TransactionFileIndex();
+        TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+        long parsedLinesCount = 0;
+        long readBytesCount;
+
+        try (TransactionFileLineReader lineReader = new TransactionFileLineReader(filePath, 0);
+             FileOutputStream compactedFileOutputStream = new FileOutputStream(compactedFilePath.toFile());
+             BufferedOutputStream compactedFileWriter = new BufferedOutputStream(compactedFileOutputStream,
+                     WRITE_BUFFER_SIZE))
+        {
+            while (lineReader.nextLine() && lineReader.lineOffset() < sourceLength) {
+                if (isDiscarded)
+                    throw new CancellationException("The compaction of the file was discarded.");
+
+                parsedLinesCount++;
+                if (!csvCodec.decodeRecord(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd()))
+                    throw new IllegalStateException("The validated part of the file contains an incorrect line: "
+                            + filePath);
+
+                int id = csvCodec.id();
+                TransactionRecordKind recordKind = csvCodec.recordKind();
+                boolean isLatest;
+                int maxFileId;
+                synchronized (fileIndex) {
+                    maxFileId = fileIndex.maxId();
+                    isLatest = fileIndex.isLatestBefore(id, lineReader.lineOffset(), sourceLength)
+                            || id == maxFileId && recordKind == TransactionRecordKind.TRANSACTION
+                            && fileIndex.isDeleted(id);
+                }
+                if (!isLatest || recordKind == TransactionRecordKind.TOMBSTONE && !archivedIds.test(id) && id != maxFileId) {
+                    removedRecordsCount++;
+                    continue;
+                }
+
+                int lineLength = lineReader.lineEnd() - lineReader.lineStart();
+                if (recordKind == TransactionRecordKind.REPLACEMENT && !archivedIds.test(id)) {
+                    lineLength = csvCodec.transactionEnd() - lineReader.lineStart();
+                    recordKind = TransactionRecordKind.TRANSACTION;
+                }
+
+                compactedIndex.put(id, compactedLength, lineLength, recordKind);
+                compactedFileWriter.write(lineReader.buffer(), lineReader.lineStart(), lineLength);
+                compactedFileWriter.write('\n');
+                compactedLength += lineLength + 1;
+            }
+            readBytesCount = lineReader.bytesReadCount();
+
+            compactedFileWriter.flush();
+            compactedFileOutputStream.getChannel().force(true);
+        }
+
+        Metrics.add(MetricCounter.FILE_SCANS, 1);
+        Metrics.add(MetricCounter.LINES_PARSED, parsedLinesCount);
+        Metrics.add(MetricCounter.BYTES_READ, readBytesCount);
+        Metrics.add(MetricCounter.BYTES_WRITTEN, compactedLength);
+        return compactedIndex;
+    }
+
+    private void fail(RuntimeException e) {
+        completion.completeExceptionally(e);
+        deleteCompactedFile();
+    }
+
+    private void deleteCompactedFile() {
+        try {
+            Files.deleteIfExists(compactedFilePath);
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new UncheckedIOException("Unexpected IO exception during deleting the compacted file.", e);
+        }
+    }
+
+    boolean isDone() {
+        return completion.isDone();
+    }
+
+    boolean isFailed() {
+        return completion.isCompletedExceptionally();
+    }
+
+    TransactionFileIndex await() {
+        try {
+            return completion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw e;
+        }
+    }
+
+    long getValidationGeneration() {
+        return validationGeneration;
+    }
+
+    long getSourceLength() {
+        return sourceLength;
+    }
+
+    long getCompactedLength() {
+        return compactedLength;
+    }
+
+    int getRemovedRecordsCount() {
+        return removedRecordsCount;
+    }
+
+    Path getCompactedFilePath() {
+        return compactedFilePath;
+    }
+
+    void discard() {
+        isDiscarded = true;
+        completion.whenComplete((compactedIndex, e) -> deleteCompactedFile());
+    }
+}
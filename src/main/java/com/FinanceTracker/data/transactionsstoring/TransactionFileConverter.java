@@ -0,0 +1,127 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.TransactionsFileCreationException;
+import com.FinanceTracker.exceptions.TransactionsFileFormatException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TransactionFileConverter {
+    private static final int RECORDS_PER_WRITE = 4096;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private TransactionFileConverter() {}
+
+    public static void convertCsvToBinary(Path csvFilePath, Path binaryFilePath)
+            throws TransactionsFileFormatException, TransactionsFileCreationException
+    {
+        ensureSourceFileExists(csvFilePath);
+        ensureBinaryFileName(binaryFilePath);
+
+        try (FileTransactionStorage csvStorage = new FileTransactionStorage(csvFilePath);
+             FileChannel binaryChannel = FileChannel.open(binaryFilePath, StandardOpenOption.CREATE_NEW,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            BinaryTransactionStorage.writeHeader(binaryChannel, 0, 0);
+
+            ByteBuffer recordsBuffer = ByteBuffer.allocate(BinaryTransactionStorage.RECORD_SIZE * RECORDS_PER_WRITE);
+            long[] recordIndex = new long[1];
+            int[] maxId = {-1};
+            csvStorage.readTransactionsAfter(null, storedTransaction -> {
+                try {
+                    if (!recordsBuffer.hasRemaining())
+                        recordIndex[0] += BinaryTransactionStorage.writeRecords(binaryChannel, recordsBuffer,
+                                recordIndex[0]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                try {
+                    BinaryTransactionStorage.putRecord(recordsBuffer, storedTransaction.id(),
+                            storedTransaction.transaction());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("The transaction " + storedTransaction.id()
+                            + " can't be stored in the binary format. Details: " + e.getMessage());
+                }
+                maxId[0] = Math.max(maxId[0], storedTransaction.id());
+            });
+            recordIndex[0] += BinaryTransactionStorage.writeRecords(binaryChannel, recordsBuffer, recordIndex[0]);
+
+            BinaryTransactionStorage.writeHeader(binaryChannel, recordIndex[0], maxId[0] + 1);
+            binaryChannel.force(false);
+        } catch (FileAlreadyExistsException e) {
+            throw new TransactionsFileCreationException("The file already exists: " + binaryFilePath);
+        } catch (IllegalArgumentException e) {
+            deleteIncompleteFile(binaryFilePath);
+            throw new TransactionsFileFormatException(e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            deleteIncompleteFile(binaryFilePath);
+            throw new TransactionsFileCreationException("Unknown I/O exception occurred during file conversion: "
+                    + binaryFilePath);
+        }
+    }
+
+    public static void convertBinaryToCsv(Path binaryFilePath, Path csvFilePath)
+            throws TransactionsFileFormatException, TransactionsFileCreationException
+    {
+        ensureSourceFileExists(binaryFilePath);
+        ensureBinaryFileName(binaryFilePath);
+        if (!csvFilePath.toString().endsWith(".csv"))
+            throw new TransactionsFileFormatException("Incorrect file type! It should be CSV: " + csvFilePath);
+
+        try (FileChannel binaryChannel = FileChannel.open(binaryFilePath, StandardOpenOption.READ);
+             BufferedOutputStream csvWriter = new BufferedOutputStream(Files.newOutputStream(csvFilePath,
+                     StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), WRITE_BUFFER_SIZE))
+        {
+            TransactionCsvCodec csvCodec = new TransactionCsvCodec();
+            long recordCount = BinaryTransactionStorage.readHeader(binaryChannel).recordCount();
+
+            ByteBuffer recordsBuffer = ByteBuffer.allocate(BinaryTransactionStorage.RECORD_SIZE * RECORDS_PER_WRITE);
+            for (long recordIndex = 0; recordIndex < recordCount; recordIndex += RECORDS_PER_WRITE) {
+                int recordsCount = (int) Math.min(RECORDS_PER_WRITE, recordCount - recordIndex);
+                BinaryTransactionStorage.readRecords(binaryChannel, recordIndex, recordsCount, recordsBuffer);
+                for (int record = 0; record < recordsCount; record++) {
+                    Transaction transaction = BinaryTransactionStorage.getRecord(recordsBuffer, record);
+                    int lineLength = csvCodec.encode(BinaryTransactionStorage.getRecordId(recordsBuffer, record), transaction);
+                    csvWriter.write(csvCodec.encodedLine(), 0, lineLength);
+                }
+            }
+        } catch (FileAlreadyExistsException e) {
+            throw new TransactionsFileCreationException("The file already exists: " + csvFilePath);
+        } catch (TransactionsFileFormatException e) {
+            deleteIncompleteFile(csvFilePath);
+            throw e;
+        } catch (IOException e) {
+            deleteIncompleteFile(csvFilePath);
+            throw new TransactionsFileCreationException("Unknown I/O exception occurred during file conversion: "
+                    + csvFilePath);
+        }
+    }
+
+    private static void ensureSourceFileExists(Path sourceFilePath) throws TransactionsFileFormatException {
+        if (Files.notExists(sourceFilePath))
+            throw new TransactionsFileFormatException("The file to convert doesn't exist: " + sourceFilePath);
+    }
+
+    private static void deleteIncompleteFile(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            //it shouldn't happen
+            throw new UncheckedIOException("Unexpected IO exception during deleting the incomplete file.", e);
+        }
+    }
+
+    private static void ensureBinaryFileName(Path binaryFilePath) throws TransactionsFileFormatException {
+        if (!binaryFilePath.toString().endsWith(BinaryTransactionStorage.FILE_EXTENSION))
+            throw new TransactionsFileFormatException("Incorrect file type! It should be "
+                    + BinaryTransactionStorage.FILE_EXTENSION + ": " + binaryFilePath);
+    }
+}
@@ -0,0 +1,233 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+class TransactionFileIndex {
+    private static final int SIDECAR_MAGIC = 0x46544958;
+    private static final int SIDECAR_VERSION = 2;
+    private static final int SIDECAR_HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final int SIDECAR_ENTRY_SIZE = 4 + 8 + 4 + 1;
+    private static final TransactionRecordKind[] RECORD_KINDS = TransactionRecordKind.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] entryIds = new int[INITIAL_CAPACITY];
+    private long[] entryOffsets = new long[INITIAL_CAPACITY];
+    private int[] entryLengths = new int[INITIAL_CAPACITY];
+    private byte[] entryKinds = new byte[INITIAL_CAPACITY];
+    private int entryCount = 0;
+    private int maxId = -1;
+    private int modificationsCount = 0;
+    private int deadRecordsCount = 0;
+
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    boolean put(int id, long offset, int length) {
+        return put(id, offset, length, TransactionRecordKind.TRANSACTION);
+    }
+
+    boolean put(int id, long offset, int length, TransactionRecordKind kind) {
+        if ((entryCount + 1) * 2 > slots.length)
+            rehash(slots.length * 2);
+
+        int slot = findSlot(id);
+        int replacedEntry = slots[slot] - 1;
+        if (kind == TransactionRecordKind.TRANSACTION ? replacedEntry >= 0 : isDeletedEntry(replacedEntry))
+            return false;
+
+        if (entryCount == entryIds.length) {
+            entryIds = Arrays.copyOf(entryIds, entryCount * 2);
+            entryOffsets = Arrays.copyOf(entryOffsets, entryCount * 2);
+            entryLengths = Arrays.copyOf(entryLengths, entryCount * 2);
+            entryKinds = Arrays.copyOf(entryKinds, entryCount * 2);
+        }
+        entryIds[entryCount] = id;
+        entryOffsets[entryCount] = offset;
+        entryLengths[entryCount] = length;
+        entryKinds[entryCount] = (byte) kind.ordinal();
+        entryCount++;
+        slots[slot] = entryCount;
+        maxId = Math.max(maxId, id);
+
+        if (kind != TransactionRecordKind.TRANSACTION) {
+            modificationsCount++;
+            if (replacedEntry >= 0)
+                deadRecordsCount += kind == TransactionRecordKind.TOMBSTONE ? 2 : 1;
+        }
+
+        return true;
+    }
+
+    boolean contains(int id) {
+        return slots[findSlot(id)] != 0;
+    }
+
+    boolean isDeleted(int id) {
+        return isDeletedEntry(slots[findSlot(id)] - 1);
+    }
+
+    boolean isLatestBefore(int id, long offset, long endOffset) {
+        int entry = slots[findSlot(id)] - 1;
+        return entry < 0 || entryOffsets[entry] == offset || entryOffsets[entry] >= endOffset;
+    }
+
+    long getOffset(int id) {
+        int entry = slots[findSlot(id)] - 1;
+        return entry < 0 || isDeletedEntry(entry) ? -1 : entryOffsets[entry];
+    }
+
+    int getLength(int id) {
+        int entry = slots[findSlot(id)] - 1;
+        return entry < 0 || isDeletedEntry(entry) ? -1 : entryLengths[entry];
+    }
+
+    private boolean isDeletedEntry(int entry) {
+        return entry >= 0 && entryKinds[entry] == TransactionRecordKind.TOMBSTONE.ordinal();
+    }
+
+    int size() {
+        return entryCount;
+    }
+
+    int maxId() {
+        return maxId;
+    }
+
+    boolean hasModifications() {
+        return modificationsCount > 0;
+    }
+
+    int modificationsCount() {
+        return modificationsCount;
+    }
+
+    int deadRecordsCount() {
+        return deadRecordsCount;
+    }
+
+    void clear() {
+        entryCount = 0;
+        maxId = -1;
+        modificationsCount = 0;
+        deadRecordsCount = 0;
+        Arrays.fill(slots, 0);
+    }
+
+    private int findSlot(int id) {
+        int mask = slots.length - 1;
+        int slot = mix(id) & mask;
+        while (slots[slot] != 0 && entryIds[slots[slot] - 1] != id)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash(int newSlotsLength) {
+        slots = new int[newSlotsLength];
+        for (int entry = 0; entry < entryCount; entry++)
+            slots[findSlot(entryIds[entry])] = entry + 1;
+    }
+
+    private static int mix(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    static Path sidecarPathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".idx");
+    }
+
+    static TransactionFileIndex readSidecar(Path sidecarPath, SidecarFingerprint expectedFingerprint) throws IOException {
+        if (Files.notExists(sidecarPath))
+            return null;
+
+        try (FileChannel sidecarChannel = FileChannel.open(sidecarPath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SIDECAR_HEADER_SIZE);
+            readFully(sidecarChannel, header, 0);
+            header.flip();
+            if (header.remaining() < SIDECAR_HEADER_SIZE
+                    || header.getInt() != SIDECAR_MAGIC || header.getInt() != SIDECAR_VERSION)
+                return null;
+
+            SidecarFingerprint fingerprint = new SidecarFingerprint(header.getLong(), header.getLong());
+            int storedEntryCount = header.getInt();
+            if (!fingerprint.equals(expectedFingerprint)
+                    || sidecarChannel.size() != SIDECAR_HEADER_SIZE + (long) storedEntryCount * SIDECAR_ENTRY_SIZE)
+                return null;
+
+            TransactionFileIndex fileIndex = new TransactionFileIndex();
+            ByteBuffer entries = ByteBuffer.allocate(SIDECAR_ENTRY_SIZE * 4096);
+            long position = SIDECAR_HEADER_SIZE;
+            while (fileIndex.size() < storedEntryCount) {
+                entries.clear();
+                readFully(sidecarChannel, entries, position);
+                entries.flip();
+                position += entries.remaining();
+                while (entries.remaining() >= SIDECAR_ENTRY_SIZE) {
+                    int id = entries.getInt();
+                    long offset = entries.getLong();
+                    int length = entries.getInt();
+                    int kind = entries.get();
+                    if (kind < 0 || kind >= RECORD_KINDS.length || !fileIndex.put(id, offset, length, RECORD_KINDS[kind]))
+                        return null;
+                }
+            }
+
+            return fileIndex;
+        }
+    }
+
+    void writeSidecar(Path sidecarPath, SidecarFingerprint fingerprint, int firstEntryToWrite) throws IOException {
+        boolean isRewrite = firstEntryToWrite == 0 || Files.notExists(sidecarPath);
+        if (isRewrite)
+            firstEntryToWrite = 0;
+
+        try (FileChannel sidecarChannel = FileChannel.open(sidecarPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            if (isRewrite)
+                sidecarChannel.truncate(0);
+
+            ByteBuffer entries = ByteBuffer.allocate(SIDECAR_ENTRY_SIZE * 4096);
+            long position = SIDECAR_HEADER_SIZE + (long) firstEntryToWrite * SIDECAR_ENTRY_SIZE;
+            for (int entry = firstEntryToWrite; entry < entryCount; entry++) {
+                if (entries.remaining() < SIDECAR_ENTRY_SIZE)
+                    position += flushEntries(sidecarChannel, entries, position);
+                entries.putInt(entryIds[entry]).putLong(entryOffsets[entry]).putInt(entryLengths[entry])
+                        .put(entryKinds[entry]);
+            }
+            flushEntries(sidecarChannel, entries, position);
+
+            ByteBuffer header = ByteBuffer.allocate(SIDECAR_HEADER_SIZE);
+            header.putInt(SIDECAR_MAGIC).putInt(SIDECAR_VERSION)
+                    .putLong(fingerprint.fileSize()).putLong(fingerprint.lastModified()).putInt(entryCount);
+            header.flip();
+            while (header.hasRemaining())
+                sidecarChannel.write(header, header.position());
+        }
+    }
+
+    private static int flushEntries(FileChannel sidecarChannel, ByteBuffer entries, long position) throws IOException {
+        entries.flip();
+        int bytesToWrite = entries.remaining();
+        while (entries.hasRemaining())
+            sidecarChannel.write(entries, position + entries.position());
+        entries.clear();
+        return bytesToWrite;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position + buffer.position());
+            if (bytesRead < 0)
+                break;
+        }
+    }
+
+    record SidecarFingerprint(long fileSize, long lastModified) {
+    }
+}
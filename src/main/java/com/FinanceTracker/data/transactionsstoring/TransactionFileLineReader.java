@@ -0,0 +1,119 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+class TransactionFileLineReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel fileChannel;
+    private byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+    private int bufferStart = 0;
+    private int bufferEnd = 0;
+    private long bufferFileOffset;
+    private boolean endOfFile = false;
+    private long bytesReadCount = 0;
+
+    private int lineStart;
+    private int lineEnd;
+    private long lineOffset;
+    private boolean lineTerminated;
+
+    TransactionFileLineReader(Path filePath, long startOffset) throws IOException {
+        this.fileChannel = FileChannel.open(filePath, StandardOpenOption.READ);
+        this.fileChannel.position(startOffset);
+        this.bufferFileOffset = startOffset;
+    }
+
+    boolean nextLine() throws IOException {
+        while (true) {
+            for (int i = bufferStart; i < bufferEnd; i++) {
+                if (buffer[i] == '\n') {
+                    setLine(i, i + 1, true);
+                    return true;
+                }
+            }
+
+            if (endOfFile) {
+                if (bufferStart == bufferEnd)
+                    return false;
+                setLine(bufferEnd, bufferEnd, false);
+                return true;
+            }
+
+            fillBuffer();
+        }
+    }
+
+    private void setLine(int terminatorIndex, int nextLineStart, boolean terminated) {
+        lineStart = bufferStart;
+        lineEnd = terminatorIndex;
+        if (terminated && lineEnd > lineStart && buffer[lineEnd - 1] == '\r')
+            lineEnd--;
+        lineOffset = bufferFileOffset + bufferStart;
+        lineTerminated = terminated;
+        bufferStart = nextLineStart;
+    }
+
+    private void fillBuffer() throws IOException {
+        if (bufferStart > 0) {
+            System.arraycopy(buffer, bufferStart, buffer, 0, bufferEnd - bufferStart);
+            bufferFileOffset += bufferStart;
+            bufferEnd -= bufferStart;
+            bufferStart = 0;
+        }
+        if (bufferEnd == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+
+        int bytesRead = fileChannel.read(ByteBuffer.wrap(buffer, bufferEnd, buffer.length - bufferEnd));
+        if (bytesRead < 0)
+            endOfFile = true;
+        else {
+            bufferEnd += bytesRead;
+            bytesReadCount += bytesRead;
+        }
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int lineStart() {
+        return lineStart;
+    }
+
+    int lineEnd() {
+        return lineEnd;
+    }
+
+    long lineOffset() {
+        return lineOffset;
+    }
+
+    long nextLineOffset() {
+        return bufferFileOffset + bufferStart;
+    }
+
+    boolean isLineTerminated() {
+        return lineTerminated;
+    }
+
+    long bytesReadCount() {
+        return bytesReadCount;
+    }
+
+    String lineAsString() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+}
@@ -0,0 +1,209 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.NoTransactionsException;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public final class TransactionFileSynchronizer<P extends StorageReadPosition> implements TransactionStorageListener, Closeable {
+    private static final int SAVE_BATCH_SIZE = 1 << 16;
+
+    private final ObservableTransactionStorage runtimeStorage;
+    private final SynchronizableTransactionStorage<P> fileStorage;
+
+    private final TransactionContentMultiset runtimeContents = new TransactionContentMultiset();
+    private TransactionContentMultiset fileContents = new TransactionContentMultiset();
+    private Map<Integer, Transaction> unsavedTransactions = new LinkedHashMap<>();
+    private P scannedPosition;
+    private P loadedPosition;
+    private boolean isLoading = false;
+    private P pendingReadPosition;
+    private List<StoredTransaction> pendingReadTransactions = List.of();
+
+    public TransactionFileSynchronizer(ObservableTransactionStorage runtimeStorage,
+                                       SynchronizableTransactionStorage<P> fileStorage)
+    {
+        this.runtimeStorage = runtimeStorage;
+        this.fileStorage = fileStorage;
+
+        try (Stream<StoredTransaction> runtimeTransactions =
+                     runtimeStorage.streamTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX)) {
+            runtimeTransactions.forEach(storedTransaction -> transactionAdded(storedTransaction.id(),
+                    storedTransaction.transaction()));
+        }
+        runtimeStorage.addListener(this);
+    }
+
+    @Override
+    public synchronized void transactionAdded(int id, Transaction transaction) {
+        runtimeContents.add(TransactionContentMultiset.contentHash(transaction));
+        if (!isLoading)
+            unsavedTransactions.put(id, transaction);
+    }
+
+    @Override
+    public synchronized void transactionRemoved(int id, Transaction transaction) {
+        runtimeContents.remove(TransactionContentMultiset.contentHash(transaction));
+        unsavedTransactions.remove(id);
+    }
+
+    public int saveNewTransactions() throws NoTransactionsException {
+        return saveNewTransactions(List.of());
+    }
+
+    public synchronized int saveNewTransactions(Collection<? extends TransactionFileSynchronizer<?>> otherFileSynchronizers)
+            throws NoTransactionsException
+    {
+        if (runtimeContents.size() == 0)
+            throw new NoTransactionsException("There are no transactions.");
+
+        scanFile();
+        boolean isFileFullyLoaded = scannedPosition.equals(loadedPosition);
+
+        TransactionContentMultiset savedContents = new TransactionContentMultiset();
+        List<Transaction> savedTransactionsBatch = new ArrayList<>();
+        int savedTransactionsCount = 0;
+        for (Transaction transaction : unsavedTransactions.values()) {
+            long contentHash = TransactionContentMultiset.contentHash(transaction);
+            long storedCount = fileContents.count(contentHash) + savedContents.count(contentHash);
+            for (TransactionFileSynchronizer<?> otherFileSynchronizer : otherFileSynchronizers)
+                storedCount += otherFileSynchronizer.fileContents.count(contentHash);
+            if (storedCount >= runtimeContents.count(contentHash))
+                continue;
+
+            savedContents.add(contentHash);
+            savedTransactionsBatch.add(transaction);
+            if (savedTransactionsBatch.size() == SAVE_BATCH_SIZE) {
+                fileStorage.addTransactions(savedTransactionsBatch);
+                savedTransactionsCount += savedTransactionsBatch.size();
+                savedTransactionsBatch.clear();
+            }
+        }
+        fileStorage.addTransactions(savedTransactionsBatch);
+        savedTransactionsCount += savedTransactionsBatch.size();
+        unsavedTransactions = new LinkedHashMap<>();
+
+        long scannedTransactionsCount = scanFile();
+        if (isFileFullyLoaded && scannedTransactionsCount == savedTransactionsCount)
+            loadedPosition = scannedPosition;
+
+        return savedTransactionsCount;
+    }
+
+    public synchronized int loadNewTransactions() throws NoTransactionsException {
+        if (!readNewTransactions())
+            throw new NoTransactionsException("There are no transactions.");
+
+        return addReadTransactions();
+    }
+
+    public synchronized boolean readNewTransactions() {
+        TransactionContentMultiset readContents = new TransactionContentMultiset();
+        List<StoredTransaction> readTransactions = new ArrayList<>();
+
+        if (loadedPosition == null) {
+            TransactionContentMultiset scannedContents = new TransactionContentMultiset();
+            List<StoredTransaction> fileTransactions = new ArrayList<>();
+            P newScannedPosition = fileStorage.readTransactionsAfter(null, storedTransaction -> {
+                scannedContents.add(TransactionContentMultiset.contentHash(storedTransaction.transaction()));
+                fileTransactions.add(storedTransaction);
+            });
+            adoptScannedContents(newScannedPosition, scannedContents, false);
+
+            pendingReadPosition = newScannedPosition;
+            for (StoredTransaction storedTransaction : fileTransactions)
+                readIfMissing(storedTransaction, readContents, readTransactions);
+        } else {
+            scanFile();
+            pendingReadPosition = fileStorage.readTransactionsAfter(loadedPosition, storedTransaction ->
+                    readIfMissing(storedTransaction, readContents, readTransactions));
+        }
+        pendingReadTransactions = readTransactions;
+
+        return fileContents.size() > 0;
+    }
+
+    private void readIfMissing(StoredTransaction storedTransaction, TransactionContentMultiset readContents,
+                               List<StoredTransaction> readTransactions)
+    {
+        long contentHash = TransactionContentMultiset.contentHash(storedTransaction.transaction());
+        if (runtimeContents.count(contentHash) + readContents.count(contentHash) < fileContents.count(contentHash)) {
+            readContents.add(contentHash);
+            readTransactions.add(storedTransaction);
+        }
+    }
+
+    public synchronized int addReadTransactions() {
+        TransactionContentMultiset loadedContents = new TransactionContentMultiset();
+        Map<Integer, Transaction> loadedTransactions = new LinkedHashMap<>();
+        for (StoredTransaction storedTransaction : pendingReadTransactions) {
+            long contentHash = TransactionContentMultiset.contentHash(storedTransaction.transaction());
+            if (runtimeContents.count(contentHash) + loadedContents.count(contentHash) < fileContents.count(contentHash)) {
+                loadedContents.add(contentHash);
+                loadedTransactions.put(storedTransaction.id(), storedTransaction.transaction());
+            }
+        }
+        pendingReadTransactions = List.of();
+
+        isLoading = true;
+        try {
+            runtimeStorage.addTransactionsKeepingIds(loadedTransactions);
+        } finally {
+            isLoading = false;
+        }
+
+        if (pendingReadPosition.equals(scannedPosition))
+            loadedPosition = pendingReadPosition;
+
+        return loadedTransactions.size();
+    }
+
+    public synchronized long scanFile() {
+        TransactionContentMultiset scannedContents = new TransactionContentMultiset();
+        P newScannedPosition = fileStorage.readTransactionsAfter(scannedPosition, storedTransaction ->
+                scannedContents.add(TransactionContentMultiset.contentHash(storedTransaction.transaction())));
+
+        adoptScannedContents(newScannedPosition, scannedContents, true);
+        return scannedContents.size();
+    }
+
+    private void adoptScannedContents(P newScannedPosition, TransactionContentMultiset scannedContents,
+                                      boolean isScannedAfterPosition)
+    {
+        boolean isSameGeneration = scannedPosition != null
+                && scannedPosition.generation() == newScannedPosition.generation();
+
+        if (isScannedAfterPosition && isSameGeneration) {
+            fileContents.addAll(scannedContents);
+        } else {
+            if (scannedPosition != null && !isSameGeneration)
+                markAllRuntimeTransactionsUnsaved();
+            fileContents = scannedContents;
+            loadedPosition = null;
+        }
+
+        scannedPosition = newScannedPosition;
+    }
+
+    private void markAllRuntimeTransactionsUnsaved() {
+        unsavedTransactions = new LinkedHashMap<>();
+        try (Stream<StoredTransaction> runtimeTransactions =
+                     runtimeStorage.streamTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX)) {
+            runtimeTransactions.forEach(storedTransaction ->
+                    unsavedTransactions.put(storedTransaction.id(), storedTransaction.transaction()));
+        }
+    }
+
+    @Override
+    public void close() {
+        runtimeStorage.removeListener(this);
+    }
+}
@@ -0,0 +1,40 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionFileValidationReport {
+    private static final int MAX_DESCRIBED_LINES = 100;
+
+    private final List<IncorrectLine> incorrectLines = new ArrayList<>();
+
+    void addIncorrectLine(long lineNumber, String reason) {
+        incorrectLines.add(new IncorrectLine(lineNumber, reason));
+    }
+
+    public boolean hasIncorrectLines() {
+        return !incorrectLines.isEmpty();
+    }
+
+    public List<IncorrectLine> getIncorrectLines() {
+        return Collections.unmodifiableList(incorrectLines);
+    }
+
+    public String describe() {
+        StringBuilder description = new StringBuilder("Incorrect values in the file lines (")
+                .append(incorrectLines.size()).append(" incorrect):");
+
+        for (int i = 0; i < Math.min(incorrectLines.size(), MAX_DESCRIBED_LINES); i++) {
+            IncorrectLine incorrectLine = incorrectLines.get(i);
+            description.append("\nline ").append(incorrectLine.lineNumber()).append(": ").append(incorrectLine.reason());
+        }
+        if (incorrectLines.size() > MAX_DESCRIBED_LINES)
+            description.append("\n... and ").append(incorrectLines.size() - MAX_DESCRIBED_LINES).append(" more");
+
+        return description.toString();
+    }
+
+    public record IncorrectLine(long lineNumber, String reason) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.TransactionType;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+final class TransactionLineFilter {
+    private static final int DATE_TIME_PREFIX_LENGTH = 16;
+    private static final DateTimeFormatter DATE_TIME_PREFIX_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm");
+    private static final byte[] DATE_TIME_PREFIX_SHAPE = "0000-00-00T00:00:".getBytes(StandardCharsets.US_ASCII);
+
+    private final TransactionScanCriteria criteria;
+    private final long startEpochSecond;
+    private final int startNano;
+    private final long endEpochSecond;
+    private final int endNano;
+    private final byte[] startDateTimePrefix;
+    private final byte[] endDateTimePrefix;
+    private final boolean acceptsIncome;
+    private final boolean acceptsExpense;
+    private final SumBound minSum;
+    private final SumBound maxSum;
+
+    TransactionLineFilter(TransactionScanCriteria criteria) {
+        this.criteria = criteria;
+        startEpochSecond = criteria.startDateTime().toEpochSecond(ZoneOffset.UTC);
+        startNano = criteria.startDateTime().getNano();
+        endEpochSecond = criteria.endDateTime().toEpochSecond(ZoneOffset.UTC);
+        endNano = criteria.endDateTime().getNano();
+        startDateTimePrefix = dateTimePrefix(criteria.startDateTime());
+        endDateTimePrefix = dateTimePrefix(criteria.endDateTime());
+        acceptsIncome = criteria.types().contains(TransactionType.INCOME);
+        acceptsExpense = criteria.types().contains(TransactionType.EXPENSE);
+        minSum = criteria.minSum() != null ? new SumBound(criteria.minSum()) : null;
+        maxSum = criteria.maxSum() != null ? new SumBound(criteria.maxSum()) : null;
+    }
+
+    private static byte[] dateTimePrefix(LocalDateTime dateTime) {
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999)
+            return null;
+        return dateTime.format(DATE_TIME_PREFIX_FORMATTER).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    TransactionScanCriteria criteria() {
+        return criteria;
+    }
+
+    long startEpochSecond() {
+        return startEpochSecond;
+    }
+
+    int startNano() {
+        return startNano;
+    }
+
+    long endEpochSecond() {
+        return endEpochSecond;
+    }
+
+    int endNano() {
+        return endNano;
+    }
+
+    boolean rejectsDateTimePrefix(byte[] line, int start, int end) {
+        if (!hasDateTimePrefixShape(line, start, end))
+            return false;
+
+        return startDateTimePrefix != null && Arrays.compare(line, start, start + DATE_TIME_PREFIX_LENGTH,
+                        startDateTimePrefix, 0, DATE_TIME_PREFIX_LENGTH) < 0
+                || endDateTimePrefix != null && Arrays.compare(line, start, start + DATE_TIME_PREFIX_LENGTH,
+                        endDateTimePrefix, 0, DATE_TIME_PREFIX_LENGTH) > 0;
+    }
+
+    private static boolean hasDateTimePrefixShape(byte[] line, int start, int end) {
+        if (end - start < DATE_TIME_PREFIX_SHAPE.length)
+            return false;
+
+        for (int i = 0; i < DATE_TIME_PREFIX_SHAPE.length; i++) {
+            byte expected = DATE_TIME_PREFIX_SHAPE[i];
+            byte actual = line[start + i];
+            if (expected == '0' ? actual < '0' || actual > '9' : actual != expected)
+                return false;
+        }
+        return true;
+    }
+
+    boolean acceptsType(TransactionType type) {
+        return type == TransactionType.INCOME ? acceptsIncome : acceptsExpense;
+    }
+
+    boolean acceptsDateTime(TransactionCsvCodec csvCodec) {
+        return csvCodec.isDateTimeAfter(startEpochSecond, startNano) && csvCodec.isDateTimeBefore(endEpochSecond, endNano);
+    }
+
+    boolean acceptsDateTime(long epochSecond, int nano) {
+        return (epochSecond > startEpochSecond || epochSecond == startEpochSecond && nano > startNano)
+                && (epochSecond < endEpochSecond || epochSecond == endEpochSecond && nano < endNano);
+    }
+
+    boolean acceptsSum(BigDecimal sum) {
+        return (minSum == null || minSum.value().compareTo(sum) <= 0) && (maxSum == null || maxSum.value().compareTo(sum) >= 0);
+    }
+
+    boolean acceptsSum(TransactionCsvCodec csvCodec) {
+        return (minSum == null || minSum.compareTo(csvCodec) <= 0) && (maxSum == null || maxSum.compareTo(csvCodec) >= 0);
+    }
+
+    private record SumBound(BigDecimal value, long unscaledValue, int scale, boolean isCompact) {
+
+        SumBound(BigDecimal value) {
+            this(value, value.unscaledValue().longValue(), value.scale(), value.unscaledValue().bitLength() < 63);
+        }
+
+        int compareTo(TransactionCsvCodec csvCodec) {
+            if (!isCompact)
+                return value.compareTo(csvCodec.sum());
+            return -csvCodec.compareSumTo(unscaledValue, scale);
+        }
+    }
+}
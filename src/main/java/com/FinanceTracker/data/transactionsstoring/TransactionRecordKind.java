@@ -0,0 +1,7 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+enum TransactionRecordKind {
+    TRANSACTION,
+    REPLACEMENT,
+    TOMBSTONE
+}
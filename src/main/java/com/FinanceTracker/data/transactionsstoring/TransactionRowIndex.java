@@ -0,0 +1,75 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+class TransactionRowIndex {
+    static final int NO_ROW = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] rowsPlusOne = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    int get(int id) {
+        return rowsPlusOne[findSlot(id)] - 1;
+    }
+
+    void put(int id, int row) {
+        if ((size + 1) * 2 > ids.length)
+            rehash(ids.length * 2);
+
+        int slot = findSlot(id);
+        if (rowsPlusOne[slot] == 0) {
+            ids[slot] = id;
+            size++;
+        }
+        rowsPlusOne[slot] = row + 1;
+    }
+
+    void remove(int id) {
+        int slot = findSlot(id);
+        if (rowsPlusOne[slot] == 0)
+            return;
+
+        size--;
+        rowsPlusOne[slot] = 0;
+        int mask = ids.length - 1;
+        int emptySlot = slot;
+        for (int nextSlot = (slot + 1) & mask; rowsPlusOne[nextSlot] != 0; nextSlot = (nextSlot + 1) & mask) {
+            int homeSlot = mix(ids[nextSlot]) & mask;
+            if (((nextSlot - homeSlot) & mask) >= ((nextSlot - emptySlot) & mask)) {
+                ids[emptySlot] = ids[nextSlot];
+                rowsPlusOne[emptySlot] = rowsPlusOne[nextSlot];
+                rowsPlusOne[nextSlot] = 0;
+                emptySlot = nextSlot;
+            }
+        }
+    }
+
+    private int findSlot(int id) {
+        int mask = ids.length - 1;
+        int slot = mix(id) & mask;
+        while (rowsPlusOne[slot] != 0 && ids[slot] != id)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldIds = ids;
+        int[] oldRowsPlusOne = rowsPlusOne;
+        ids = new int[newCapacity];
+        rowsPlusOne = new int[newCapacity];
+
+        for (int oldSlot = 0; oldSlot < oldIds.length; oldSlot++) {
+            if (oldRowsPlusOne[oldSlot] == 0)
+                continue;
+
+            int slot = findSlot(oldIds[oldSlot]);
+            ids[slot] = oldIds[oldSlot];
+            rowsPlusOne[slot] = oldRowsPlusOne[oldSlot];
+        }
+    }
+
+    private static int mix(int id) {
+        int hash = id * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
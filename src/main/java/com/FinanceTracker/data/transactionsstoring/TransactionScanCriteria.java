@@ -0,0 +1,83 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+public record TransactionScanCriteria(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                      Set<TransactionType> types, BigDecimal minSum, BigDecimal maxSum)
+{
+    public static final TransactionScanCriteria ALL = new TransactionScanCriteria(LocalDateTime.MIN, LocalDateTime.MAX,
+            EnumSet.allOf(TransactionType.class), null, null);
+
+    public TransactionScanCriteria {
+        if (startDateTime == null || endDateTime == null || types == null)
+            throw new IllegalArgumentException("Date bounds and transaction types of the scan criteria can't be null.");
+        types = types.isEmpty() ? Set.of() : Set.copyOf(EnumSet.copyOf(types));
+    }
+
+    public static TransactionScanCriteria between(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return new TransactionScanCriteria(startDateTime, endDateTime, ALL.types, null, null);
+    }
+
+    public boolean isEmpty() {
+        return !startDateTime.isBefore(endDateTime) || types.isEmpty()
+                || (minSum != null && maxSum != null && minSum.compareTo(maxSum) > 0);
+    }
+
+    public boolean isRestrictedBeyondDates() {
+        return types.size() < ALL.types.size() || minSum != null || maxSum != null;
+    }
+
+    public boolean matches(Transaction transaction) {
+        return transaction.dateTime().isAfter(startDateTime) && transaction.dateTime().isBefore(endDateTime)
+                && matchesTypeAndSum(transaction);
+    }
+
+    public boolean matchesTypeAndSum(Transaction transaction) {
+        return types.contains(transaction.type())
+                && (minSum == null || transaction.sum().compareTo(minSum) >= 0)
+                && (maxSum == null || transaction.sum().compareTo(maxSum) <= 0);
+    }
+
+    public TransactionScanCriteria intersect(TransactionScanCriteria other) {
+        EnumSet<TransactionType> commonTypes = EnumSet.noneOf(TransactionType.class);
+        for (TransactionType type : types) {
+            if (other.types.contains(type))
+                commonTypes.add(type);
+        }
+
+        return new TransactionScanCriteria(
+                later(startDateTime, other.startDateTime), earlier(endDateTime, other.endDateTime), commonTypes,
+                minSum == null ? other.minSum : other.minSum == null ? minSum : minSum.max(other.minSum),
+                maxSum == null ? other.maxSum : other.maxSum == null ? maxSum : maxSum.min(other.maxSum));
+    }
+
+    public TransactionScanCriteria span(TransactionScanCriteria other) {
+        if (isEmpty())
+            return other;
+        if (other.isEmpty())
+            return this;
+
+        EnumSet<TransactionType> allTypes = EnumSet.noneOf(TransactionType.class);
+        allTypes.addAll(types);
+        allTypes.addAll(other.types);
+
+        return new TransactionScanCriteria(
+                earlier(startDateTime, other.startDateTime), later(endDateTime, other.endDateTime), allTypes,
+                minSum == null || other.minSum == null ? null : minSum.min(other.minSum),
+                maxSum == null || other.maxSum == null ? null : maxSum.max(other.maxSum));
+    }
+
+    private static LocalDateTime earlier(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static LocalDateTime later(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -1,16 +1,35 @@
 package com.FinanceTracker.data.transactionsstoring;
 
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
 import com.FinanceTracker.data.transactionunit.Transaction;
 import com.FinanceTracker.exceptions.NoTransactionsException;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface TransactionStorage {
 
     void addTransaction(Transaction transaction);
 
+    void addTransactions(Collection<Transaction> transactions);
+
     Transaction getTransactionById(int id) throws NoTransactionsException;
 
     Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) throws NoTransactionsException;
+
+    Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
+
+    default Stream<StoredTransaction> streamTransactionsMatching(TransactionScanCriteria criteria) {
+        if (criteria.isEmpty())
+            return Stream.empty();
+
+        Stream<StoredTransaction> transactionsBetweenDates =
+                streamTransactionsBetweenDates(criteria.startDateTime(), criteria.endDateTime());
+        if (!criteria.isRestrictedBeyondDates())
+            return transactionsBetweenDates;
+        return transactionsBetweenDates
+                .filter(storedTransaction -> criteria.matchesTypeAndSum(storedTransaction.transaction()));
+    }
 }
@@ -0,0 +1,10 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+
+public interface TransactionStorageListener {
+
+    void transactionAdded(int id, Transaction transaction);
+
+    void transactionRemoved(int id, Transaction transaction);
+}
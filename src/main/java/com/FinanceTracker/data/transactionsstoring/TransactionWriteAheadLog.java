@@ -0,0 +1,227 @@
+package com.FinanceTracker.data.transactionsstoring;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+class TransactionWriteAheadLog implements Closeable {
+    private static final int ENTRY_HEADER_SIZE = 4 + 8 + 8;
+    private static final int MAX_GROUP_SIZE = 1024;
+    private static final long CHECKPOINT_THRESHOLD = 16L << 20;
+
+    private final Path logPath;
+    private final DurabilityMode durabilityMode;
+    private final FileChannel logChannel;
+    private FileChannel fileChannel;
+    private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>();
+    private final Thread committerThread;
+
+    private long logicalFileSize;
+    private CompletableFuture<Void> lastSubmittedWrite = CompletableFuture.completedFuture(null);
+    private boolean isClosed = false;
+
+    TransactionWriteAheadLog(Path filePath, DurabilityMode durabilityMode) throws IOException {
+        this.logPath = logPathFor(filePath);
+        this.durabilityMode = durabilityMode;
+        this.logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fileChannel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.logicalFileSize = fileChannel.size();
+
+        if (durabilityMode == DurabilityMode.SYNC) {
+            committerThread = null;
+        } else {
+            committerThread = new Thread(this::runCommitter, "transactions-log-committer-" + filePath.getFileName());
+            committerThread.setDaemon(true);
+            committerThread.start();
+        }
+    }
+
+    static Path logPathFor(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".wal");
+    }
+
+    static void recover(Path filePath) throws IOException {
+        Path logPath = logPathFor(filePath);
+        if (Files.notExists(logPath))
+            return;
+
+        try (FileChannel logChannel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            long logSize = logChannel.size();
+            long logPosition = 0;
+            ByteBuffer entryHeader = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+
+            while (logPosition + ENTRY_HEADER_SIZE <= logSize) {
+                entryHeader.clear();
+                readFully(logChannel, entryHeader, logPosition);
+                int payloadLength = entryHeader.getInt(0);
+                long fileOffset = entryHeader.getLong(4);
+                long checksum = entryHeader.getLong(12);
+                if (payloadLength < 0 || logPosition + ENTRY_HEADER_SIZE + payloadLength > logSize)
+                    break;
+
+                ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+                readFully(logChannel, payload, logPosition + ENTRY_HEADER_SIZE);
+                if (checksum(fileOffset, payload.array()) != checksum || fileOffset > fileChannel.size())
+                    break;
+
+                payload.flip();
+                writeFully(fileChannel, payload, fileOffset);
+                logPosition += ENTRY_HEADER_SIZE + payloadLength;
+            }
+
+            fileChannel.force(false);
+            logChannel.truncate(0);
+            logChannel.force(false);
+        }
+    }
+
+    synchronized CompletableFuture<Void> append(byte[] lines) throws IOException {
+        if (isClosed)
+            throw new IOException("The transactions log is already closed: " + logPath);
+
+        PendingWrite pendingWrite = new PendingWrite(lines, logicalFileSize, new CompletableFuture<>());
+        logicalFileSize += lines.length;
+        lastSubmittedWrite = pendingWrite.completion();
+
+        if (durabilityMode == DurabilityMode.SYNC)
+            commitGroup(List.of(pendingWrite));
+        else
+            pendingWrites.add(pendingWrite);
+
+        return pendingWrite.completion();
+    }
+
+    void awaitPendingWrites() {
+        CompletableFuture<Void> lastWrite;
+        synchronized (this) {
+            lastWrite = lastSubmittedWrite;
+        }
+        lastWrite.join();
+    }
+
+    synchronized boolean hasPendingWrites() {
+        return !lastSubmittedWrite.isDone();
+    }
+
+    synchronized void synchronizeFileSize() throws IOException {
+        if (lastSubmittedWrite.isDone())
+            logicalFileSize = fileChannel.size();
+    }
+
+    synchronized void reopenFile(Path filePath) throws IOException {
+        fileChannel.close();
+        fileChannel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        logicalFileSize = fileChannel.size();
+    }
+
+    private void runCommitter() {
+        List<PendingWrite> group = new ArrayList<>();
+        while (true) {
+            try {
+                group.add(pendingWrites.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pendingWrites.drainTo(group, MAX_GROUP_SIZE - 1);
+
+            commitGroup(group);
+            group.clear();
+        }
+    }
+
+    private void commitGroup(List<PendingWrite> group) {
+        try {
+            long logPosition = logChannel.size();
+            for (PendingWrite pendingWrite : group) {
+                ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + pendingWrite.lines().length);
+                entry.putInt(pendingWrite.lines().length)
+                        .putLong(pendingWrite.fileOffset())
+                        .putLong(checksum(pendingWrite.fileOffset(), pendingWrite.lines()))
+                        .put(pendingWrite.lines());
+                entry.flip();
+                logPosition += writeFully(logChannel, entry, logPosition);
+            }
+            logChannel.force(false);
+
+            for (PendingWrite pendingWrite : group)
+                writeFully(fileChannel, ByteBuffer.wrap(pendingWrite.lines()), pendingWrite.fileOffset());
+
+            if (logPosition > CHECKPOINT_THRESHOLD)
+                checkpoint();
+
+            for (PendingWrite pendingWrite : group)
+                pendingWrite.completion().complete(null);
+        } catch (IOException e) {
+            for (PendingWrite pendingWrite : group)
+                pendingWrite.completion().completeExceptionally(e);
+        }
+    }
+
+    void checkpoint() throws IOException {
+        fileChannel.force(false);
+        logChannel.truncate(0);
+        logChannel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (isClosed)
+                return;
+            isClosed = true;
+        }
+
+        awaitPendingWrites();
+        if (committerThread != null) {
+            committerThread.interrupt();
+            try {
+                committerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        checkpoint();
+        logChannel.close();
+        fileChannel.close();
+        Files.deleteIfExists(logPath);
+    }
+
+    private static long checksum(long fileOffset, byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(ByteBuffer.allocate(8).putLong(0, fileOffset));
+        crc32.update(payload);
+        return crc32.getValue();
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int bytesToWrite = buffer.remaining();
+        int bytesWritten = 0;
+        while (buffer.hasRemaining())
+            bytesWritten += channel.write(buffer, position + bytesWritten);
+        return bytesToWrite;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of the transactions log.");
+        }
+    }
+
+    private record PendingWrite(byte[] lines, long fileOffset, CompletableFuture<Void> completion) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.FinanceTracker.data.transactionunit;
+
+public record StoredTransaction(int id, Transaction transaction) {
+
+    @Override
+    public String toString() {
+        return this.id + " " + this.transaction;
+    }
+}
@@ -0,0 +1,7 @@
+package com.FinanceTracker.exceptions;
+
+public class StatementFormatException extends FinanceTrackerException {
+    public StatementFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,65 @@
+package com.FinanceTracker.logic;
+
+import com.FinanceTracker.data.transactionsstoring.ChangeableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.FileStorageWarmUp;
+import com.FinanceTracker.data.transactionsstoring.InstrumentedChangeableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.InstrumentedTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.ObservableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.SynchronizableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.TransactionFileSynchronizer;
+import com.FinanceTracker.data.transactionsstoring.TransactionStorage;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+final class AttachedLedger implements Closeable {
+    private final String name;
+    private final Path path;
+    private final SynchronizableTransactionStorage<?> storage;
+    private final TransactionStorage instrumentedStorage;
+    private final TransactionFileSynchronizer<?> fileSynchronizer;
+    private final FileStorageWarmUp warmUp;
+
+    AttachedLedger(String name, Path path, SynchronizableTransactionStorage<?> storage, String storageName,
+                   ObservableTransactionStorage runtimeStorage, FileStorageWarmUp warmUp)
+    {
+        this.name = name;
+        this.path = path;
+        this.storage = storage;
+        this.instrumentedStorage = storage instanceof ChangeableTransactionStorage changeableStorage
+                ? new InstrumentedChangeableTransactionStorage(storageName, changeableStorage)
+                : new InstrumentedTransactionStorage(storageName, storage);
+        this.fileSynchronizer = new TransactionFileSynchronizer<>(runtimeStorage, storage);
+        this.warmUp = warmUp;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    SynchronizableTransactionStorage<?> storage() {
+        return storage;
+    }
+
+    TransactionStorage instrumentedStorage() {
+        return instrumentedStorage;
+    }
+
+    TransactionFileSynchronizer<?> fileSynchronizer() {
+        return fileSynchronizer;
+    }
+
+    FileStorageWarmUp warmUp() {
+        return warmUp;
+    }
+
+    @Override
+    public void close() {
+        fileSynchronizer.close();
+        storage.close();
+    }
+}
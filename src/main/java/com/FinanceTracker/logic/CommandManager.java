@@ -1,106 +1,607 @@
 package com.FinanceTracker.logic;
 
+import com.FinanceTracker.exceptions.IncorrectInputException;
 import com.FinanceTracker.exceptions.NoTransactionsException;
+import com.FinanceTracker.exceptions.StatementFormatException;
 import com.FinanceTracker.exceptions.TransactionsFileCreationException;
 import com.FinanceTracker.exceptions.TransactionsFileFormatException;
 import com.FinanceTracker.exceptions.TransactionsFileIsNotAttachedException;
+import com.FinanceTracker.data.transactionsstoring.BinaryTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.ChangeableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.DurabilityMode;
+import com.FinanceTracker.data.transactionsstoring.FileStorageWarmUp;
 import com.FinanceTracker.data.transactionsstoring.FileTransactionStorage;
-import com.FinanceTracker.data.transactionsstoring.RuntimeTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.InstrumentedChangeableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.ObservableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.PartitionPeriod;
+import com.FinanceTracker.data.transactionsstoring.PartitionedTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.RuntimeStorageType;
+import com.FinanceTracker.data.transactionsstoring.SynchronizableTransactionStorage;
+import com.FinanceTracker.data.transactionsstoring.TransactionFileConverter;
+import com.FinanceTracker.data.transactionsstoring.TransactionFileSynchronizer;
+import com.FinanceTracker.data.transactionsstoring.TransactionStorage;
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
 import com.FinanceTracker.data.transactionunit.Transaction;
 import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.logic.importing.StatementFormat;
+import com.FinanceTracker.logic.importing.StatementImportSummary;
+import com.FinanceTracker.logic.importing.StatementImporter;
+import com.FinanceTracker.metrics.Metrics;
+import com.FinanceTracker.metrics.MetricsSnapshot;
+import com.FinanceTracker.metrics.OperationTimer;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 public class CommandManager {
-    private final RuntimeTransactionStorage runtimeTransactionStorage = new RuntimeTransactionStorage();
-    private FileTransactionStorage fileTransactionStorage;
+    private final RuntimeStorageType runtimeStorageType;
+    private final ObservableTransactionStorage runtimeTransactionStorage;
+    private final ChangeableTransactionStorage instrumentedRuntimeStorage;
+    private final TransactionAggregator transactionAggregator = new TransactionAggregator();
+    private final Map<String, AttachedLedger> attachedLedgers = new LinkedHashMap<>();
+    private String saveTargetName;
 
-    public void addTransaction(LocalDateTime dateTime, TransactionType transactionType,  BigDecimal sum) {
-        runtimeTransactionStorage.addTransaction(new Transaction(dateTime, transactionType, sum));
+    public CommandManager() {
+        this(RuntimeStorageType.CONCURRENT);
     }
 
+    public CommandManager(RuntimeStorageType runtimeStorageType) {
+        this.runtimeStorageType = runtimeStorageType;
+        runtimeTransactionStorage = runtimeStorageType.createStorage();
+        instrumentedRuntimeStorage = new InstrumentedChangeableTransactionStorage("runtime", runtimeTransactionStorage);
+        runtimeTransactionStorage.addListener(transactionAggregator);
+    }
+
+    @SuppressWarnings("try")
+    public void addTransaction(LocalDateTime dateTime, TransactionType transactionType,  BigDecimal sum)
+            throws IncorrectInputException
+    {
+        try (OperationTimer timer = Metrics.startTimer("command.addTransaction")) {
+            instrumentedRuntimeStorage.addTransaction(new Transaction(dateTime, transactionType, sum));
+        } catch (IllegalArgumentException e) {
+            throw new IncorrectInputException("The transaction can't be stored. Details: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("try")
     public Transaction getTransactionById(int id) throws NoTransactionsException {
-        return runtimeTransactionStorage.getTransactionById(id);
+        try (OperationTimer timer = Metrics.startTimer("command.getTransactionById")) {
+            return instrumentedRuntimeStorage.getTransactionById(id);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void updateTransaction(int id, LocalDateTime dateTime, TransactionType transactionType, BigDecimal sum)
+            throws NoTransactionsException, IncorrectInputException
+    {
+        try (OperationTimer timer = Metrics.startTimer("command.updateTransaction")) {
+            instrumentedRuntimeStorage.updateTransaction(id, new Transaction(dateTime, transactionType, sum));
+        } catch (IllegalArgumentException e) {
+            throw new IncorrectInputException("The transaction can't be stored. Details: " + e.getMessage());
+        }
     }
 
+    @SuppressWarnings("try")
+    public void deleteTransaction(int id) throws NoTransactionsException {
+        try (OperationTimer timer = Metrics.startTimer("command.deleteTransaction")) {
+            instrumentedRuntimeStorage.deleteTransaction(id);
+        }
+    }
+
+    @SuppressWarnings("try")
     public Map<Integer, Transaction> getTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime)
             throws NoTransactionsException
     {
-        return this.runtimeTransactionStorage.getTransactionsBetweenDates(startDateTime, endDateTime);
+        try (OperationTimer timer = Metrics.startTimer("command.getTransactionsBetweenDates")) {
+            return this.instrumentedRuntimeStorage.getTransactionsBetweenDates(startDateTime, endDateTime);
+        }
     }
 
+    @SuppressWarnings("try")
     public Map<Integer, Transaction> getAllTransactions()
             throws NoTransactionsException {
-        try {
-            return runtimeTransactionStorage.getTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX);
+        try (OperationTimer timer = Metrics.startTimer("command.getAllTransactions")) {
+            return instrumentedRuntimeStorage.getTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX);
         } catch (NoTransactionsException e) {
             throw new NoTransactionsException("There are no transactions.");
         }
     }
 
-    public void attachFile(Path filePath) throws TransactionsFileCreationException, TransactionsFileFormatException {
-        fileTransactionStorage = new FileTransactionStorage(filePath);
+    public Stream<StoredTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return instrumentedRuntimeStorage.streamTransactionsBetweenDates(startDateTime, endDateTime);
+    }
+
+    public Stream<StoredTransaction> streamAllTransactions() {
+        return instrumentedRuntimeStorage.streamTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX);
+    }
+
+    @SuppressWarnings("try")
+    public BigDecimal getTotalBetweenDates(TransactionType transactionType, LocalDateTime startDateTime,
+                                           LocalDateTime endDateTime)
+    {
+        try (OperationTimer timer = Metrics.startTimer("command.getTotalBetweenDates")) {
+            return transactionAggregator.getTotalBetweenDates(transactionType, startDateTime, endDateTime);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public BigDecimal getBalanceBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        try (OperationTimer timer = Metrics.startTimer("command.getBalanceBetweenDates")) {
+            return transactionAggregator.getBalanceBetweenDates(startDateTime, endDateTime);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public List<LedgerTransaction> getLargestTransactionsBetweenDates(TransactionType transactionType,
+                                                                      LocalDateTime startDateTime,
+                                                                      LocalDateTime endDateTime, int count,
+                                                                      boolean isFromFile)
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException
+    {
+        List<LedgerTransaction> largestTransactions;
+
+        try (OperationTimer timer = Metrics.startTimer("command.getLargestTransactionsBetweenDates")) {
+            List<List<LedgerTransaction>> largestTransactionsBySource = queryConcurrently(
+                    TransactionFilter.between(startDateTime, endDateTime).and(TransactionFilter.ofType(transactionType)),
+                    isFromFile, (ledgerName, transactions) -> {
+                        LargestTransactionsCollector largestTransactionsCollector = new LargestTransactionsCollector(count);
+                        transactions.forEach(largestTransactionsCollector::add);
+                        return largestTransactionsCollector.getLargestTransactions().stream()
+                                .map(storedTransaction -> new LedgerTransaction(ledgerName, storedTransaction.id(),
+                                        storedTransaction.transaction()))
+                                .toList();
+                    });
+
+            largestTransactions = largestTransactionsBySource.stream()
+                    .flatMap(List::stream)
+                    .sorted(LedgerTransaction.BY_SUM_DESCENDING)
+                    .limit(count)
+                    .toList();
+        }
+
+        if (largestTransactions.isEmpty())
+            throw new NoTransactionsException("No " + transactionType + " transactions between " + startDateTime
+                    + " and " + endDateTime + ".");
+        return largestTransactions;
+    }
+
+    @SuppressWarnings("try")
+    public SumQuantiles getSumQuantilesBetweenDates(TransactionType transactionType, LocalDateTime startDateTime,
+                                                    LocalDateTime endDateTime, double quantile, boolean isFromFile)
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException
+    {
+        Map<YearMonth, QuantileSketch> monthlySketches = new TreeMap<>();
+
+        try (OperationTimer timer = Metrics.startTimer("command.getSumQuantilesBetweenDates")) {
+            List<Map<YearMonth, QuantileSketch>> monthlySketchesBySource = queryConcurrently(
+                    TransactionFilter.between(startDateTime, endDateTime).and(TransactionFilter.ofType(transactionType)),
+                    isFromFile, (ledgerName, transactions) -> {
+                        Map<YearMonth, QuantileSketch> sourceMonthlySketches = new HashMap<>();
+                        transactions.map(StoredTransaction::transaction)
+                                .forEach(transaction -> sourceMonthlySketches
+                                        .computeIfAbsent(YearMonth.from(transaction.dateTime()),
+                                                month -> new QuantileSketch())
+                                        .add(transaction.sum().doubleValue()));
+                        return sourceMonthlySketches;
+                    });
+
+            for (Map<YearMonth, QuantileSketch> sourceMonthlySketches : monthlySketchesBySource) {
+                for (Map.Entry<YearMonth, QuantileSketch> monthlySketch : sourceMonthlySketches.entrySet())
+                    monthlySketches.computeIfAbsent(monthlySketch.getKey(), month -> new QuantileSketch())
+                            .merge(monthlySketch.getValue());
+            }
+        }
+
+        if (monthlySketches.isEmpty())
+            throw new NoTransactionsException("No " + transactionType + " transactions between " + startDateTime
+                    + " and " + endDateTime + ".");
+
+        Map<YearMonth, BigDecimal> monthlySums = new LinkedHashMap<>();
+        QuantileSketch wholePeriodSketch = new QuantileSketch();
+        for (Map.Entry<YearMonth, QuantileSketch> monthlySketch : monthlySketches.entrySet()) {
+            monthlySums.put(monthlySketch.getKey(), toSum(monthlySketch.getValue().getQuantile(quantile)));
+            wholePeriodSketch.merge(monthlySketch.getValue());
+        }
+        return new SumQuantiles(quantile, monthlySums, toSum(wholePeriodSketch.getQuantile(quantile)));
+    }
+
+    private static BigDecimal toSum(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
     }
 
-    public void unattachFile() {
-        fileTransactionStorage = null;
+    private <R> List<R> queryConcurrently(TransactionFilter filter, boolean isFromFile,
+                                          BiFunction<String, Stream<StoredTransaction>, R> query)
+            throws TransactionsFileIsNotAttachedException
+    {
+        if (!isFromFile) {
+            try (Stream<StoredTransaction> transactions = filter.streamFrom(instrumentedRuntimeStorage)) {
+                return List.of(query.apply(null, transactions));
+            }
+        }
+
+        ensureThatFileIsAttached();
+        awaitFileVerification();
+        return ConcurrentFanOut.map(List.copyOf(attachedLedgers.values()), ledger -> {
+            try (Stream<StoredTransaction> transactions = filter.streamFrom(ledger.instrumentedStorage())) {
+                return query.apply(ledger.name(), transactions);
+            }
+        });
     }
 
-    public void saveTransactionByIdToFile(int id) throws TransactionsFileIsNotAttachedException, NoTransactionsException {
+    public Stream<LedgerTransaction> streamTransactionsMatching(TransactionFilter filter, boolean isFromFile)
+            throws TransactionsFileIsNotAttachedException
+    {
+        if (!isFromFile)
+            return filter.streamFrom(instrumentedRuntimeStorage).map(LedgerTransaction::inProgram);
+
         ensureThatFileIsAttached();
+        awaitFileVerification();
+        return List.copyOf(attachedLedgers.values()).stream()
+                .flatMap(ledger -> filter.streamFrom(ledger.instrumentedStorage())
+                        .map(storedTransaction -> new LedgerTransaction(ledger.name(), storedTransaction.id(),
+                                storedTransaction.transaction())));
+    }
+
+    @SuppressWarnings("try")
+    public FileStorageWarmUp attachFile(String ledgerName, Path filePath)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        prepareAttachment(ledgerName, filePath);
+
+        try (OperationTimer timer = Metrics.startTimer("command.attachFile")) {
+            if (filePath.toString().endsWith(BinaryTransactionStorage.FILE_EXTENSION)) {
+                attachStorage(ledgerName, filePath, new BinaryTransactionStorage(filePath), "binary", null);
+                return null;
+            }
+
+            FileTransactionStorage attachedFileStorage =
+                    FileTransactionStorage.openValidatingInBackground(filePath, true, DurabilityMode.GROUP_COMMIT);
+            attachStorage(ledgerName, filePath, attachedFileStorage, "file", attachedFileStorage.getWarmUp());
+            return attachedFileStorage.getWarmUp();
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void attachLedger(String ledgerName, Path ledgerDirectory, PartitionPeriod period)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        prepareAttachment(ledgerName, ledgerDirectory);
+
+        try (OperationTimer timer = Metrics.startTimer("command.attachLedger")) {
+            attachStorage(ledgerName, ledgerDirectory, new PartitionedTransactionStorage(ledgerDirectory, period),
+                    "ledger", null);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void migrateFileToLedger(String ledgerName, Path filePath, Path ledgerDirectory, PartitionPeriod period)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        prepareAttachment(ledgerName, filePath);
+        prepareAttachment(ledgerName, ledgerDirectory);
+
+        try (OperationTimer timer = Metrics.startTimer("command.migrateFileToLedger")) {
+            attachStorage(ledgerName, ledgerDirectory,
+                    PartitionedTransactionStorage.migrateFromFile(filePath, ledgerDirectory, period), "ledger", null);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void convertFile(Path sourceFilePath, Path targetFilePath)
+            throws TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        ensureThatPathIsNotAttached(null, sourceFilePath);
+        ensureThatPathIsNotAttached(null, targetFilePath);
+
+        try (OperationTimer timer = Metrics.startTimer("command.convertFile")) {
+            if (sourceFilePath.toString().endsWith(BinaryTransactionStorage.FILE_EXTENSION))
+                TransactionFileConverter.convertBinaryToCsv(sourceFilePath, targetFilePath);
+            else
+                TransactionFileConverter.convertCsvToBinary(sourceFilePath, targetFilePath);
+        }
+    }
+
+    private void prepareAttachment(String ledgerName, Path path) throws TransactionsFileCreationException {
+        ensureThatPathIsNotAttached(ledgerName, path);
+        unattachFile(ledgerName);
+    }
+
+    private void ensureThatPathIsNotAttached(String ledgerName, Path path) throws TransactionsFileCreationException {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        for (AttachedLedger ledger : attachedLedgers.values()) {
+            if (!ledger.name().equals(ledgerName) && ledger.path().equals(absolutePath))
+                throw new TransactionsFileCreationException("This path is already attached as " + ledger.name() + ": "
+                        + path);
+        }
+    }
+
+    private void attachStorage(String ledgerName, Path path, SynchronizableTransactionStorage<?> attachedStorage,
+                               String storageName, FileStorageWarmUp warmUp)
+    {
+        attachedLedgers.put(ledgerName, new AttachedLedger(ledgerName, path.toAbsolutePath().normalize(),
+                attachedStorage, storageName, runtimeTransactionStorage, warmUp));
+        if (saveTargetName == null)
+            saveTargetName = ledgerName;
+    }
+
+    public void unattachFile(String ledgerName) {
+        AttachedLedger ledger = attachedLedgers.remove(ledgerName);
+        if (ledger != null)
+            ledger.close();
+        if (ledgerName.equals(saveTargetName))
+            saveTargetName = attachedLedgers.isEmpty() ? null : attachedLedgers.keySet().iterator().next();
+    }
+
+    public void unattachAllFiles() {
+        for (String ledgerName : List.copyOf(attachedLedgers.keySet()))
+            unattachFile(ledgerName);
+    }
+
+    public boolean isFileAttached() {
+        return !attachedLedgers.isEmpty();
+    }
+
+    public List<String> getAttachedLedgerNames() {
+        return List.copyOf(attachedLedgers.keySet());
+    }
+
+    public String getSaveTargetName() {
+        return saveTargetName;
+    }
+
+    public void chooseSaveTarget(String ledgerName) throws TransactionsFileIsNotAttachedException {
+        saveTargetName = getAttachedLedger(ledgerName).name();
+    }
+
+    @SuppressWarnings("try")
+    public void saveTransactionByIdToFile(int id)
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
+    {
+        AttachedLedger saveTarget = getVerifiedSaveTarget();
 
-        TransactionCopier.copyTransactionById(id, runtimeTransactionStorage, fileTransactionStorage);
+        try (OperationTimer timer = Metrics.startTimer("command.saveTransactionByIdToFile")) {
+            TransactionCopier.copyTransactionById(id, instrumentedRuntimeStorage, saveTarget.instrumentedStorage());
+        } catch (IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("The transactions can't be saved to " + saveTarget.name()
+                    + ". Details: " + e.getMessage());
+        }
     }
 
+    @SuppressWarnings("try")
     public void saveTransactionsBetweenDatesToFile(LocalDateTime startDateTime, LocalDateTime endDateTime)
-            throws TransactionsFileIsNotAttachedException, NoTransactionsException {
-        ensureThatFileIsAttached();
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException {
+        AttachedLedger saveTarget = getVerifiedSaveTarget();
 
-        TransactionCopier.copyTransactionsBetweenDates(startDateTime, endDateTime,
-                runtimeTransactionStorage, fileTransactionStorage);
+        try (OperationTimer timer = Metrics.startTimer("command.saveTransactionsBetweenDatesToFile")) {
+            TransactionCopier.copyTransactionsBetweenDates(startDateTime, endDateTime,
+                    instrumentedRuntimeStorage, saveTarget.instrumentedStorage());
+        } catch (IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("The transactions can't be saved to " + saveTarget.name()
+                    + ". Details: " + e.getMessage());
+        }
     }
 
-    public void saveAllTransactionsToFile() throws TransactionsFileIsNotAttachedException, NoTransactionsException {
-        ensureThatFileIsAttached();
+    @SuppressWarnings("try")
+    public int saveAllTransactionsToFile()
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
+    {
+        AttachedLedger saveTarget = getVerifiedSaveTarget();
+        awaitFileVerification();
 
-        try {
-            TransactionCopier.copyTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX,
-                    runtimeTransactionStorage, fileTransactionStorage);
-        } catch (NoTransactionsException e) {
-            throw new NoTransactionsException("There are no transactions.");
+        try (OperationTimer timer = Metrics.startTimer("command.saveAllTransactionsToFile")) {
+            List<TransactionFileSynchronizer<?>> otherFileSynchronizers = new ArrayList<>();
+            for (AttachedLedger ledger : attachedLedgers.values()) {
+                if (ledger != saveTarget)
+                    otherFileSynchronizers.add(ledger.fileSynchronizer());
+            }
+            ConcurrentFanOut.map(otherFileSynchronizers, TransactionFileSynchronizer::scanFile);
+
+            return saveTarget.fileSynchronizer().saveNewTransactions(otherFileSynchronizers);
+        } catch (IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("The transactions can't be saved to " + saveTarget.name()
+                    + ". Details: " + e.getMessage());
         }
     }
 
-    public void loadTransactionByIdFromFile(int id) throws TransactionsFileIsNotAttachedException, NoTransactionsException {
-        ensureThatFileIsAttached();
+    public boolean isSaveTargetCsvFile() {
+        AttachedLedger saveTarget = saveTargetName != null ? attachedLedgers.get(saveTargetName) : null;
+        return saveTarget != null && saveTarget.storage() instanceof FileTransactionStorage;
+    }
+
+    @SuppressWarnings("try")
+    public int archiveFileTransactionsBefore(LocalDateTime sealDateTime) throws TransactionsFileIsNotAttachedException {
+        AttachedLedger saveTarget = getVerifiedSaveTarget();
+        if (!(saveTarget.storage() instanceof FileTransactionStorage attachedFileStorage))
+            throw new TransactionsFileIsNotAttachedException("Only an attached .csv file can be archived.");
+
+        try (OperationTimer timer = Metrics.startTimer("command.archiveFileTransactionsBefore")) {
+            return attachedFileStorage.archiveTransactionsBefore(sealDateTime);
+        }
+    }
+
+    @SuppressWarnings("try")
+    public int compactFile() throws TransactionsFileIsNotAttachedException {
+        AttachedLedger saveTarget = getVerifiedSaveTarget();
+        if (!(saveTarget.storage() instanceof FileTransactionStorage attachedFileStorage))
+            throw new TransactionsFileIsNotAttachedException("Only an attached .csv file can be compacted.");
+
+        try (OperationTimer timer = Metrics.startTimer("command.compactFile")) {
+            return attachedFileStorage.compact();
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void updateFileTransaction(LedgerTransactionId ledgerTransactionId, LocalDateTime dateTime,
+                                      TransactionType transactionType, BigDecimal sum)
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException
+    {
+        ChangeableTransactionStorage ledgerStorage = getChangeableLedgerStorage(ledgerTransactionId.ledgerName());
+
+        try (OperationTimer timer = Metrics.startTimer("command.updateFileTransaction")) {
+            ledgerStorage.updateTransaction(ledgerTransactionId.id(),
+                    new Transaction(dateTime, transactionType, sum));
+        }
+    }
+
+    @SuppressWarnings("try")
+    public void deleteFileTransaction(LedgerTransactionId ledgerTransactionId)
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException
+    {
+        ChangeableTransactionStorage ledgerStorage = getChangeableLedgerStorage(ledgerTransactionId.ledgerName());
+
+        try (OperationTimer timer = Metrics.startTimer("command.deleteFileTransaction")) {
+            ledgerStorage.deleteTransaction(ledgerTransactionId.id());
+        }
+    }
+
+    private ChangeableTransactionStorage getChangeableLedgerStorage(String ledgerName)
+            throws TransactionsFileIsNotAttachedException
+    {
+        AttachedLedger ledger = getAttachedLedger(ledgerName);
+        awaitFileVerification(ledger);
+        if (!(ledger.instrumentedStorage() instanceof ChangeableTransactionStorage ledgerStorage))
+            throw new TransactionsFileIsNotAttachedException("Only transactions of an attached .csv file can be changed.");
+        return ledgerStorage;
+    }
 
-        TransactionCopier.copyTransactionById(id, fileTransactionStorage, runtimeTransactionStorage);
+    @SuppressWarnings("try")
+    public void loadTransactionByIdFromFile(LedgerTransactionId ledgerTransactionId)
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException {
+        AttachedLedger ledger = getAttachedLedger(ledgerTransactionId.ledgerName());
+
+        try (OperationTimer timer = Metrics.startTimer("command.loadTransactionByIdFromFile")) {
+            TransactionCopier.copyTransactionById(ledgerTransactionId.id(), ledger.instrumentedStorage(),
+                    instrumentedRuntimeStorage);
+        } catch (IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("The transactions can't be loaded into the program. Details: "
+                    + e.getMessage());
+        }
     }
 
+    @SuppressWarnings("try")
     public void loadTransactionsBetweenDatesFromFile(LocalDateTime startDateTime, LocalDateTime endDateTime)
-            throws TransactionsFileIsNotAttachedException, NoTransactionsException {
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException {
         ensureThatFileIsAttached();
 
-        TransactionCopier.copyTransactionsBetweenDates(startDateTime, endDateTime,
-                fileTransactionStorage, runtimeTransactionStorage);
+        try (OperationTimer timer = Metrics.startTimer("command.loadTransactionsBetweenDatesFromFile")) {
+            List<TransactionStorage> ledgerStorages = new ArrayList<>();
+            for (AttachedLedger ledger : attachedLedgers.values())
+                ledgerStorages.add(ledger.instrumentedStorage());
+
+            TransactionCopier.copyTransactionsBetweenDates(startDateTime, endDateTime,
+                    ledgerStorages, instrumentedRuntimeStorage);
+        } catch (IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("The transactions can't be loaded into the program. Details: "
+                    + e.getMessage());
+        }
     }
 
-    public void loadAllTransactionsFromFile() throws TransactionsFileIsNotAttachedException, NoTransactionsException {
+    @SuppressWarnings("try")
+    public int loadAllTransactionsFromFile()
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
+    {
         ensureThatFileIsAttached();
+        awaitFileVerification();
 
-        try {
-            TransactionCopier.copyTransactionsBetweenDates(LocalDateTime.MIN, LocalDateTime.MAX,
-                    fileTransactionStorage, runtimeTransactionStorage);
-        } catch (NoTransactionsException e) {
-            throw new NoTransactionsException("There are no transactions.");
+        try (OperationTimer timer = Metrics.startTimer("command.loadAllTransactionsFromFile")) {
+            List<AttachedLedger> ledgers = List.copyOf(attachedLedgers.values());
+            List<Boolean> haveTransactions = ConcurrentFanOut.map(ledgers,
+                    ledger -> ledger.fileSynchronizer().readNewTransactions());
+            if (!haveTransactions.contains(true))
+                throw new NoTransactionsException("There are no transactions.");
+
+            int loadedTransactionsCount = 0;
+            for (AttachedLedger ledger : ledgers)
+                loadedTransactionsCount += ledger.fileSynchronizer().addReadTransactions();
+            return loadedTransactionsCount;
+        } catch (IllegalArgumentException e) {
+            throw new TransactionsFileFormatException("The transactions can't be loaded into the program. Details: "
+                    + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("try")
+    public List<StatementImportSummary> importStatements(Path formatPath, List<Path> statementPaths,
+                                                         boolean isImportedToFile)
+            throws StatementFormatException, TransactionsFileIsNotAttachedException
+    {
+        StatementFormat statementFormat = StatementFormat.load(formatPath);
+
+        TransactionStorage targetStorage = instrumentedRuntimeStorage;
+        if (isImportedToFile)
+            targetStorage = getVerifiedSaveTarget().instrumentedStorage();
+
+        try (OperationTimer timer = Metrics.startTimer("command.importStatements")) {
+            return new StatementImporter(statementFormat, targetStorage,
+                    !isImportedToFile && runtimeStorageType.isConcurrent())
+                    .importStatements(statementPaths);
         }
     }
 
+    public MetricsSnapshot getMetricsSnapshot() {
+        return Metrics.snapshot();
+    }
+
     private void ensureThatFileIsAttached() throws TransactionsFileIsNotAttachedException {
-        if (fileTransactionStorage == null)
+        if (attachedLedgers.isEmpty())
             throw new TransactionsFileIsNotAttachedException("No file attached for file operations.");
+        for (AttachedLedger ledger : List.copyOf(attachedLedgers.values())) {
+            if (ledger.warmUp() != null && ledger.warmUp().isFailed())
+                awaitFileVerification(ledger);
+        }
+        if (attachedLedgers.isEmpty())
+            throw new TransactionsFileIsNotAttachedException("No file attached for file operations.");
+    }
+
+    private AttachedLedger getAttachedLedger(String ledgerName) throws TransactionsFileIsNotAttachedException {
+        ensureThatFileIsAttached();
+
+        if (ledgerName == null) {
+            if (attachedLedgers.size() > 1)
+                throw new TransactionsFileIsNotAttachedException("Several files are attached, enter the file name " +
+                        "before the id, for example " + new LedgerTransactionId(saveTargetName, 1));
+            return attachedLedgers.values().iterator().next();
+        }
+
+        AttachedLedger ledger = attachedLedgers.get(ledgerName);
+        if (ledger == null)
+            throw new TransactionsFileIsNotAttachedException("No file is attached as " + ledgerName + ".");
+        return ledger;
+    }
+
+    private AttachedLedger getVerifiedSaveTarget() throws TransactionsFileIsNotAttachedException {
+        ensureThatFileIsAttached();
+        AttachedLedger saveTarget = attachedLedgers.get(saveTargetName);
+        awaitFileVerification(saveTarget);
+        return saveTarget;
+    }
+
+    private void awaitFileVerification() throws TransactionsFileIsNotAttachedException {
+        for (AttachedLedger ledger : List.copyOf(attachedLedgers.values()))
+            awaitFileVerification(ledger);
+    }
+
+    private void awaitFileVerification(AttachedLedger ledger) throws TransactionsFileIsNotAttachedException {
+        if (ledger.warmUp() == null)
+            return;
+
+        try {
+            ledger.warmUp().await();
+        } catch (TransactionsFileFormatException e) {
+            unattachFile(ledger.name());
+            throw new TransactionsFileIsNotAttachedException("The file " + ledger.name() + " was unattached because " +
+                    "it has incorrect values. Details:\n" + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.FinanceTracker.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+final class ConcurrentFanOut {
+
+    private ConcurrentFanOut() {}
+
+    static <T, R> List<R> map(List<T> sources, Function<T, R> sourceTask) {
+        if (sources.size() == 1)
+            return List.of(sourceTask.apply(sources.get(0)));
+
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(sources.size());
+        for (T source : sources)
+            tasks.add(ForkJoinTask.adapt((Callable<R>) () -> sourceTask.apply(source)));
+        ForkJoinTask.invokeAll(tasks);
+
+        List<R> results = new ArrayList<>(sources.size());
+        for (ForkJoinTask<R> task : tasks)
+            results.add(task.join());
+        return results;
+    }
+}
@@ -1,5 +1,6 @@
 package com.FinanceTracker.logic;
 
+import com.FinanceTracker.data.transactionsstoring.PartitionPeriod;
 import com.FinanceTracker.data.transactionunit.TransactionType;
 import com.FinanceTracker.exceptions.IncorrectInputException;
 
@@ -55,6 +56,36 @@ public class InputConverter {
         }
     }
 
+    public static int convertCount(String countString) throws IncorrectInputException {
+        try {
+            int count = Integer.parseInt(countString);
+            if (count <= 0)
+                throw new IncorrectInputException("Count must be positive: " + countString);
+            return count;
+        } catch (NumberFormatException e) {
+            throw new IncorrectInputException("Input string cannot be represented as number: " + countString);
+        }
+    }
+
+    public static double convertPercentile(String percentileString) throws IncorrectInputException {
+        try {
+            double percentile = Double.parseDouble(percentileString);
+            if (!(percentile >= 0 && percentile <= 100))
+                throw new IncorrectInputException("Percentile must be between 0 and 100: " + percentileString);
+            return percentile / 100;
+        } catch (NumberFormatException e) {
+            throw new IncorrectInputException("Input string cannot be represented as decimal number: " + percentileString);
+        }
+    }
+
+    public static PartitionPeriod convertPartitionPeriod(String partitionPeriodString) throws IncorrectInputException {
+        try {
+            return PartitionPeriod.valueOf(partitionPeriodString);
+        } catch (IllegalArgumentException e) {
+            throw new IncorrectInputException("Incorrect partition period: " + partitionPeriodString);
+        }
+    }
+
     public static Path convertPath(String pathString) throws IncorrectInputException {
         try {
             Path path = Paths.get(pathString);
@@ -65,4 +96,33 @@ public class InputConverter {
             throw new IncorrectInputException("Incorrect path format " + pathString);
         }
     }
+
+    public static String convertLedgerName(String ledgerNameString, Path path) throws IncorrectInputException {
+        String ledgerName = ledgerNameString;
+        if (ledgerName.isEmpty() && path.getFileName() != null) {
+            ledgerName = path.getFileName().toString();
+            if (ledgerName.lastIndexOf('.') > 0)
+                ledgerName = ledgerName.substring(0, ledgerName.lastIndexOf('.'));
+        }
+
+        if (ledgerName.isEmpty() || ledgerName.indexOf(LedgerTransactionId.SEPARATOR) >= 0
+                || ledgerName.chars().anyMatch(Character::isWhitespace))
+            throw new IncorrectInputException("Ledger name must be non-empty and contain neither spaces nor '"
+                    + LedgerTransactionId.SEPARATOR + "': " + ledgerName);
+        return ledgerName;
+    }
+
+    public static LedgerTransactionId convertLedgerTransactionId(String ledgerTransactionIdString)
+            throws IncorrectInputException
+    {
+        int separatorIndex = ledgerTransactionIdString.lastIndexOf(LedgerTransactionId.SEPARATOR);
+        if (separatorIndex < 0)
+            return new LedgerTransactionId(null, convertId(ledgerTransactionIdString));
+        if (separatorIndex == 0)
+            throw new IncorrectInputException("Ledger name is missing before '" + LedgerTransactionId.SEPARATOR + "': "
+                    + ledgerTransactionIdString);
+
+        return new LedgerTransactionId(ledgerTransactionIdString.substring(0, separatorIndex),
+                convertId(ledgerTransactionIdString.substring(separatorIndex + 1)));
+    }
 }
@@ -0,0 +1,45 @@
+package com.FinanceTracker.logic;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class LargestTransactionsCollector {
+    private static final Comparator<StoredTransaction> SUM_ORDER =
+            Comparator.comparing((StoredTransaction storedTransaction) -> storedTransaction.transaction().sum())
+                    .thenComparing(StoredTransaction::id, Comparator.reverseOrder());
+
+    private final int capacity;
+    private final PriorityQueue<StoredTransaction> smallestFirst;
+
+    public LargestTransactionsCollector(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+
+        this.capacity = capacity;
+        this.smallestFirst = new PriorityQueue<>(capacity, SUM_ORDER);
+    }
+
+    public void add(StoredTransaction storedTransaction) {
+        if (smallestFirst.size() < capacity) {
+            smallestFirst.add(storedTransaction);
+        } else if (SUM_ORDER.compare(storedTransaction, smallestFirst.peek()) > 0) {
+            smallestFirst.poll();
+            smallestFirst.add(storedTransaction);
+        }
+    }
+
+    public void merge(LargestTransactionsCollector other) {
+        for (StoredTransaction storedTransaction : other.smallestFirst)
+            add(storedTransaction);
+    }
+
+    public List<StoredTransaction> getLargestTransactions() {
+        List<StoredTransaction> largestTransactions = new ArrayList<>(smallestFirst);
+        largestTransactions.sort(SUM_ORDER.reversed());
+        return largestTransactions;
+    }
+}
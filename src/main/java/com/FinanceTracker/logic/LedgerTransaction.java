@@ -0,0 +1,21 @@
+package com.FinanceTracker.logic;
+
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+
+import java.util.Comparator;
+
+public record LedgerTransaction(String ledgerName, int id, Transaction transaction) {
+    static final Comparator<LedgerTransaction> BY_SUM_DESCENDING =
+            Comparator.comparing((LedgerTransaction ledgerTransaction) -> ledgerTransaction.transaction().sum())
+                    .reversed()
+                    .thenComparingInt(LedgerTransaction::id);
+
+    public static LedgerTransaction inProgram(StoredTransaction storedTransaction) {
+        return new LedgerTransaction(null, storedTransaction.id(), storedTransaction.transaction());
+    }
+
+    public LedgerTransactionId ledgerTransactionId() {
+        return new LedgerTransactionId(ledgerName, id);
+    }
+}
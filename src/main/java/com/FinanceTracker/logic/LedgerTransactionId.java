@@ -0,0 +1,10 @@
+package com.FinanceTracker.logic;
+
+public record LedgerTransactionId(String ledgerName, int id) {
+    public static final char SEPARATOR = ':';
+
+    @Override
+    public String toString() {
+        return ledgerName == null ? String.valueOf(id) : ledgerName + SEPARATOR + id;
+    }
+}
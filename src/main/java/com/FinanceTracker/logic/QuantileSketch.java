@@ -0,0 +1,117 @@
+package com.FinanceTracker.logic;
+
+import java.util.Arrays;
+
+public class QuantileSketch {
+    private static final double DEFAULT_RELATIVE_ACCURACY = 0.005;
+    private static final double MIN_INDEXED_VALUE = 1e-9;
+    private static final int INITIAL_BUCKETS_COUNT = 128;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] bucketCounts = new long[0];
+    private int firstBucketIndex = 0;
+    private long zeroCount = 0;
+    private long count = 0;
+    private double minValue = Double.POSITIVE_INFINITY;
+    private double maxValue = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1)
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1: " + relativeAccuracy);
+
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value < 0 || Double.isNaN(value) || Double.isInfinite(value))
+            throw new IllegalArgumentException("Only finite non-negative values can be added: " + value);
+
+        if (value < MIN_INDEXED_VALUE)
+            zeroCount++;
+        else
+            addToBucket(bucketIndex(value), 1);
+
+        count++;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy)
+            throw new IllegalArgumentException("Sketches with different relative accuracies can't be merged.");
+        if (other.count == 0)
+            return;
+
+        for (int bucket = 0; bucket < other.bucketCounts.length; bucket++) {
+            if (other.bucketCounts[bucket] > 0)
+                addToBucket(other.firstBucketIndex + bucket, other.bucketCounts[bucket]);
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1)
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        if (count == 0)
+            throw new IllegalStateException("The sketch is empty.");
+
+        long rank = (long) Math.floor(quantile * (count - 1));
+        if (rank == 0 || rank < zeroCount)
+            return minValue;
+        if (rank == count - 1)
+            return maxValue;
+
+        long seenCount = zeroCount;
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            seenCount += bucketCounts[bucket];
+            if (seenCount > rank)
+                return Math.clamp(bucketValue(firstBucketIndex + bucket), minValue, maxValue);
+        }
+        return maxValue;
+    }
+
+    private int bucketIndex(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double bucketValue(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private void addToBucket(int index, long bucketCount) {
+        if (bucketCounts.length == 0) {
+            bucketCounts = new long[INITIAL_BUCKETS_COUNT];
+            firstBucketIndex = index - INITIAL_BUCKETS_COUNT / 2;
+        }
+
+        if (index < firstBucketIndex) {
+            int newFirstBucketIndex = Math.min(index, firstBucketIndex - bucketCounts.length / 2);
+            long[] grownBucketCounts = new long[bucketCounts.length + firstBucketIndex - newFirstBucketIndex];
+            System.arraycopy(bucketCounts, 0, grownBucketCounts, firstBucketIndex - newFirstBucketIndex,
+                    bucketCounts.length);
+            bucketCounts = grownBucketCounts;
+            firstBucketIndex = newFirstBucketIndex;
+        } else if (index >= firstBucketIndex + bucketCounts.length) {
+            int newLength = Math.max(index - firstBucketIndex + 1, bucketCounts.length + bucketCounts.length / 2);
+            bucketCounts = Arrays.copyOf(bucketCounts, newLength);
+        }
+
+        bucketCounts[index - firstBucketIndex] += bucketCount;
+    }
+}
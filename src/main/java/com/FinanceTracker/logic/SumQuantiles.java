@@ -0,0 +1,8 @@
+package com.FinanceTracker.logic;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+public record SumQuantiles(double quantile, Map<YearMonth, BigDecimal> monthlySums, BigDecimal wholePeriodSum) {
+}
@@ -0,0 +1,223 @@
+package com.FinanceTracker.logic;
+
+import com.FinanceTracker.data.transactionsstoring.TransactionStorageListener;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class TransactionAggregator implements TransactionStorageListener {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int TYPES_COUNT = TransactionType.values().length;
+    private static final int NO_NODE = -1;
+
+    private long[] epochSeconds = new long[INITIAL_CAPACITY];
+    private int[] nanos = new int[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private TransactionType[] types = new TransactionType[INITIAL_CAPACITY];
+    private BigDecimal[] sums = new BigDecimal[INITIAL_CAPACITY];
+    private int[] priorities = new int[INITIAL_CAPACITY];
+    private int[] leftChildren = new int[INITIAL_CAPACITY];
+    private int[] rightChildren = new int[INITIAL_CAPACITY];
+    private final BigDecimal[][] subtreeSums = new BigDecimal[TYPES_COUNT][INITIAL_CAPACITY];
+    private int root = NO_NODE;
+    private int usedNodesCount = 0;
+    private int firstFreeNode = NO_NODE;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    public synchronized void transactionAdded(int id, Transaction transaction) {
+        int node = allocateNode();
+        long epochSecond = transaction.dateTime().toEpochSecond(ZoneOffset.UTC);
+        int nano = transaction.dateTime().getNano();
+        epochSeconds[node] = epochSecond;
+        nanos[node] = nano;
+        ids[node] = id;
+        types[node] = transaction.type();
+        sums[node] = transaction.sum();
+        priorities[node] = random.nextInt();
+
+        int parent = NO_NODE;
+        boolean isLeftChild = false;
+        int current = root;
+        while (current != NO_NODE && priorities[current] > priorities[node]) {
+            addToSubtreeSum(current, transaction.type(), transaction.sum());
+            parent = current;
+            isLeftChild = compare(current, epochSecond, nano, id) > 0;
+            current = isLeftChild ? leftChildren[current] : rightChildren[current];
+        }
+
+        int[] parts = split(current, epochSecond, nano, id);
+        leftChildren[node] = parts[0];
+        rightChildren[node] = parts[1];
+        updateSubtreeSums(node);
+        replaceChild(parent, isLeftChild, node);
+    }
+
+    public synchronized void transactionRemoved(int id, Transaction transaction) {
+        long epochSecond = transaction.dateTime().toEpochSecond(ZoneOffset.UTC);
+        int nano = transaction.dateTime().getNano();
+
+        int node = root;
+        int comparison;
+        while (node != NO_NODE && (comparison = compare(node, epochSecond, nano, id)) != 0)
+            node = comparison < 0 ? rightChildren[node] : leftChildren[node];
+        if (node == NO_NODE)
+            return;
+
+        int parent = NO_NODE;
+        boolean isLeftChild = false;
+        int current = root;
+        while (current != node) {
+            addToSubtreeSum(current, types[node], sums[node].negate());
+            parent = current;
+            isLeftChild = compare(current, epochSecond, nano, id) > 0;
+            current = isLeftChild ? leftChildren[current] : rightChildren[current];
+        }
+
+        replaceChild(parent, isLeftChild, merge(leftChildren[node], rightChildren[node]));
+        freeNode(node);
+    }
+
+    public synchronized BigDecimal getTotalBetweenDates(TransactionType type, LocalDateTime startDateTime,
+                                                        LocalDateTime endDateTime)
+    {
+        if (!startDateTime.isBefore(endDateTime))
+            return BigDecimal.ZERO;
+
+        return sumBefore(type, endDateTime, false).subtract(sumBefore(type, startDateTime, true));
+    }
+
+    public synchronized BigDecimal getBalanceBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return getTotalBetweenDates(TransactionType.INCOME, startDateTime, endDateTime)
+                .subtract(getTotalBetweenDates(TransactionType.EXPENSE, startDateTime, endDateTime));
+    }
+
+    private BigDecimal sumBefore(TransactionType type, LocalDateTime dateTime, boolean isDateTimeIncluded) {
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        int nano = dateTime.getNano();
+
+        BigDecimal sum = BigDecimal.ZERO;
+        int node = root;
+        while (node != NO_NODE) {
+            int comparison = compareDateTime(node, epochSecond, nano);
+            if (comparison < 0 || comparison == 0 && isDateTimeIncluded) {
+                sum = sum.add(subtreeSum(type, leftChildren[node]));
+                if (types[node] == type)
+                    sum = sum.add(sums[node]);
+                node = rightChildren[node];
+            } else {
+                node = leftChildren[node];
+            }
+        }
+        return sum;
+    }
+
+    private int[] split(int node, long epochSecond, int nano, int id) {
+        if (node == NO_NODE)
+            return new int[] {NO_NODE, NO_NODE};
+
+        if (compare(node, epochSecond, nano, id) < 0) {
+            int[] parts = split(rightChildren[node], epochSecond, nano, id);
+            rightChildren[node] = parts[0];
+            updateSubtreeSums(node);
+            parts[0] = node;
+            return parts;
+        }
+
+        int[] parts = split(leftChildren[node], epochSecond, nano, id);
+        leftChildren[node] = parts[1];
+        updateSubtreeSums(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private int merge(int leftNode, int rightNode) {
+        if (leftNode == NO_NODE)
+            return rightNode;
+        if (rightNode == NO_NODE)
+            return leftNode;
+
+        if (priorities[leftNode] > priorities[rightNode]) {
+            rightChildren[leftNode] = merge(rightChildren[leftNode], rightNode);
+            updateSubtreeSums(leftNode);
+            return leftNode;
+        }
+
+        leftChildren[rightNode] = merge(leftNode, leftChildren[rightNode]);
+        updateSubtreeSums(rightNode);
+        return rightNode;
+    }
+
+    private void replaceChild(int parent, boolean isLeftChild, int newChild) {
+        if (parent == NO_NODE)
+            root = newChild;
+        else if (isLeftChild)
+            leftChildren[parent] = newChild;
+        else
+            rightChildren[parent] = newChild;
+    }
+
+    private int compare(int node, long epochSecond, int nano, int id) {
+        int comparison = compareDateTime(node, epochSecond, nano);
+        return comparison != 0 ? comparison : Integer.compare(ids[node], id);
+    }
+
+    private int compareDateTime(int node, long epochSecond, int nano) {
+        int comparison = Long.compare(epochSeconds[node], epochSecond);
+        return comparison != 0 ? comparison : Integer.compare(nanos[node], nano);
+    }
+
+    private void updateSubtreeSums(int node) {
+        for (TransactionType type : TransactionType.values()) {
+            BigDecimal subtreeSum = subtreeSum(type, leftChildren[node]).add(subtreeSum(type, rightChildren[node]));
+            subtreeSums[type.ordinal()][node] = types[node] == type ? subtreeSum.add(sums[node]) : subtreeSum;
+        }
+    }
+
+    private void addToSubtreeSum(int node, TransactionType type, BigDecimal sum) {
+        subtreeSums[type.ordinal()][node] = subtreeSums[type.ordinal()][node].add(sum);
+    }
+
+    private BigDecimal subtreeSum(TransactionType type, int node) {
+        return node == NO_NODE ? BigDecimal.ZERO : subtreeSums[type.ordinal()][node];
+    }
+
+    private int allocateNode() {
+        if (firstFreeNode != NO_NODE) {
+            int node = firstFreeNode;
+            firstFreeNode = rightChildren[node];
+            return node;
+        }
+
+        ensureCapacity(usedNodesCount + 1);
+        return usedNodesCount++;
+    }
+
+    private void freeNode(int node) {
+        sums[node] = null;
+        rightChildren[node] = firstFreeNode;
+        firstFreeNode = node;
+    }
+
+    private void ensureCapacity(int requiredCapacity) {
+        if (requiredCapacity <= epochSeconds.length)
+            return;
+
+        int newCapacity = Math.max(requiredCapacity, epochSeconds.length * 2);
+        epochSeconds = Arrays.copyOf(epochSeconds, newCapacity);
+        nanos = Arrays.copyOf(nanos, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+        sums = Arrays.copyOf(sums, newCapacity);
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        leftChildren = Arrays.copyOf(leftChildren, newCapacity);
+        rightChildren = Arrays.copyOf(rightChildren, newCapacity);
+        for (int typeIndex = 0; typeIndex < TYPES_COUNT; typeIndex++)
+            subtreeSums[typeIndex] = Arrays.copyOf(subtreeSums[typeIndex], newCapacity);
+    }
+}
@@ -1,13 +1,18 @@
 package com.FinanceTracker.logic;
 
 import com.FinanceTracker.data.transactionsstoring.TransactionStorage;
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
 import com.FinanceTracker.data.transactionunit.Transaction;
 import com.FinanceTracker.exceptions.NoTransactionsException;
 
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 public class TransactionCopier {
+    private static final int COPY_BATCH_SIZE = 1 << 16;
 
     private TransactionCopier() {}
 
@@ -22,9 +27,48 @@ public class TransactionCopier {
                                                     TransactionStorage sourceStorage, TransactionStorage targetStorage)
             throws NoTransactionsException
     {
-        Map<Integer, Transaction> searchedTransactions = sourceStorage.getTransactionsBetweenDates(startDateTime, endDateTime);
+        long copiedTransactionsCount = copyInBatches(startDateTime, endDateTime, sourceStorage, targetStorage);
 
-        for (Transaction transaction: searchedTransactions.values())
-            targetStorage.addTransaction(transaction);
+        if (copiedTransactionsCount == 0)
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+    }
+
+    public static void copyTransactionsBetweenDates(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                                    List<TransactionStorage> sourceStorages,
+                                                    TransactionStorage targetStorage)
+            throws NoTransactionsException
+    {
+        long copiedTransactionsCount = 0;
+        for (TransactionStorage sourceStorage : sourceStorages)
+            copiedTransactionsCount += copyInBatches(startDateTime, endDateTime, sourceStorage, targetStorage);
+
+        if (copiedTransactionsCount == 0)
+            throw new NoTransactionsException("No transactions between " + startDateTime + " and " + endDateTime + ".");
+    }
+
+    private static long copyInBatches(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                      TransactionStorage sourceStorage, TransactionStorage targetStorage)
+    {
+        long copiedTransactionsCount = 0;
+        List<Transaction> transactionsBatch = new ArrayList<>();
+
+        try (Stream<StoredTransaction> searchedTransactions =
+                     sourceStorage.streamTransactionsBetweenDates(startDateTime, endDateTime)) {
+            Iterator<StoredTransaction> transactionsIterator = searchedTransactions.iterator();
+            while (transactionsIterator.hasNext()) {
+                transactionsBatch.add(transactionsIterator.next().transaction());
+                if (transactionsBatch.size() == COPY_BATCH_SIZE) {
+                    targetStorage.addTransactions(transactionsBatch);
+                    copiedTransactionsCount += transactionsBatch.size();
+                    transactionsBatch.clear();
+                }
+            }
+        }
+
+        if (!transactionsBatch.isEmpty()) {
+            targetStorage.addTransactions(transactionsBatch);
+            copiedTransactionsCount += transactionsBatch.size();
+        }
+        return copiedTransactionsCount;
     }
 }
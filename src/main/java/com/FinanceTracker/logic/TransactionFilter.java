@@ -0,0 +1,101 @@
+package com.FinanceTracker.logic;
+
+import com.FinanceTracker.data.transactionsstoring.TransactionScanCriteria;
+import com.FinanceTracker.data.transactionsstoring.TransactionStorage;
+import com.FinanceTracker.data.transactionunit.StoredTransaction;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public final class TransactionFilter {
+    private static final TransactionFilter ALL = new TransactionFilter(TransactionScanCriteria.ALL, null);
+
+    private final TransactionScanCriteria scanCriteria;
+    private final Predicate<Transaction> residualPredicate;
+
+    private TransactionFilter(TransactionScanCriteria scanCriteria, Predicate<Transaction> residualPredicate) {
+        this.scanCriteria = scanCriteria;
+        this.residualPredicate = residualPredicate;
+    }
+
+    public static TransactionFilter all() {
+        return ALL;
+    }
+
+    public static TransactionFilter between(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return new TransactionFilter(TransactionScanCriteria.between(startDateTime, endDateTime), null);
+    }
+
+    public static TransactionFilter ofType(TransactionType transactionType) {
+        return new TransactionFilter(new TransactionScanCriteria(LocalDateTime.MIN, LocalDateTime.MAX,
+                EnumSet.of(transactionType), null, null), null);
+    }
+
+    public static TransactionFilter sumBetween(BigDecimal minSum, BigDecimal maxSum) {
+        return new TransactionFilter(new TransactionScanCriteria(LocalDateTime.MIN, LocalDateTime.MAX,
+                TransactionScanCriteria.ALL.types(), minSum, maxSum), null);
+    }
+
+    public static TransactionFilter sumAtLeast(BigDecimal minSum) {
+        return sumBetween(minSum, null);
+    }
+
+    public static TransactionFilter sumAtMost(BigDecimal maxSum) {
+        return sumBetween(null, maxSum);
+    }
+
+    public TransactionFilter and(TransactionFilter other) {
+        Predicate<Transaction> combinedPredicate;
+        if (residualPredicate == null)
+            combinedPredicate = other.residualPredicate;
+        else if (other.residualPredicate == null)
+            combinedPredicate = residualPredicate;
+        else
+            combinedPredicate = residualPredicate.and(other.residualPredicate);
+
+        return new TransactionFilter(scanCriteria.intersect(other.scanCriteria), combinedPredicate);
+    }
+
+    public TransactionFilter or(TransactionFilter other) {
+        if (isEmpty())
+            return other;
+        if (other.isEmpty())
+            return this;
+
+        TransactionScanCriteria spanCriteria = scanCriteria.span(other.scanCriteria);
+        if (spanCriteria.equals(scanCriteria) && residualPredicate == null)
+            return this;
+        if (spanCriteria.equals(other.scanCriteria) && other.residualPredicate == null)
+            return other;
+
+        return new TransactionFilter(spanCriteria, transaction -> test(transaction) || other.test(transaction));
+    }
+
+    public boolean isEmpty() {
+        return scanCriteria.isEmpty();
+    }
+
+    public LocalDateTime startDateTime() {
+        return scanCriteria.startDateTime();
+    }
+
+    public LocalDateTime endDateTime() {
+        return scanCriteria.endDateTime();
+    }
+
+    public boolean test(Transaction transaction) {
+        return scanCriteria.matches(transaction) && (residualPredicate == null || residualPredicate.test(transaction));
+    }
+
+    Stream<StoredTransaction> streamFrom(TransactionStorage storage) {
+        Stream<StoredTransaction> scannedTransactions = storage.streamTransactionsMatching(scanCriteria);
+        if (residualPredicate == null)
+            return scannedTransactions;
+        return scannedTransactions.filter(storedTransaction -> residualPredicate.test(storedTransaction.transaction()));
+    }
+}
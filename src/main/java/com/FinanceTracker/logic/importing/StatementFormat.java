@@ -0,0 +1,246 @@
+package com.FinanceTracker.logic.importing;
+
+import com.FinanceTracker.exceptions.StatementFormatException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class StatementFormat {
+    private final char delimiter;
+    private final char quote;
+    private final boolean hasHeader;
+    private final int skippedLinesCount;
+    private final Charset charset;
+
+    private final String dateColumn;
+    private final DateTimeFormatter dateFormatter;
+    private final String timeColumn;
+    private final DateTimeFormatter timeFormatter;
+
+    private final String amountColumn;
+    private final String creditColumn;
+    private final String debitColumn;
+    private final String typeColumn;
+    private final Set<String> incomeTypeValues;
+    private final Set<String> expenseTypeValues;
+    private final AmountSign amountSign;
+    private final char decimalSeparator;
+    private final String thousandsSeparator;
+
+    private final boolean rejectsFutureDates;
+
+    public enum AmountSign {
+        NEGATIVE_IS_EXPENSE,
+        NEGATIVE_IS_INCOME
+    }
+
+    private StatementFormat(Properties properties) throws StatementFormatException {
+        delimiter = getCharacter(properties, "delimiter", ',');
+        quote = getCharacter(properties, "quote", '"');
+        hasHeader = Boolean.parseBoolean(properties.getProperty("header", "true").trim());
+        skippedLinesCount = getNonNegativeInt(properties, "skip.lines");
+        charset = getCharset(properties);
+
+        dateColumn = getRequired(properties, "date.column");
+        dateFormatter = getFormatter(properties, "date.format", "yyyy-MM-dd");
+        timeColumn = getOptional(properties, "time.column");
+        timeFormatter = getFormatter(properties, "time.format", "HH:mm[:ss]");
+
+        amountColumn = getOptional(properties, "amount.column");
+        creditColumn = getOptional(properties, "credit.column");
+        debitColumn = getOptional(properties, "debit.column");
+        typeColumn = getOptional(properties, "type.column");
+        incomeTypeValues = getValues(properties, "type.income");
+        expenseTypeValues = getValues(properties, "type.expense");
+        amountSign = getAmountSign(properties);
+        decimalSeparator = getCharacter(properties, "decimal.separator", '.');
+        thousandsSeparator = properties.getProperty("thousands.separator", "");
+
+        rejectsFutureDates = Boolean.parseBoolean(properties.getProperty("reject.future.dates", "true").trim());
+
+        if (amountColumn == null && (creditColumn == null || debitColumn == null))
+            throw new StatementFormatException("Either amount.column or both credit.column and debit.column must be set.");
+        if (typeColumn != null && (incomeTypeValues.isEmpty() || expenseTypeValues.isEmpty()))
+            throw new StatementFormatException("type.income and type.expense must be set when type.column is used.");
+    }
+
+    public static StatementFormat load(Path propertiesPath) throws StatementFormatException {
+        Properties properties = new Properties();
+        try (Reader propertiesReader = Files.newBufferedReader(propertiesPath, StandardCharsets.UTF_8)) {
+            properties.load(propertiesReader);
+        } catch (IOException e) {
+            throw new StatementFormatException("The statement format file can't be read: " + propertiesPath);
+        }
+
+        return new StatementFormat(properties);
+    }
+
+    private static String getRequired(Properties properties, String key) throws StatementFormatException {
+        String value = getOptional(properties, key);
+        if (value == null)
+            throw new StatementFormatException("The statement format must set " + key + ".");
+        return value;
+    }
+
+    private static String getOptional(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static char getCharacter(Properties properties, String key, char defaultValue)
+            throws StatementFormatException
+    {
+        String value = properties.getProperty(key);
+        if (value == null || value.isEmpty())
+            return defaultValue;
+        if (value.equals("\\t"))
+            return '\t';
+        if (value.length() != 1)
+            throw new StatementFormatException(key + " must be a single character: " + value);
+        return value.charAt(0);
+    }
+
+    private static int getNonNegativeInt(Properties properties, String key) throws StatementFormatException {
+        String value = properties.getProperty(key, "0").trim();
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0)
+                throw new NumberFormatException();
+            return number;
+        } catch (NumberFormatException e) {
+            throw new StatementFormatException(key + " must be a non-negative number: " + value);
+        }
+    }
+
+    private static Charset getCharset(Properties properties) throws StatementFormatException {
+        String value = properties.getProperty("charset", "UTF-8").trim();
+        try {
+            return Charset.forName(value);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new StatementFormatException("Unsupported charset: " + value);
+        }
+    }
+
+    private static DateTimeFormatter getFormatter(Properties properties, String key, String defaultPattern)
+            throws StatementFormatException
+    {
+        String pattern = properties.getProperty(key, defaultPattern).trim();
+        try {
+            return new DateTimeFormatterBuilder()
+                    .appendPattern(pattern)
+                    .parseDefaulting(ChronoField.ERA, 1)
+                    .toFormatter()
+                    .withResolverStyle(ResolverStyle.STRICT);
+        } catch (IllegalArgumentException e) {
+            throw new StatementFormatException("Incorrect " + key + " pattern: " + pattern);
+        }
+    }
+
+    private static Set<String> getValues(Properties properties, String key) {
+        String values = properties.getProperty(key, "");
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static AmountSign getAmountSign(Properties properties) throws StatementFormatException {
+        String value = properties.getProperty("amount.sign", AmountSign.NEGATIVE_IS_EXPENSE.name()).trim();
+        try {
+            return AmountSign.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new StatementFormatException("Incorrect amount.sign: " + value);
+        }
+    }
+
+    char getDelimiter() {
+        return delimiter;
+    }
+
+    char getQuote() {
+        return quote;
+    }
+
+    boolean hasHeader() {
+        return hasHeader;
+    }
+
+    int getSkippedLinesCount() {
+        return skippedLinesCount;
+    }
+
+    Charset getCharset() {
+        return charset;
+    }
+
+    String getDateColumn() {
+        return dateColumn;
+    }
+
+    DateTimeFormatter getDateFormatter() {
+        return dateFormatter;
+    }
+
+    String getTimeColumn() {
+        return timeColumn;
+    }
+
+    DateTimeFormatter getTimeFormatter() {
+        return timeFormatter;
+    }
+
+    String getAmountColumn() {
+        return amountColumn;
+    }
+
+    String getCreditColumn() {
+        return creditColumn;
+    }
+
+    String getDebitColumn() {
+        return debitColumn;
+    }
+
+    String getTypeColumn() {
+        return typeColumn;
+    }
+
+    Set<String> getIncomeTypeValues() {
+        return incomeTypeValues;
+    }
+
+    Set<String> getExpenseTypeValues() {
+        return expenseTypeValues;
+    }
+
+    AmountSign getAmountSign() {
+        return amountSign;
+    }
+
+    char getDecimalSeparator() {
+        return decimalSeparator;
+    }
+
+    String getThousandsSeparator() {
+        return thousandsSeparator;
+    }
+
+    boolean rejectsFutureDates() {
+        return rejectsFutureDates;
+    }
+}
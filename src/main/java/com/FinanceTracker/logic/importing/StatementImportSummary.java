@@ -0,0 +1,24 @@
+package com.FinanceTracker.logic.importing;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public record StatementImportSummary(Path statementPath, long readLinesCount, long importedCount, long rejectedCount,
+                                     List<String> rejectedLines, String failure) {
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(statementPath.toString())
+                .append(": read ").append(readLinesCount).append(" lines, imported ").append(importedCount)
+                .append(", rejected ").append(rejectedCount);
+
+        for (String rejectedLine : rejectedLines)
+            summary.append("\n  ").append(rejectedLine);
+        if (rejectedCount > rejectedLines.size())
+            summary.append("\n  ... and ").append(rejectedCount - rejectedLines.size()).append(" more");
+        if (failure != null)
+            summary.append("\n  Import stopped: ").append(failure);
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,267 @@
+package com.FinanceTracker.logic.importing;
+
+import com.FinanceTracker.data.transactionsstoring.TransactionStorage;
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.exceptions.StatementFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StatementImporter {
+    private static final int LINES_PER_BATCH = 1024;
+    private static final int STAGE_QUEUE_CAPACITY = 16;
+    private static final int INSERT_QUEUE_CAPACITY = 64;
+    private static final int MAX_REPORTED_REJECTIONS = 20;
+
+    private static final LineBatch END_OF_LINES = new LineBatch(-1, List.of());
+    private static final List<StatementLineParser.ParsedLine> END_OF_PARSED_LINES = new ArrayList<>();
+
+    private final StatementFormat format;
+    private final TransactionStorage targetStorage;
+    private final boolean isTargetConcurrent;
+
+    public StatementImporter(StatementFormat format, TransactionStorage targetStorage) {
+        this(format, targetStorage, false);
+    }
+
+    public StatementImporter(StatementFormat format, TransactionStorage targetStorage, boolean isTargetConcurrent) {
+        this.format = format;
+        this.targetStorage = targetStorage;
+        this.isTargetConcurrent = isTargetConcurrent;
+    }
+
+    public List<StatementImportSummary> importStatements(List<Path> statementPaths) {
+        LocalDateTime importDateTime = LocalDateTime.now();
+        List<StatementProgress> statementProgresses = new ArrayList<>();
+        BlockingQueue<InsertBatch> insertQueue = new ArrayBlockingQueue<>(INSERT_QUEUE_CAPACITY);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path statementPath : statementPaths) {
+                StatementProgress statementProgress = new StatementProgress(statementPath);
+                statementProgresses.add(statementProgress);
+
+                BlockingQueue<LineBatch> lineQueue = new ArrayBlockingQueue<>(STAGE_QUEUE_CAPACITY);
+                BlockingQueue<List<StatementLineParser.ParsedLine>> parsedLineQueue =
+                        new ArrayBlockingQueue<>(STAGE_QUEUE_CAPACITY);
+
+                executor.submit(() -> readLines(statementProgress, lineQueue));
+                executor.submit(() -> parseLines(statementProgress, lineQueue, parsedLineQueue));
+                executor.submit(() -> validateLines(statementProgress, parsedLineQueue, insertQueue, importDateTime));
+            }
+            if (!isTargetConcurrent)
+                executor.submit(() -> insertBatches(insertQueue, statementPaths.size()));
+        }
+
+        return statementProgresses.stream().map(StatementProgress::toSummary).toList();
+    }
+
+    private void readLines(StatementProgress statementProgress, BlockingQueue<LineBatch> lineQueue) {
+        try (BufferedReader statementReader = Files.newBufferedReader(statementProgress.statementPath,
+                format.getCharset())) {
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(LINES_PER_BATCH);
+            String line;
+            while ((line = statementReader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= format.getSkippedLinesCount())
+                    continue;
+
+                lines.add(line);
+                if (lines.size() == LINES_PER_BATCH) {
+                    lineQueue.put(new LineBatch(lineNumber - lines.size() + 1, lines));
+                    lines = new ArrayList<>(LINES_PER_BATCH);
+                }
+            }
+            if (!lines.isEmpty())
+                lineQueue.put(new LineBatch(lineNumber - lines.size() + 1, lines));
+        } catch (IOException | UncheckedIOException e) {
+            statementProgress.fail("the statement can't be read");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        putQuietly(lineQueue, END_OF_LINES);
+    }
+
+    private void parseLines(StatementProgress statementProgress, BlockingQueue<LineBatch> lineQueue,
+                            BlockingQueue<List<StatementLineParser.ParsedLine>> parsedLineQueue)
+    {
+        try {
+            StatementLineParser lineParser = null;
+            LineBatch lineBatch;
+            while ((lineBatch = lineQueue.take()) != END_OF_LINES) {
+                if (statementProgress.isFailed())
+                    continue;
+
+                List<String> lines = lineBatch.lines();
+                int firstDataLine = 0;
+                if (lineParser == null) {
+                    try {
+                        lineParser = new StatementLineParser(format, format.hasHeader() ? lines.getFirst() : null);
+                    } catch (StatementFormatException e) {
+                        statementProgress.fail(e.getMessage().trim());
+                        continue;
+                    }
+                    firstDataLine = format.hasHeader() ? 1 : 0;
+                }
+
+                List<StatementLineParser.ParsedLine> parsedLines = new ArrayList<>(lines.size());
+                for (int i = firstDataLine; i < lines.size(); i++) {
+                    if (lines.get(i).isBlank())
+                        continue;
+
+                    statementProgress.readLinesCount++;
+                    parsedLines.add(lineParser.parse(lineBatch.firstLineNumber() + i, lines.get(i)));
+                }
+                parsedLineQueue.put(parsedLines);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        putQuietly(parsedLineQueue, END_OF_PARSED_LINES);
+    }
+
+    private void validateLines(StatementProgress statementProgress,
+                               BlockingQueue<List<StatementLineParser.ParsedLine>> parsedLineQueue,
+                               BlockingQueue<InsertBatch> insertQueue, LocalDateTime importDateTime)
+    {
+        try {
+            List<StatementLineParser.ParsedLine> parsedLines;
+            while ((parsedLines = parsedLineQueue.take()) != END_OF_PARSED_LINES) {
+                List<Transaction> transactions = new ArrayList<>(parsedLines.size());
+                for (StatementLineParser.ParsedLine parsedLine : parsedLines) {
+                    String rejection = parsedLine.rejection() != null ? parsedLine.rejection()
+                            : validate(parsedLine.transaction(), importDateTime);
+
+                    if (rejection == null)
+                        transactions.add(parsedLine.transaction());
+                    else
+                        statementProgress.reject(parsedLine.lineNumber(), rejection);
+                }
+
+                if (transactions.isEmpty())
+                    continue;
+                if (isTargetConcurrent)
+                    insert(statementProgress, transactions);
+                else
+                    insertQueue.put(new InsertBatch(statementProgress, transactions, false));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (!isTargetConcurrent)
+            putQuietly(insertQueue, new InsertBatch(statementProgress, List.of(), true));
+    }
+
+    private String validate(Transaction transaction, LocalDateTime importDateTime) {
+        if (transaction.sum().compareTo(BigDecimal.ZERO) == 0)
+            return "zero amount";
+        if (format.rejectsFutureDates() && transaction.dateTime().isAfter(importDateTime))
+            return "date in the future";
+        return null;
+    }
+
+    private void insertBatches(BlockingQueue<InsertBatch> insertQueue, int statementsCount) {
+        int finishedStatementsCount = 0;
+        try {
+            while (finishedStatementsCount < statementsCount) {
+                InsertBatch insertBatch = insertQueue.take();
+                StatementProgress statementProgress = insertBatch.statementProgress();
+
+                if (insertBatch.isLast())
+                    finishedStatementsCount++;
+                else
+                    insert(statementProgress, insertBatch.transactions());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void insert(StatementProgress statementProgress, List<Transaction> transactions) {
+        if (statementProgress.isFailed())
+            return;
+
+        try {
+            if (isTargetConcurrent) {
+                targetStorage.addTransactions(transactions);
+            } else {
+                synchronized (targetStorage) {
+                    targetStorage.addTransactions(transactions);
+                }
+            }
+            statementProgress.importedCount += transactions.size();
+        } catch (RuntimeException e) {
+            statementProgress.fail("the transactions can't be added: " + e.getMessage());
+        }
+    }
+
+    private static <T> void putQuietly(BlockingQueue<T> queue, T element) {
+        try {
+            queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record LineBatch(long firstLineNumber, List<String> lines) {
+    }
+
+    private record InsertBatch(StatementProgress statementProgress, List<Transaction> transactions, boolean isLast) {
+    }
+
+    private record Rejection(long lineNumber, String reason) {
+    }
+
+    private static class StatementProgress {
+        private final Path statementPath;
+        private long readLinesCount = 0;
+        private long importedCount = 0;
+        private long rejectedCount = 0;
+        private final List<Rejection> rejections = new ArrayList<>();
+        private volatile String failure;
+
+        private StatementProgress(Path statementPath) {
+            this.statementPath = statementPath;
+        }
+
+        private synchronized void reject(long lineNumber, String reason) {
+            rejectedCount++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS)
+                rejections.add(new Rejection(lineNumber, reason));
+        }
+
+        private void fail(String failure) {
+            if (this.failure == null)
+                this.failure = failure;
+        }
+
+        private boolean isFailed() {
+            return failure != null;
+        }
+
+        private synchronized StatementImportSummary toSummary() {
+            List<String> rejectedLines = rejections.stream()
+                    .map(rejection -> "line " + rejection.lineNumber() + ": " + rejection.reason())
+                    .toList();
+            return new StatementImportSummary(statementPath, readLinesCount, importedCount, rejectedCount,
+                    rejectedLines, failure);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.FinanceTracker.logic.importing;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionunit.TransactionType;
+import com.FinanceTracker.exceptions.StatementFormatException;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+
+class StatementLineParser {
+    private final StatementFormat format;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder fieldBuilder = new StringBuilder();
+
+    private final int dateIndex;
+    private final int timeIndex;
+    private final int amountIndex;
+    private final int creditIndex;
+    private final int debitIndex;
+    private final int typeIndex;
+
+    StatementLineParser(StatementFormat format, String headerLine) throws StatementFormatException {
+        this.format = format;
+
+        List<String> header = headerLine == null ? null : List.copyOf(split(headerLine));
+        dateIndex = resolveColumn(format.getDateColumn(), header);
+        timeIndex = resolveColumn(format.getTimeColumn(), header);
+        amountIndex = resolveColumn(format.getAmountColumn(), header);
+        creditIndex = resolveColumn(format.getCreditColumn(), header);
+        debitIndex = resolveColumn(format.getDebitColumn(), header);
+        typeIndex = resolveColumn(format.getTypeColumn(), header);
+    }
+
+    private static int resolveColumn(String column, List<String> header) throws StatementFormatException {
+        if (column == null)
+            return -1;
+
+        if (column.chars().allMatch(Character::isDigit)) {
+            int columnNumber = Integer.parseInt(column);
+            if (columnNumber < 1)
+                throw new StatementFormatException("Column numbers start from 1: " + column);
+            return columnNumber - 1;
+        }
+
+        if (header == null)
+            throw new StatementFormatException("Column " + column + " can be referenced by name only with a header.");
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(column))
+                return i;
+        }
+        throw new StatementFormatException("Column " + column + " isn't found in the statement header.");
+    }
+
+    ParsedLine parse(long lineNumber, String line) {
+        split(line);
+
+        LocalDateTime dateTime;
+        try {
+            dateTime = parseDateTime();
+        } catch (DateTimeException e) {
+            return ParsedLine.rejected(lineNumber, "incorrect date");
+        }
+
+        BigDecimal amount;
+        TransactionType type;
+        try {
+            if (amountIndex < 0) {
+                BigDecimal credit = parseAmountOrNull(field(creditIndex));
+                BigDecimal debit = parseAmountOrNull(field(debitIndex));
+                boolean isCredit = credit != null && credit.signum() != 0;
+                amount = isCredit ? credit : debit;
+                type = isCredit ? TransactionType.INCOME : TransactionType.EXPENSE;
+                if (amount == null)
+                    return ParsedLine.rejected(lineNumber, "no amount");
+            } else {
+                amount = parseAmountOrNull(field(amountIndex));
+                if (amount == null)
+                    return ParsedLine.rejected(lineNumber, "no amount");
+                type = typeIndex >= 0 ? typeFromColumn() : typeFromSign(amount);
+                if (type == null)
+                    return ParsedLine.rejected(lineNumber, "unknown type " + field(typeIndex).trim());
+            }
+        } catch (NumberFormatException e) {
+            return ParsedLine.rejected(lineNumber, "incorrect amount");
+        }
+
+        return ParsedLine.parsed(lineNumber, new Transaction(dateTime, type, amount.abs()));
+    }
+
+    private LocalDateTime parseDateTime() {
+        String date = field(dateIndex).trim();
+        if (timeIndex >= 0)
+            return LocalDate.parse(date, format.getDateFormatter())
+                    .atTime(LocalTime.parse(field(timeIndex).trim(), format.getTimeFormatter()));
+
+        TemporalAccessor parsedDate = format.getDateFormatter().parseBest(date, LocalDateTime::from, LocalDate::from);
+        return parsedDate instanceof LocalDateTime dateTime ? dateTime : ((LocalDate) parsedDate).atStartOfDay();
+    }
+
+    private TransactionType typeFromColumn() {
+        String typeValue = field(typeIndex).trim().toUpperCase();
+        if (format.getIncomeTypeValues().contains(typeValue))
+            return TransactionType.INCOME;
+        if (format.getExpenseTypeValues().contains(typeValue))
+            return TransactionType.EXPENSE;
+        return null;
+    }
+
+    private TransactionType typeFromSign(BigDecimal amount) {
+        boolean isNegative = amount.signum() < 0;
+        if (format.getAmountSign() == StatementFormat.AmountSign.NEGATIVE_IS_EXPENSE)
+            return isNegative ? TransactionType.EXPENSE : TransactionType.INCOME;
+        return isNegative ? TransactionType.INCOME : TransactionType.EXPENSE;
+    }
+
+    private BigDecimal parseAmountOrNull(String rawAmount) {
+        StringBuilder amount = new StringBuilder(rawAmount.length());
+        String thousandsSeparator = format.getThousandsSeparator();
+        for (int i = 0; i < rawAmount.length(); i++) {
+            if (!thousandsSeparator.isEmpty() && rawAmount.startsWith(thousandsSeparator, i)) {
+                i += thousandsSeparator.length() - 1;
+                continue;
+            }
+
+            char symbol = rawAmount.charAt(i);
+            if (symbol == format.getDecimalSeparator())
+                amount.append('.');
+            else if (Character.isDigit(symbol) || symbol == '-' || symbol == '+' || symbol == '(' || symbol == ')')
+                amount.append(symbol);
+        }
+
+        if (amount.isEmpty())
+            return null;
+
+        boolean isNegative = false;
+        if (amount.charAt(0) == '(' && amount.charAt(amount.length() - 1) == ')') {
+            amount.deleteCharAt(amount.length() - 1).deleteCharAt(0);
+            isNegative = true;
+        } else if (amount.length() > 1 && amount.charAt(amount.length() - 1) == '-') {
+            amount.deleteCharAt(amount.length() - 1);
+            isNegative = true;
+        }
+
+        BigDecimal parsedAmount = new BigDecimal(amount.toString());
+        return isNegative ? parsedAmount.negate() : parsedAmount;
+    }
+
+    private String field(int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    private List<String> split(String line) {
+        fields.clear();
+        fieldBuilder.setLength(0);
+
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char symbol = line.charAt(i);
+            if (isQuoted) {
+                if (symbol == format.getQuote() && i + 1 < line.length() && line.charAt(i + 1) == format.getQuote()) {
+                    fieldBuilder.append(symbol);
+                    i++;
+                } else if (symbol == format.getQuote()) {
+                    isQuoted = false;
+                } else {
+                    fieldBuilder.append(symbol);
+                }
+            } else if (symbol == format.getQuote()) {
+                isQuoted = true;
+            } else if (symbol == format.getDelimiter()) {
+                fields.add(fieldBuilder.toString());
+                fieldBuilder.setLength(0);
+            } else {
+                fieldBuilder.append(symbol);
+            }
+        }
+        fields.add(fieldBuilder.toString());
+
+        return fields;
+    }
+
+    record ParsedLine(long lineNumber, Transaction transaction, String rejection) {
+        static ParsedLine parsed(long lineNumber, Transaction transaction) {
+            return new ParsedLine(lineNumber, transaction, null);
+        }
+
+        static ParsedLine rejected(long lineNumber, String rejection) {
+            return new ParsedLine(lineNumber, null, rejection);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.FinanceTracker.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(Long.SIZE * SUB_BUCKETS_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long recordedNanos = Math.max(0, nanos);
+        bucketCounts.incrementAndGet(bucketIndex(recordedNanos));
+        totalNanos.add(recordedNanos);
+        maxNanos.accumulateAndGet(recordedNanos, Math::max);
+    }
+
+    public OperationStatistics toStatistics(String operation) {
+        long[] counts = new long[bucketCounts.length()];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts.get(i);
+            count += counts[i];
+        }
+        long max = maxNanos.get();
+
+        return new OperationStatistics(operation, count, totalNanos.sum(),
+                percentile(counts, count, max, 0.5), percentile(counts, count, max, 0.9),
+                percentile(counts, count, max, 0.99), percentile(counts, count, max, 0.999), max);
+    }
+
+    private static long percentile(long[] counts, long count, long max, double quantile) {
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long countedValues = 0;
+        for (int i = 0; i < counts.length; i++) {
+            countedValues += counts[i];
+            if (countedValues >= rank)
+                return Math.min(bucketUpperBound(i), max);
+        }
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS_COUNT)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS_COUNT)
+            return index;
+
+        int exponent = index / SUB_BUCKETS_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (1L << exponent) + (index % SUB_BUCKETS_COUNT) * subBucketWidth;
+        return lowerBound + subBucketWidth - 1;
+    }
+}
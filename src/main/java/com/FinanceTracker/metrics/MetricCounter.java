@@ -0,0 +1,20 @@
+package com.FinanceTracker.metrics;
+
+public enum MetricCounter {
+    FILE_SCANS("file_scans_total"),
+    FULL_FILE_VALIDATIONS("full_file_validations_total"),
+    LINES_PARSED("lines_parsed_total"),
+    BYTES_READ("bytes_read_total"),
+    BYTES_WRITTEN("bytes_written_total"),
+    RECORDS_RETURNED("records_returned_total");
+
+    private final String metricName;
+
+    MetricCounter(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,55 @@
+package com.FinanceTracker.metrics;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics {
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final LongAdder[] counters = new LongAdder[MetricCounter.values().length];
+
+    static {
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = new LongAdder();
+    }
+
+    private Metrics() {}
+
+    public static OperationTimer startTimer(String operation) {
+        return new OperationTimer(histogramFor(operation), null);
+    }
+
+    public static OperationTimer startStorageCall(String storage, String operation) {
+        StorageCallEvent storageCallEvent = new StorageCallEvent();
+        storageCallEvent.storage = storage;
+        storageCallEvent.operation = operation;
+        return new OperationTimer(histogramFor(storage + "." + operation), storageCallEvent);
+    }
+
+    public static void add(MetricCounter counter, long value) {
+        if (value != 0)
+            counters[counter.ordinal()].add(value);
+    }
+
+    public static MetricsSnapshot snapshot() {
+        List<OperationStatistics> operationStatistics = histograms.entrySet().stream()
+                .map(histogram -> histogram.getValue().toStatistics(histogram.getKey()))
+                .sorted(Comparator.comparing(OperationStatistics::operation))
+                .toList();
+
+        Map<MetricCounter, Long> counterValues = new EnumMap<>(MetricCounter.class);
+        for (MetricCounter counter : MetricCounter.values())
+            counterValues.put(counter, counters[counter.ordinal()].sum());
+
+        return new MetricsSnapshot(Instant.now(), operationStatistics, counterValues);
+    }
+
+    private static LatencyHistogram histogramFor(String operation) {
+        LatencyHistogram histogram = histograms.get(operation);
+        return histogram != null ? histogram : histograms.computeIfAbsent(operation, key -> new LatencyHistogram());
+    }
+}
@@ -0,0 +1,74 @@
+package com.FinanceTracker.metrics;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public record MetricsSnapshot(Instant takenAt, List<OperationStatistics> operationStatistics,
+                              Map<MetricCounter, Long> counterValues) {
+    private static final String METRIC_PREFIX = "financetracker_";
+
+    public String describe() {
+        StringBuilder description = new StringBuilder("Operation latencies, ms:\n");
+        if (operationStatistics.isEmpty())
+            description.append("no operations yet\n");
+        else
+            description.append(String.format(Locale.ROOT, "%-50s %8s %10s %10s %10s %10s%n",
+                    "operation", "count", "p50", "p90", "p99", "max"));
+
+        for (OperationStatistics statistics : operationStatistics) {
+            description.append(String.format(Locale.ROOT, "%-50s %8d %10.3f %10.3f %10.3f %10.3f%n",
+                    statistics.operation(), statistics.count(), toMillis(statistics.p50Nanos()),
+                    toMillis(statistics.p90Nanos()), toMillis(statistics.p99Nanos()), toMillis(statistics.maxNanos())));
+        }
+
+        description.append("\nCounters:");
+        for (Map.Entry<MetricCounter, Long> counter : counterValues.entrySet())
+            description.append('\n').append(counter.getKey().getMetricName()).append(": ").append(counter.getValue());
+
+        return description.toString();
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder("# snapshot taken at ").append(takenAt).append('\n');
+
+        String latencyMetric = METRIC_PREFIX + "operation_latency_seconds";
+        text.append("# TYPE ").append(latencyMetric).append(" summary\n");
+        for (OperationStatistics statistics : operationStatistics) {
+            String operation = "operation=\"" + statistics.operation() + "\"";
+            appendQuantile(text, latencyMetric, operation, "0.5", statistics.p50Nanos());
+            appendQuantile(text, latencyMetric, operation, "0.9", statistics.p90Nanos());
+            appendQuantile(text, latencyMetric, operation, "0.99", statistics.p99Nanos());
+            appendQuantile(text, latencyMetric, operation, "0.999", statistics.p999Nanos());
+            appendQuantile(text, latencyMetric, operation, "1", statistics.maxNanos());
+            text.append(latencyMetric).append("_sum{").append(operation).append("} ")
+                    .append(toSeconds(statistics.totalNanos())).append('\n');
+            text.append(latencyMetric).append("_count{").append(operation).append("} ")
+                    .append(statistics.count()).append('\n');
+        }
+
+        for (Map.Entry<MetricCounter, Long> counter : counterValues.entrySet()) {
+            String counterMetric = METRIC_PREFIX + counter.getKey().getMetricName();
+            text.append("# TYPE ").append(counterMetric).append(" counter\n");
+            text.append(counterMetric).append(' ').append(counter.getValue()).append('\n');
+        }
+
+        return text.toString();
+    }
+
+    private static void appendQuantile(StringBuilder text, String metric, String operation, String quantile,
+                                       long nanos)
+    {
+        text.append(metric).append('{').append(operation).append(",quantile=\"").append(quantile).append("\"} ")
+                .append(toSeconds(nanos)).append('\n');
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String toSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
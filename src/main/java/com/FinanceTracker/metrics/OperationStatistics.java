@@ -0,0 +1,5 @@
+package com.FinanceTracker.metrics;
+
+public record OperationStatistics(String operation, long count, long totalNanos, long p50Nanos, long p90Nanos,
+                                  long p99Nanos, long p999Nanos, long maxNanos) {
+}
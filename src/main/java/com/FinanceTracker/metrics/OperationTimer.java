@@ -0,0 +1,39 @@
+package com.FinanceTracker.metrics;
+
+public class OperationTimer implements AutoCloseable {
+    private final LatencyHistogram histogram;
+    private final StorageCallEvent storageCallEvent;
+    private final long startNanos;
+    private long recordsCount = 0;
+    private boolean isClosed = false;
+
+    OperationTimer(LatencyHistogram histogram, StorageCallEvent storageCallEvent) {
+        this.histogram = histogram;
+        this.storageCallEvent = storageCallEvent;
+        if (storageCallEvent != null)
+            storageCallEvent.begin();
+        this.startNanos = System.nanoTime();
+    }
+
+    public void addRecords(long recordsCount) {
+        this.recordsCount += recordsCount;
+    }
+
+    @Override
+    public void close() {
+        if (isClosed)
+            return;
+        isClosed = true;
+
+        histogram.record(System.nanoTime() - startNanos);
+        if (storageCallEvent == null)
+            return;
+
+        Metrics.add(MetricCounter.RECORDS_RETURNED, recordsCount);
+        storageCallEvent.end();
+        if (storageCallEvent.shouldCommit()) {
+            storageCallEvent.records = recordsCount;
+            storageCallEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.FinanceTracker.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.FinanceTracker.StorageCall")
+@Label("Storage Call")
+@Category("FinanceTracker")
+class StorageCallEvent extends Event {
+    @Label("Storage")
+    String storage;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Records")
+    long records;
+}
@@ -0,0 +1,89 @@
+package com.FinanceTracker.ui;
+
+import com.FinanceTracker.logic.LedgerTransaction;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+class TransactionsPager {
+    static final int PAGE_SIZE = 20;
+
+    private final BiFunction<LocalDateTime, LocalDateTime, Stream<LedgerTransaction>> transactionsSource;
+    private final LocalDateTime startDateTime;
+    private final LocalDateTime endDateTime;
+    private final TransactionsRenderer renderer;
+
+    private long pageIndex = 0;
+    private boolean hasNextPage = false;
+
+    TransactionsPager(BiFunction<LocalDateTime, LocalDateTime, Stream<LedgerTransaction>> transactionsSource,
+                      LocalDateTime startDateTime, LocalDateTime endDateTime, TransactionsRenderer renderer)
+    {
+        this.transactionsSource = transactionsSource;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+        this.renderer = renderer;
+    }
+
+    long printPage() {
+        try (Stream<LedgerTransaction> transactionsStream = transactionsSource.apply(startDateTime, endDateTime)) {
+            Iterator<LedgerTransaction> transactionsIterator = transactionsStream
+                    .skip(pageIndex * PAGE_SIZE)
+                    .limit(PAGE_SIZE + 1)
+                    .iterator();
+
+            long printedCount = renderer.render(transactionsIterator, PAGE_SIZE);
+            hasNextPage = transactionsIterator.hasNext();
+            return printedCount;
+        }
+    }
+
+    long nextPage() {
+        if (hasNextPage)
+            pageIndex++;
+        return printPage();
+    }
+
+    long previousPage() {
+        if (pageIndex > 0)
+            pageIndex--;
+        return printPage();
+    }
+
+    long jumpToDate(LocalDateTime dateTime) {
+        long transactionsBeforeDate = 0;
+        if (dateTime.isAfter(startDateTime)) {
+            try (Stream<LedgerTransaction> transactionsStream = transactionsSource.apply(startDateTime,
+                    dateTime.isBefore(endDateTime) ? dateTime : endDateTime)) {
+                transactionsBeforeDate = transactionsStream.count();
+            }
+        }
+
+        pageIndex = transactionsBeforeDate / PAGE_SIZE;
+        return printPage();
+    }
+
+    long printAll() {
+        return dumpTo(renderer);
+    }
+
+    long dumpTo(TransactionsRenderer dumpRenderer) {
+        try (Stream<LedgerTransaction> transactionsStream = transactionsSource.apply(startDateTime, endDateTime)) {
+            return dumpRenderer.render(transactionsStream.iterator(), Long.MAX_VALUE);
+        }
+    }
+
+    long getPageNumber() {
+        return pageIndex + 1;
+    }
+
+    boolean hasNextPage() {
+        return hasNextPage;
+    }
+
+    boolean hasPreviousPage() {
+        return pageIndex > 0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.FinanceTracker.ui;
+
+import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.logic.LedgerTransaction;
+import com.FinanceTracker.logic.LedgerTransactionId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+class TransactionsRenderer {
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final WritableByteChannel outputChannel;
+    private final ByteBuffer outputBuffer = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+    private final StringBuilder lineBuilder = new StringBuilder(64);
+
+    TransactionsRenderer(WritableByteChannel outputChannel) {
+        this.outputChannel = outputChannel;
+    }
+
+    static TransactionsRenderer forStandardOutput() {
+        return new TransactionsRenderer(Channels.newChannel(System.out));
+    }
+
+    long render(Iterator<LedgerTransaction> transactionsIterator, long maxCount) {
+        long renderedCount = 0;
+        while (renderedCount < maxCount && transactionsIterator.hasNext()) {
+            render(transactionsIterator.next());
+            renderedCount++;
+        }
+        flush();
+        return renderedCount;
+    }
+
+    void render(LedgerTransaction ledgerTransaction) {
+        Transaction transaction = ledgerTransaction.transaction();
+
+        lineBuilder.setLength(0);
+        if (ledgerTransaction.ledgerName() != null)
+            lineBuilder.append(ledgerTransaction.ledgerName()).append(LedgerTransactionId.SEPARATOR);
+        lineBuilder.append(ledgerTransaction.id()).append(' ');
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(transaction.dateTime(), lineBuilder);
+        lineBuilder.append(' ').append(transaction.type().name())
+                .append(' ').append(transaction.sum())
+                .append(LINE_SEPARATOR);
+
+        if (outputBuffer.remaining() < lineBuilder.length())
+            flush();
+        for (int i = 0; i < lineBuilder.length(); i++)
+            outputBuffer.put((byte) lineBuilder.charAt(i));
+    }
+
+    void flush() {
+        outputBuffer.flip();
+        try {
+            while (outputBuffer.hasRemaining())
+                outputChannel.write(outputBuffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unexpected IO exception during printing transactions.", e);
+        }
+        outputBuffer.clear();
+    }
+}
@@ -1,39 +1,67 @@
 package com.FinanceTracker.ui;
 
-import com.FinanceTracker.data.transactionunit.Transaction;
+import com.FinanceTracker.data.transactionsstoring.FileStorageWarmUp;
+import com.FinanceTracker.data.transactionsstoring.PartitionPeriod;
+import com.FinanceTracker.data.transactionsstoring.RuntimeStorageType;
 import com.FinanceTracker.data.transactionunit.TransactionType;
 import com.FinanceTracker.exceptions.*;
 import com.FinanceTracker.logic.CommandManager;
 import com.FinanceTracker.logic.InputConverter;
+import com.FinanceTracker.logic.LedgerTransaction;
+import com.FinanceTracker.logic.LedgerTransactionId;
+import com.FinanceTracker.logic.SumQuantiles;
+import com.FinanceTracker.logic.TransactionFilter;
+import com.FinanceTracker.logic.importing.StatementImportSummary;
 import com.FinanceTracker.exceptions.TransactionsFileCreationException;
 import com.FinanceTracker.exceptions.TransactionsFileFormatException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public class UserInterface {
-    private final CommandManager commandManager = new CommandManager();
+    private final CommandManager commandManager;
     private final Scanner scanner;
-    private boolean isFileAttached = false;
+    private final Map<String, FileStorageWarmUp> fileWarmUps = new LinkedHashMap<>();
 
     public UserInterface(Scanner scanner) {
+        this(scanner, RuntimeStorageType.CONCURRENT);
+    }
+
+    public UserInterface(Scanner scanner, RuntimeStorageType runtimeStorageType) {
         this.scanner = scanner;
+        this.commandManager = new CommandManager(runtimeStorageType);
     }
 
     public void callMainMenu() {
         while (true) {
+            printFileVerificationStatus();
+            printAttachedFiles();
             System.out.println("Main menu commands:");
             System.out.println("1 - Add transaction");
             System.out.println("2 - Print transactions");
             System.out.println("3 - Attach file");
-            if (isFileAttached) {
+            if (isFileAttached()) {
                 System.out.println("4 - Unattach file");
                 System.out.println("5 - Save transactions to file");
-                System.out.println("6 - Load transactions from file");
+                System.out.println("6 - Load transactions from files");
             }
+            System.out.println("7 - Import bank statements");
+            System.out.println("8 - Statistics");
+            System.out.println("9 - Change transactions");
             System.out.println("0 - Quit program");
             System.out.print("> ");
             String command = scanner.nextLine();
@@ -48,17 +76,27 @@ public class UserInterface {
                 } else if (command.equals("3")) {
                     attachFile();
                     System.out.println();
-                } else if (command.equals("4") && isFileAttached) {
+                } else if (command.equals("4") && isFileAttached()) {
                     unattachFile();
                     System.out.println();
-                } else if (command.equals("5") && isFileAttached) {
-                    callSaveMenu();
-                } else if (command.equals("6") && isFileAttached) {
+                } else if (command.equals("5") && isFileAttached()) {
+                    if (waitForFileVerification())
+                        callSaveMenu();
+                } else if (command.equals("6") && isFileAttached()) {
                     callLoadMenu();
+                } else if (command.equals("7")) {
+                    importStatements();
+                    System.out.println();
+                } else if (command.equals("8")) {
+                    callStatisticsMenu();
+                } else if (command.equals("9")) {
+                    callChangeMenu();
                 } else if (command.equals("0")) {
+                    this.commandManager.unattachAllFiles();
                     break;
                 }
-            } catch (IncorrectInputException | TransactionsFileFormatException | TransactionsFileCreationException e) {
+            } catch (IncorrectInputException | TransactionsFileFormatException | TransactionsFileCreationException
+                     | StatementFormatException | TransactionsFileIsNotAttachedException e) {
                 System.out.println(e.getMessage());
             }
         }
@@ -66,8 +104,7 @@ public class UserInterface {
 
     private void enterAndAddTransaction() throws IncorrectInputException {
         LocalDateTime dateTime = InputConverter.convertDateTime(enterDateTime("transaction"));
-        System.out.println("Enter the transaction type (INCOME/EXPENSE)");
-        TransactionType transactionType = InputConverter.convertTransactionType(scanner.nextLine().trim().toUpperCase());
+        TransactionType transactionType = InputConverter.convertTransactionType(enterTransactionType());
         System.out.println("Enter the sum of transaction");
         BigDecimal sum = InputConverter.convertSum(scanner.nextLine().trim());
 
@@ -75,12 +112,152 @@ public class UserInterface {
         printSuccessMessage(1);
     }
 
+    private void callChangeMenu() {
+        while (true) {
+            System.out.println("Change menu commands:");
+            System.out.println("1 - Change transaction by id");
+            System.out.println("2 - Delete transaction by id");
+            System.out.println("0 - Exit menu");
+            System.out.print("> ");
+            String command = scanner.nextLine();
+            System.out.println();
+
+            try {
+                if (command.equals("1")) {
+                    changeTransactionById();
+                    System.out.println();
+                } else if (command.equals("2")) {
+                    deleteTransactionById();
+                    System.out.println();
+                } else if (command.equals("0")) {
+                    break;
+                }
+            } catch (TransactionsFileIsNotAttachedException | NoTransactionsException | IncorrectInputException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    private void changeTransactionById()
+            throws IncorrectInputException, TransactionsFileIsNotAttachedException, NoTransactionsException
+    {
+        boolean isInFile = enterIsChangedInFile();
+        LedgerTransactionId ledgerTransactionId = isInFile ? enterLedgerTransactionId() : null;
+        int id = isInFile ? ledgerTransactionId.id() : InputConverter.convertId(enterId());
+        LocalDateTime dateTime = InputConverter.convertDateTime(enterDateTime("new transaction"));
+        TransactionType transactionType = InputConverter.convertTransactionType(enterTransactionType());
+        System.out.println("Enter the new sum of transaction");
+        BigDecimal sum = InputConverter.convertSum(scanner.nextLine().trim());
+
+        if (isInFile)
+            this.commandManager.updateFileTransaction(ledgerTransactionId, dateTime, transactionType, sum);
+        else
+            this.commandManager.updateTransaction(id, dateTime, transactionType, sum);
+
+        printSuccessMessage(1);
+    }
+
+    private void deleteTransactionById()
+            throws IncorrectInputException, TransactionsFileIsNotAttachedException, NoTransactionsException
+    {
+        if (enterIsChangedInFile())
+            this.commandManager.deleteFileTransaction(enterLedgerTransactionId());
+        else
+            this.commandManager.deleteTransaction(InputConverter.convertId(enterId()));
+
+        printSuccessMessage(1);
+    }
+
+    private boolean enterIsChangedInFile() {
+        if (!isFileAttached())
+            return false;
+
+        System.out.println("Change transactions in: 1 - program, 2 - attached files");
+        return scanner.nextLine().trim().equals("2");
+    }
+
+    private void importStatements()
+            throws IncorrectInputException, StatementFormatException, TransactionsFileIsNotAttachedException
+    {
+        System.out.println("The statement format file is a .properties file that describes the statement columns, " +
+                "date formats and amount sign conventions. \nSee README for the available settings.");
+        System.out.print("\nEnter the statement format file absolute path: ");
+        Path formatPath = InputConverter.convertPath(scanner.nextLine().trim());
+
+        System.out.println("Enter the statement files absolute paths separated by ;");
+        List<Path> statementPaths = new ArrayList<>();
+        for (String statementPath : scanner.nextLine().split(";")) {
+            if (!statementPath.isBlank())
+                statementPaths.add(InputConverter.convertPath(statementPath.trim()));
+        }
+        if (statementPaths.isEmpty())
+            throw new IncorrectInputException("No statement files entered.");
+
+        boolean isImportedToFile = false;
+        if (isFileAttached()) {
+            System.out.println("Import transactions to: 1 - program, 2 - attached file "
+                    + this.commandManager.getSaveTargetName());
+            isImportedToFile = scanner.nextLine().trim().equals("2");
+        }
+        if (isImportedToFile && !waitForFileVerification())
+            return;
+
+        System.out.println();
+        for (StatementImportSummary summary : this.commandManager.importStatements(formatPath, statementPaths,
+                isImportedToFile))
+            System.out.println(summary);
+        printSuccessMessage(1);
+    }
+
+    private void callStatisticsMenu() {
+        while (true) {
+            System.out.println("Statistics menu commands:");
+            System.out.println("1 - Print statistics");
+            System.out.println("2 - Export statistics snapshot to file");
+            System.out.println("0 - Exit menu");
+            System.out.print("> ");
+            String command = scanner.nextLine();
+            System.out.println();
+
+            try {
+                if (command.equals("1")) {
+                    System.out.println(this.commandManager.getMetricsSnapshot().describe());
+                    System.out.println();
+                } else if (command.equals("2")) {
+                    exportStatisticsSnapshot();
+                    System.out.println();
+                } else if (command.equals("0")) {
+                    break;
+                }
+            } catch (IncorrectInputException | TransactionsFileCreationException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    private void exportStatisticsSnapshot() throws IncorrectInputException, TransactionsFileCreationException {
+        System.out.print("Enter the snapshot file absolute path: ");
+        Path snapshotFilePath = InputConverter.convertPath(scanner.nextLine());
+
+        try {
+            Files.writeString(snapshotFilePath, this.commandManager.getMetricsSnapshot().toText());
+        } catch (IOException e) {
+            throw new TransactionsFileCreationException("The statistics can't be written to the file: " + snapshotFilePath);
+        }
+
+        printSuccessMessage(1);
+    }
+
     private void callPrintMenu() {
         while (true) {
             System.out.println("Print menu commands:");
             System.out.println("1 - Print transaction by id");
             System.out.println("2 - Print transactions between dates");
             System.out.println("3 - Print all transactions");
+            System.out.println("4 - Print totals between dates");
+            System.out.println("5 - Print largest transactions between dates");
+            System.out.println("6 - Print sum percentiles per month between dates");
+            System.out.println("7 - Print transactions matching a filter");
             System.out.println("0 - Exit menu");
             System.out.print("> ");
             String command = scanner.nextLine();
@@ -96,10 +273,23 @@ public class UserInterface {
                 } else if (command.equals("3")) {
                     printAllTransactions();
                     System.out.println();
+                } else if (command.equals("4")) {
+                    printTotalsBetweenDates();
+                    System.out.println();
+                } else if (command.equals("5")) {
+                    printLargestTransactionsBetweenDates();
+                    System.out.println();
+                } else if (command.equals("6")) {
+                    printSumPercentilesBetweenDates();
+                    System.out.println();
+                } else if (command.equals("7")) {
+                    printTransactionsMatchingFilter();
+                    System.out.println();
                 } else if (command.equals("0")) {
                     break;
                 }
-            } catch (NoTransactionsException | IncorrectInputException e) {
+            } catch (NoTransactionsException | IncorrectInputException | TransactionsFileCreationException
+                     | TransactionsFileIsNotAttachedException e) {
                 System.out.println(e.getMessage());
             }
         }
@@ -111,27 +301,214 @@ public class UserInterface {
         System.out.println(id + " " + this.commandManager.getTransactionById(id));
     }
 
-    private void printTransactionsBetweenDates() throws NoTransactionsException, IncorrectInputException {
+    private void printTransactionsBetweenDates()
+            throws NoTransactionsException, IncorrectInputException, TransactionsFileCreationException
+    {
         LocalDateTime startDateTime = InputConverter.convertDateTime(enterDateTime("start"));
         LocalDateTime endDateTime = InputConverter.convertDateTime(enterDateTime("end"));
 
-        Map<Integer, Transaction> transactionsMap =
-                this.commandManager.getTransactionsBetweenDates(startDateTime, endDateTime);
+        System.out.println();
+
+        callPagerMenu(new TransactionsPager(this::streamTransactionsBetweenDates,
+                        startDateTime, endDateTime, TransactionsRenderer.forStandardOutput()),
+                "No transactions between " + startDateTime + " and " + endDateTime + ".");
+    }
+
+    private void printAllTransactions()
+            throws NoTransactionsException, IncorrectInputException, TransactionsFileCreationException
+    {
+        callPagerMenu(new TransactionsPager(this::streamTransactionsBetweenDates,
+                        LocalDateTime.MIN, LocalDateTime.MAX, TransactionsRenderer.forStandardOutput()),
+                "There are no transactions.");
+    }
+
+    private Stream<LedgerTransaction> streamTransactionsBetweenDates(LocalDateTime startDateTime,
+                                                                     LocalDateTime endDateTime)
+    {
+        return this.commandManager.streamTransactionsBetweenDates(startDateTime, endDateTime)
+                .map(LedgerTransaction::inProgram);
+    }
+
+    private void callPagerMenu(TransactionsPager pager, String noTransactionsMessage)
+            throws NoTransactionsException, IncorrectInputException, TransactionsFileCreationException
+    {
+        if (pager.printPage() == 0)
+            throw new NoTransactionsException(noTransactionsMessage);
+
+        while (true) {
+            System.out.println();
+            System.out.println("Page " + pager.getPageNumber() + " commands:");
+            if (pager.hasNextPage())
+                System.out.println("1 - Next page");
+            if (pager.hasPreviousPage())
+                System.out.println("2 - Previous page");
+            System.out.println("3 - Jump to date");
+            System.out.println("4 - Print all at once");
+            System.out.println("5 - Dump to file");
+            System.out.println("0 - Exit pages");
+            System.out.print("> ");
+            String command = scanner.nextLine();
+            System.out.println();
+
+            if (command.equals("1") && pager.hasNextPage()) {
+                pager.nextPage();
+            } else if (command.equals("2") && pager.hasPreviousPage()) {
+                pager.previousPage();
+            } else if (command.equals("3")) {
+                pager.jumpToDate(InputConverter.convertDateTime(enterDateTime("searched")));
+            } else if (command.equals("4")) {
+                pager.printAll();
+                break;
+            } else if (command.equals("5")) {
+                dumpTransactionsToFile(pager);
+                break;
+            } else if (command.equals("0")) {
+                break;
+            }
+        }
+    }
+
+    private void dumpTransactionsToFile(TransactionsPager pager)
+            throws IncorrectInputException, TransactionsFileCreationException
+    {
+        System.out.print("Enter the dump file absolute path: ");
+        Path dumpFilePath = InputConverter.convertPath(scanner.nextLine());
+
+        long dumpedTransactionsCount;
+        try (FileChannel dumpChannel = FileChannel.open(dumpFilePath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            dumpedTransactionsCount = pager.dumpTo(new TransactionsRenderer(dumpChannel));
+        } catch (IOException | UncheckedIOException e) {
+            throw new TransactionsFileCreationException("The transactions can't be written to the file: " + dumpFilePath);
+        }
+
+        System.out.println("\n" + dumpedTransactionsCount + " transactions were written to " + dumpFilePath);
+        printSuccessMessage(0);
+    }
+
+    private void printTotalsBetweenDates() throws IncorrectInputException {
+        LocalDateTime startDateTime = InputConverter.convertDateTime(enterDateTime("start"));
+        LocalDateTime endDateTime = InputConverter.convertDateTime(enterDateTime("end"));
+
+        System.out.println();
+        System.out.println("Income: " +
+                this.commandManager.getTotalBetweenDates(TransactionType.INCOME, startDateTime, endDateTime));
+        System.out.println("Expense: " +
+                this.commandManager.getTotalBetweenDates(TransactionType.EXPENSE, startDateTime, endDateTime));
+        System.out.println("Balance: " + this.commandManager.getBalanceBetweenDates(startDateTime, endDateTime));
+    }
+
+    private void printLargestTransactionsBetweenDates()
+            throws IncorrectInputException, NoTransactionsException, TransactionsFileIsNotAttachedException
+    {
+        TransactionType transactionType = InputConverter.convertTransactionType(enterTransactionType());
+        LocalDateTime startDateTime = InputConverter.convertDateTime(enterDateTime("start"));
+        LocalDateTime endDateTime = InputConverter.convertDateTime(enterDateTime("end"));
+        System.out.println("Enter the number of transactions");
+        int count = InputConverter.convertCount(scanner.nextLine().trim());
+        boolean isFromFile = enterIsFromFile();
 
         System.out.println();
+        for (LedgerTransaction ledgerTransaction : this.commandManager.getLargestTransactionsBetweenDates(
+                transactionType, startDateTime, endDateTime, count, isFromFile))
+            System.out.println(ledgerTransaction.ledgerTransactionId() + " " + ledgerTransaction.transaction());
+    }
+
+    private void printSumPercentilesBetweenDates()
+            throws IncorrectInputException, NoTransactionsException, TransactionsFileIsNotAttachedException
+    {
+        TransactionType transactionType = InputConverter.convertTransactionType(enterTransactionType());
+        LocalDateTime startDateTime = InputConverter.convertDateTime(enterDateTime("start"));
+        LocalDateTime endDateTime = InputConverter.convertDateTime(enterDateTime("end"));
+        System.out.println("Enter the percentile, for example 95");
+        double quantile = InputConverter.convertPercentile(scanner.nextLine().trim());
+        boolean isFromFile = enterIsFromFile();
+
+        SumQuantiles sumQuantiles = this.commandManager.getSumQuantilesBetweenDates(transactionType, startDateTime,
+                endDateTime, quantile, isFromFile);
 
-        transactionsMap.forEach((key, value) -> System.out.println(key + " " + value));
+        System.out.println();
+        for (Map.Entry<YearMonth, BigDecimal> monthlySum : sumQuantiles.monthlySums().entrySet())
+            System.out.println(monthlySum.getKey() + ": " + monthlySum.getValue());
+        System.out.println("Whole period: " + sumQuantiles.wholePeriodSum());
+        System.out.println("Percentiles are approximate, with a relative error below 1%.");
     }
 
-    private void printAllTransactions() throws NoTransactionsException {
-        Map<Integer, Transaction> transactionsMap =
-                this.commandManager.getAllTransactions();
+    private void printTransactionsMatchingFilter()
+            throws NoTransactionsException, IncorrectInputException, TransactionsFileCreationException
+    {
+        TransactionFilter filter = enterTransactionFilter();
+        boolean isFromFile = enterIsFromFile();
+        if (isFromFile && !waitForFileVerification())
+            return;
+
+        System.out.println();
+        callPagerMenu(new TransactionsPager((startDateTime, endDateTime) -> streamTransactionsMatching(
+                        filter.and(TransactionFilter.between(startDateTime, endDateTime)), isFromFile),
+                        filter.startDateTime(), filter.endDateTime(), TransactionsRenderer.forStandardOutput()),
+                "No transactions match the filter.");
+    }
 
-        transactionsMap.forEach((key, value) -> System.out.println(key + " " + value));
+    private TransactionFilter enterTransactionFilter() throws IncorrectInputException {
+        System.out.println("Leave a value empty to skip its condition.");
+        String startDateTimeString = enterDateTime("start");
+        String endDateTimeString = enterDateTime("end");
+        String transactionTypeString = enterTransactionType();
+        System.out.println("Enter the minimal sum");
+        String minSumString = scanner.nextLine().trim();
+        System.out.println("Enter the maximal sum");
+        String maxSumString = scanner.nextLine().trim();
+
+        TransactionFilter filter = TransactionFilter.between(
+                startDateTimeString.isEmpty() ? LocalDateTime.MIN : InputConverter.convertDateTime(startDateTimeString),
+                endDateTimeString.isEmpty() ? LocalDateTime.MAX : InputConverter.convertDateTime(endDateTimeString));
+        if (!transactionTypeString.isEmpty())
+            filter = filter.and(TransactionFilter.ofType(InputConverter.convertTransactionType(transactionTypeString)));
+        if (!minSumString.isEmpty())
+            filter = filter.and(TransactionFilter.sumAtLeast(InputConverter.convertSum(minSumString)));
+        if (!maxSumString.isEmpty())
+            filter = filter.and(TransactionFilter.sumAtMost(InputConverter.convertSum(maxSumString)));
+        return filter;
+    }
+
+    private Stream<LedgerTransaction> streamTransactionsMatching(TransactionFilter filter, boolean isFromFile) {
+        try {
+            return this.commandManager.streamTransactionsMatching(filter, isFromFile);
+        } catch (TransactionsFileIsNotAttachedException e) {
+            //it shouldn't happen
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private String enterTransactionType() {
+        System.out.println("Enter the transaction type (INCOME/EXPENSE)");
+        return scanner.nextLine().trim().toUpperCase();
+    }
+
+    private boolean enterIsFromFile() {
+        if (!isFileAttached())
+            return false;
+
+        System.out.println("Search transactions in: 1 - program, 2 - attached files");
+        return scanner.nextLine().trim().equals("2");
     }
 
     private void attachFile() throws IncorrectInputException, TransactionsFileCreationException, TransactionsFileFormatException {
-        System.out.println("File must have the extension .csv, and it should be both readable and writable. " +
+        System.out.println("Attach: 1 - CSV or binary file, 2 - partitioned ledger directory, " +
+                "3 - CSV file migrated into a new partitioned ledger directory, " +
+                "4 - convert a file between CSV and binary");
+        String attachmentType = scanner.nextLine().trim();
+        System.out.println();
+        if (attachmentType.equals("2") || attachmentType.equals("3")) {
+            attachLedger(attachmentType.equals("3"));
+            return;
+        }
+        if (attachmentType.equals("4")) {
+            convertFile();
+            return;
+        }
+
+        System.out.println("File must have the extension .csv or .ftb, and it should be both readable and writable. " +
                 "\nAll lines must be formatted as id,dateTime,type,sum. " +
                 "Id cannot be less than 0, and dateTime must be presented in accordance with ISO 8601. " +
                 "\nFile will be created, if it doesn't exist, but it must be created in an existing directory.");
@@ -141,25 +518,152 @@ public class UserInterface {
                 "\nIt is recommended to modify transaction files only through the program.");
         System.out.print("\nEnter the file absolute path: ");
         Path filePath = InputConverter.convertPath(scanner.nextLine());
+        String ledgerName = enterLedgerName(filePath);
+
+        FileStorageWarmUp fileWarmUp = this.commandManager.attachFile(ledgerName, filePath);
+        if (fileWarmUp == null) {
+            fileWarmUps.remove(ledgerName);
+            System.out.println("\nThe binary .ftb file keeps dates with whole seconds and sums with at most 4 decimal " +
+                    "places, other transactions can't be saved to it.");
+        } else {
+            fileWarmUps.put(ledgerName, fileWarmUp);
+        }
 
-        this.commandManager.attachFile(filePath);
-        isFileAttached = true;
+        if (fileWarmUp != null && !fileWarmUp.isDone())
+            System.out.println("\nThe file is being verified in the background. Transactions from its verified part " +
+                    "can already be loaded, saving waits for the verification to finish.");
+        printSuccessMessage(1);
+    }
+
+    private void convertFile() throws IncorrectInputException, TransactionsFileCreationException,
+            TransactionsFileFormatException
+    {
+        System.out.println("A .csv file is converted into a new binary .ftb file with fixed-size records, " +
+                "and a .ftb file is converted back into a new .csv file. \nThe converted file must not be attached, " +
+                "and the new file must not exist.");
+        System.out.print("\nEnter the absolute path of the file to convert: ");
+        Path sourceFilePath = InputConverter.convertPath(scanner.nextLine());
+        System.out.print("Enter the absolute path of the new file: ");
+        Path targetFilePath = InputConverter.convertPath(scanner.nextLine());
+
+        this.commandManager.convertFile(sourceFilePath, targetFilePath);
+
+        printSuccessMessage(1);
+    }
+
+    private void attachLedger(boolean isMigratedFromFile)
+            throws IncorrectInputException, TransactionsFileCreationException, TransactionsFileFormatException
+    {
+        System.out.println("A partitioned ledger is a directory with a CSV segment file for every day, month or year " +
+                "and a manifest of each segment's dates and records count. \nSearching between dates reads only " +
+                "the segments that overlap them. \nDirectory will be created, if it doesn't exist, " +
+                "but it must be created in an existing directory.");
+
+        Path filePath = null;
+        if (isMigratedFromFile) {
+            System.out.print("\nEnter the CSV file absolute path: ");
+            filePath = InputConverter.convertPath(scanner.nextLine());
+        }
+        System.out.print("\nEnter the ledger directory absolute path: ");
+        Path ledgerDirectory = InputConverter.convertPath(scanner.nextLine());
+        System.out.println("Enter the partition period of a new ledger (DAY/MONTH/YEAR) or leave it empty for MONTH");
+        String periodString = scanner.nextLine().trim().toUpperCase();
+        PartitionPeriod period = periodString.isEmpty() ? PartitionPeriod.MONTH
+                : InputConverter.convertPartitionPeriod(periodString);
+        String ledgerName = enterLedgerName(ledgerDirectory);
+
+        if (isMigratedFromFile)
+            this.commandManager.migrateFileToLedger(ledgerName, filePath, ledgerDirectory, period);
+        else
+            this.commandManager.attachLedger(ledgerName, ledgerDirectory, period);
+        fileWarmUps.remove(ledgerName);
 
         printSuccessMessage(1);
     }
 
-    private void unattachFile() {
-        this.commandManager.unattachFile();
-        isFileAttached = false;
+    private String enterLedgerName(Path path) throws IncorrectInputException {
+        System.out.println("Enter the name to attach it under or leave it empty to use the file name. " +
+                "\nTransactions of attached files are referred to as name" + LedgerTransactionId.SEPARATOR + "id, " +
+                "and attaching under a name that is already used replaces that file.");
+        return InputConverter.convertLedgerName(scanner.nextLine().trim(), path);
+    }
+
+    private void unattachFile() throws TransactionsFileIsNotAttachedException {
+        List<String> ledgerNames = this.commandManager.getAttachedLedgerNames();
+        String ledgerName = ledgerNames.get(0);
+        if (ledgerNames.size() > 1) {
+            System.out.println("Enter the name of the file to unattach: " + String.join(", ", ledgerNames));
+            ledgerName = scanner.nextLine().trim();
+            if (!ledgerNames.contains(ledgerName))
+                throw new TransactionsFileIsNotAttachedException("No file is attached as " + ledgerName + ".");
+        }
+
+        this.commandManager.unattachFile(ledgerName);
+        fileWarmUps.remove(ledgerName);
         printSuccessMessage(0);
     }
 
+    private boolean isFileAttached() {
+        return this.commandManager.isFileAttached();
+    }
+
+    private void printAttachedFiles() {
+        if (!isFileAttached())
+            return;
+
+        List<String> ledgerNames = this.commandManager.getAttachedLedgerNames();
+        if (ledgerNames.size() > 1)
+            System.out.println("Attached files: " + String.join(", ", ledgerNames) + ". Saving to "
+                    + this.commandManager.getSaveTargetName() + ".\n");
+    }
+
+    private void printFileVerificationStatus() {
+        for (Map.Entry<String, FileStorageWarmUp> fileWarmUp : List.copyOf(fileWarmUps.entrySet())) {
+            if (fileWarmUp.getValue().isDone())
+                printFinishedFileVerification(fileWarmUp.getKey());
+            else
+                System.out.println("The attached file " + fileWarmUp.getKey() + " is being verified: "
+                        + fileWarmUp.getValue().getProgressPercent() + "%\n");
+        }
+    }
+
+    private boolean waitForFileVerification() {
+        boolean areVerified = true;
+        for (Map.Entry<String, FileStorageWarmUp> fileWarmUp : List.copyOf(fileWarmUps.entrySet())) {
+            while (!fileWarmUp.getValue().await(1, TimeUnit.SECONDS))
+                System.out.println("Waiting for the attached file " + fileWarmUp.getKey() + " to be verified: "
+                        + fileWarmUp.getValue().getProgressPercent() + "%");
+            areVerified &= printFinishedFileVerification(fileWarmUp.getKey());
+        }
+        return areVerified && isFileAttached();
+    }
+
+    private boolean printFinishedFileVerification(String ledgerName) {
+        FileStorageWarmUp fileWarmUp = fileWarmUps.remove(ledgerName);
+        boolean isVerified = !fileWarmUp.isFailed();
+        if (isVerified) {
+            System.out.println("The attached file " + ledgerName + " was verified.\n");
+        } else {
+            System.out.println("The file " + ledgerName + " was unattached because it has incorrect values. Details:\n"
+                    + fileWarmUp.getFailureMessage());
+            this.commandManager.unattachFile(ledgerName);
+        }
+
+        return isVerified;
+    }
+
     private void callSaveMenu() {
         while (true) {
-            System.out.println("Save menu commands:");
+            System.out.println("Save menu commands (saving to " + this.commandManager.getSaveTargetName() + "):");
             System.out.println("1 - Save transaction by id to file");
             System.out.println("2 - Save transactions between dates to file");
             System.out.println("3 - Save all transactions to file");
+            if (this.commandManager.isSaveTargetCsvFile())
+                System.out.println("4 - Archive file transactions before a date");
+            if (this.commandManager.getAttachedLedgerNames().size() > 1)
+                System.out.println("5 - Choose the file to save to");
+            if (this.commandManager.isSaveTargetCsvFile())
+                System.out.println("6 - Compact the file");
             System.out.println("0 - Exit menu");
             System.out.print("> ");
             String command = scanner.nextLine();
@@ -175,17 +679,35 @@ public class UserInterface {
                 } else if (command.equals("3")) {
                     saveAllTransactionsToFile();
                     System.out.println();
+                } else if (command.equals("4") && this.commandManager.isSaveTargetCsvFile()) {
+                    archiveFileTransactionsBefore();
+                    System.out.println();
+                } else if (command.equals("5") && this.commandManager.getAttachedLedgerNames().size() > 1) {
+                    chooseSaveTarget();
+                    System.out.println();
+                } else if (command.equals("6") && this.commandManager.isSaveTargetCsvFile()) {
+                    compactFile();
+                    System.out.println();
                 } else if (command.equals("0")) {
                     break;
                 }
-            } catch (TransactionsFileIsNotAttachedException | NoTransactionsException | IncorrectInputException e) {
+            } catch (TransactionsFileIsNotAttachedException | NoTransactionsException | IncorrectInputException
+                     | TransactionsFileFormatException e) {
                 System.out.println(e.getMessage());
             }
         }
     }
 
-    private void saveTransactionByIdToFile()
-            throws IncorrectInputException, TransactionsFileIsNotAttachedException, NoTransactionsException
+    private void chooseSaveTarget() throws TransactionsFileIsNotAttachedException {
+        System.out.println("Enter the name of the file to save to: "
+                + String.join(", ", this.commandManager.getAttachedLedgerNames()));
+        this.commandManager.chooseSaveTarget(scanner.nextLine().trim());
+
+        printSuccessMessage(1);
+    }
+
+    private void saveTransactionByIdToFile() throws IncorrectInputException, TransactionsFileIsNotAttachedException,
+            NoTransactionsException, TransactionsFileFormatException
     {
         int id = InputConverter.convertId(enterId());
 
@@ -194,8 +716,8 @@ public class UserInterface {
         printSuccessMessage(1);
     }
 
-    private void saveTransactionsBetweenDatesToFile()
-            throws IncorrectInputException, TransactionsFileIsNotAttachedException, NoTransactionsException
+    private void saveTransactionsBetweenDatesToFile() throws IncorrectInputException,
+            TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
     {
         LocalDateTime startDateTime = InputConverter.convertDateTime(enterDateTime("start"));
         LocalDateTime endDateTime = InputConverter.convertDateTime(enterDateTime("end"));
@@ -205,9 +727,34 @@ public class UserInterface {
         printSuccessMessage(1);
     }
 
-    private void saveAllTransactionsToFile() throws TransactionsFileIsNotAttachedException, NoTransactionsException {
-        this.commandManager.saveAllTransactionsToFile();
+    private void saveAllTransactionsToFile()
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
+    {
+        int savedTransactionsCount = this.commandManager.saveAllTransactionsToFile();
 
+        System.out.println(savedTransactionsCount + " new transactions were saved, the others are already in the file.");
+        printSuccessMessage(1);
+    }
+
+    private void archiveFileTransactionsBefore() throws IncorrectInputException, TransactionsFileIsNotAttachedException {
+        System.out.println("Transactions before the entered date are moved from the file into compressed blocks " +
+                "of its archive (for example transactions.csv.archive). \nThey can still be searched and loaded, " +
+                "but they are no longer kept in the file as text.");
+        LocalDateTime sealDateTime = InputConverter.convertDateTime(enterDateTime("archiving"));
+
+        int archivedTransactionsCount = this.commandManager.archiveFileTransactionsBefore(sealDateTime);
+
+        System.out.println(archivedTransactionsCount + " transactions were archived.");
+        printSuccessMessage(1);
+    }
+
+    private void compactFile() throws TransactionsFileIsNotAttachedException {
+        System.out.println("The file is rewritten without the old versions of changed transactions " +
+                "and without the deleted ones.");
+
+        int removedRecordsCount = this.commandManager.compactFile();
+
+        System.out.println(removedRecordsCount + " outdated lines were removed from the file.");
         printSuccessMessage(1);
     }
 
@@ -215,8 +762,8 @@ public class UserInterface {
         while (true) {
             System.out.println("Load menu commands:");
             System.out.println("1 - Load transaction by id from file");
-            System.out.println("2 - Load transactions between dates from file");
-            System.out.println("3 - Load all transactions from file");
+            System.out.println("2 - Load transactions between dates from files");
+            System.out.println("3 - Load all transactions from files");
             System.out.println("0 - Exit menu");
             System.out.print("> ");
             String command = scanner.nextLine();
@@ -235,38 +782,57 @@ public class UserInterface {
                 } else if (command.equals("0")) {
                     break;
                 }
-            } catch (TransactionsFileIsNotAttachedException | NoTransactionsException | IncorrectInputException e) {
+            } catch (TransactionsFileIsNotAttachedException | NoTransactionsException | IncorrectInputException
+                     | TransactionsFileFormatException e) {
                 System.out.println(e.getMessage());
             }
         }
     }
 
-    private void loadTransactionsByIdFromFile()
-            throws IncorrectInputException, TransactionsFileIsNotAttachedException, NoTransactionsException
+    private void loadTransactionsByIdFromFile() throws IncorrectInputException, TransactionsFileIsNotAttachedException,
+            NoTransactionsException, TransactionsFileFormatException
     {
-        int id = InputConverter.convertId(enterId());
+        LedgerTransactionId ledgerTransactionId = enterLedgerTransactionId();
 
-        this.commandManager.loadTransactionByIdFromFile(id);
+        this.commandManager.loadTransactionByIdFromFile(ledgerTransactionId);
 
         printSuccessMessage(1);
     }
 
-    private void loadTransactionsBetweenDatesFromFile()
-            throws IncorrectInputException, TransactionsFileIsNotAttachedException, NoTransactionsException
+    private void loadTransactionsBetweenDatesFromFile() throws IncorrectInputException,
+            TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
     {
 
         LocalDateTime startDateTime = InputConverter.convertDateTime(enterDateTime("start"));
         LocalDateTime endDateTime = InputConverter.convertDateTime(enterDateTime("end"));
 
+        for (Map.Entry<String, FileStorageWarmUp> fileWarmUp : fileWarmUps.entrySet()) {
+            if (!fileWarmUp.getValue().isDone())
+                System.out.println("The attached file " + fileWarmUp.getKey() + " is still being verified, " +
+                        "only its verified " + fileWarmUp.getValue().getProgressPercent() + "% are searched.");
+        }
         this.commandManager.loadTransactionsBetweenDatesFromFile(startDateTime, endDateTime);
 
         printSuccessMessage(1);
     }
 
-    private void loadAllTransactionsFromFile() throws TransactionsFileIsNotAttachedException, NoTransactionsException {
-        this.commandManager.loadAllTransactionsFromFile();
+    private void loadAllTransactionsFromFile()
+            throws TransactionsFileIsNotAttachedException, NoTransactionsException, TransactionsFileFormatException
+    {
+        if (!waitForFileVerification())
+            return;
 
-        printSuccessMessage(0);
+        int loadedTransactionsCount = this.commandManager.loadAllTransactionsFromFile();
+
+        System.out.println(loadedTransactionsCount + " new transactions were loaded, the others are already in the program.");
+        printSuccessMessage(1);
+    }
+
+    private LedgerTransactionId enterLedgerTransactionId() throws IncorrectInputException {
+        if (this.commandManager.getAttachedLedgerNames().size() > 1)
+            System.out.println("Enter the file name before the ID, for example "
+                    + new LedgerTransactionId(this.commandManager.getSaveTargetName(), 1));
+        return InputConverter.convertLedgerTransactionId(enterId());
     }
 
     private String enterId() {